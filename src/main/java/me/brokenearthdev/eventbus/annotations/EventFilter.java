@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.annotations;
+
+import java.lang.annotation.*;
+
+import me.brokenearthdev.eventbus.entities.EventBus;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+import me.brokenearthdev.eventbus.utils.Predicate;
+
+/**
+ * Annotate an event method with this annotation to have it invoked only for matching events.
+ * The filter is checked by the {@link EventBus} before the event method is invoked, so
+ * events that don't match cost almost nothing.
+ *
+ * A filter can compare a field of the event with a value:
+ * <pre>
+ *     &#64;SubscribeEvent
+ *     &#64;EventFilter(field = "accountId", value = "42")
+ *     public void onAccountEvent(AccountEvent event) { ... }
+ * </pre>
+ * The field may have any visibility and may be declared in a superclass (or above) of the
+ * event class. The value is converted to the type of the field, which must be a primitive,
+ * a primitive wrapper, a {@link String} or an enum. Event methods filtering on the same field
+ * share a hash index, so only the event methods matching the field's value are looked at.
+ *
+ * A filter can also use a {@link Predicate} class with a no-argument constructor, which is
+ * created once. If both are specified, the event must match both.
+ *
+ * {@link EventBusException} will be thrown when the listener is registered if the field
+ * doesn't exist, the value can't be converted or the predicate can't be created, and the
+ * listener won't be registered.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface EventFilter {
+
+    /**
+     * @return The name of the event field to compare, or an empty string to not
+     * compare a field
+     */
+    String field() default "";
+
+    /**
+     * @return The value the field must be equal to. Converted to the type of the field
+     */
+    String value() default "";
+
+    /**
+     * @return The predicate events must match, or {@link Predicate} itself to not
+     * use a predicate
+     */
+    @SuppressWarnings("rawtypes")
+    Class<? extends Predicate> predicate() default Predicate.class;
+
+}
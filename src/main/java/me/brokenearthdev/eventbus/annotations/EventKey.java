@@ -0,0 +1,37 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.annotations;
+
+import java.lang.annotation.*;
+
+import me.brokenearthdev.eventbus.entities.KeyedEvent;
+import me.brokenearthdev.eventbus.entities.KeyedEventCaller;
+
+/**
+ * Annotate a field in an event class with this annotation to use the field's value as
+ * the event's key when it is called by a {@link KeyedEventCaller}. Events with equal keys
+ * are handled in the order they were called, while events with different keys may be
+ * handled in parallel.
+ *
+ * The field may have any visibility and may be declared in a superclass (or above) of the
+ * event class. If the event class implements {@link KeyedEvent}, this annotation is ignored.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ * @see KeyedEvent
+ */
+@Documented
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EventKey {
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.bridge;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carries batches of events between the {@link EventBridge}s of different processes on the
+ * same machine. A batch sent by one process is received by every other process using the
+ * same transport. A transport doesn't need to deliver batches reliably; the bridge drops
+ * batches it has already received.
+ *
+ * {@link #send(ByteBuffer)} is only called by the sending thread of the bridge and
+ * {@link #receive(long, TimeUnit)} is only called by its receiving thread.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ * @see SharedMemoryTransport
+ * @see SocketTransport
+ */
+public interface BridgeTransport extends Closeable {
+
+    /**
+     * Sends the specified batch to the other processes
+     *
+     * @param batch The batch, from its position to its limit
+     * @throws IOException If the batch couldn't be sent
+     */
+    void send(ByteBuffer batch) throws IOException;
+
+    /**
+     * Waits for a batch sent by another process
+     *
+     * @param timeout The maximum time to wait
+     * @param unit The unit of the timeout
+     * @return The received batch, or null if no batch was received in time
+     * @throws IOException If the transport failed
+     * @throws InterruptedException If the current thread was interrupted while waiting
+     */
+    ByteBuffer receive(long timeout, TimeUnit unit) throws IOException, InterruptedException;
+
+}
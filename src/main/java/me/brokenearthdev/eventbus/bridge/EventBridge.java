@@ -0,0 +1,449 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.bridge;
+
+import me.brokenearthdev.eventbus.codec.EventCodec;
+import me.brokenearthdev.eventbus.entities.EventBus;
+import me.brokenearthdev.eventbus.entities.EventStage;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Mirrors selected event classes between the {@link EventBus}es of different processes on
+ * the same machine. Events of a mirrored class (or its subclasses) called on the local
+ * {@link EventBus} are sent to the other processes, where they are called on their
+ * {@link EventBus} if the class is mirrored there too. To mirror an event class, use
+ * <pre>
+ *     EventBridge&lt;Event&gt; bridge = new EventBridge&lt;&gt;(eventBus, codec, new SharedMemoryTransport(directory));
+ *     bridge.mirror(AccountEvent.class).start();
+ * </pre>
+ * Events are encoded with an {@link EventCodec} on the thread calling them, then sent in
+ * batches by a background thread. Received events are called by a separate background thread.
+ *
+ * Events received from another process are never sent again by any bridge, so events can't
+ * loop between processes. Every process sends its events with a random id and a sequence
+ * number; batches sent by this bridge and events that were already received are dropped.
+ *
+ * A received batch is checked before any of its events is decoded. If the batch is malformed
+ * or contains an event the codec doesn't trust (see {@link EventCodec#canDecode(ByteBuffer)}),
+ * the whole batch is rejected and counted by {@link #getRejectedCount()}. An event that still
+ * fails to decode is reported and counted by {@link #getFailedCount()}, and the other events
+ * of its batch are called.
+ *
+ * @param <T> The type parameter of the {@link EventBus}
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public class EventBridge<T> implements EventStage<T>, Closeable {
+
+    /**
+     * The size of the buffers used for encoding events and for sending batches
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The maximum number of encoded events waiting to be sent. Events called while the
+     * limit is reached are dropped
+     */
+    private static final int MAX_PENDING = 64 * 1024;
+
+    private final EventBus<T> bus;
+    private final EventCodec codec;
+    private final BridgeTransport transport;
+
+    /**
+     * The random id of this bridge, sent with every batch
+     */
+    private final long id = ThreadLocalRandom.current().nextLong();
+
+    /**
+     * The mirrored event classes
+     */
+    private final Set<Class<?>> mirrored = new CopyOnWriteArraySet<>();
+
+    /**
+     * Whether if an event class is mirrored, including subclasses of mirrored classes.
+     * Cleared when the mirrored classes change
+     */
+    private final ConcurrentHashMap<Class<?>, Boolean> mirroredCache = new ConcurrentHashMap<>();
+
+    /**
+     * The encoded events waiting to be sent
+     */
+    private final Queue<byte[]> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    /**
+     * The buffer used for encoding events on each thread
+     */
+    private final ThreadLocal<ByteBuffer> scratch = ThreadLocal.withInitial(() -> ByteBuffer.allocate(BUFFER_SIZE));
+
+    /**
+     * The last sequence number received from each other bridge, mapped by their id. Only
+     * used by {@link #receiver}
+     */
+    private final Map<Long, Long> lastReceived = new HashMap<>();
+
+    private final AtomicLong sent = new AtomicLong(), received = new AtomicLong(),
+            duplicates = new AtomicLong(), dropped = new AtomicLong(), rejected = new AtomicLong(),
+            failed = new AtomicLong();
+
+    private final Thread sender;
+    private final Receiver receiver;
+    private volatile boolean running;
+
+    /**
+     * Creates a bridge. The bridge doesn't send or receive events until {@link #start()} is called
+     *
+     * @param bus The local {@link EventBus}
+     * @param codec The codec used for encoding and decoding the events. The other processes
+     *              must decode events the same way
+     * @param transport The transport carrying the batches between the processes
+     */
+    public EventBridge(EventBus<T> bus, EventCodec codec, BridgeTransport transport) {
+        Objects.requireNonNull(bus, "Parameter(s) can't be null");
+        Objects.requireNonNull(codec, "Parameter(s) can't be null");
+        Objects.requireNonNull(transport, "Parameter(s) can't be null");
+        this.bus = bus;
+        this.codec = codec;
+        this.transport = transport;
+        this.sender = new Thread(this::send, "EventBridge-sender");
+        this.sender.setDaemon(true);
+        this.receiver = new Receiver();
+    }
+
+    /**
+     * Mirrors the specified event class and its subclasses
+     *
+     * @param type The event class
+     * @return This object
+     */
+    public EventBridge<T> mirror(Class<? extends T> type) {
+        mirrored.add(type);
+        mirroredCache.clear();
+        return this;
+    }
+
+    /**
+     * Stops mirroring the specified event class. If the class isn't mirrored, nothing will happen
+     *
+     * @param type The event class
+     * @return This object
+     */
+    public EventBridge<T> unmirror(Class<? extends T> type) {
+        mirrored.remove(type);
+        mirroredCache.clear();
+        return this;
+    }
+
+    /**
+     * @param type The event class
+     * @return Whether if the event class or its superclass (or above) is mirrored
+     */
+    public boolean isMirrored(Class<?> type) {
+        Boolean cached = mirroredCache.get(type);
+        if (cached == null) {
+            cached = false;
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                if (mirrored.contains(c)) {
+                    cached = true;
+                    break;
+                }
+            }
+            mirroredCache.put(type, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Adds this bridge as a stage of the {@link EventBus} and starts sending and receiving events
+     *
+     * @return This object
+     */
+    public EventBridge<T> start() {
+        running = true;
+        sender.start();
+        receiver.start();
+        bus.addStage(this);
+        return this;
+    }
+
+    /**
+     * Encodes the specified event if it is mirrored and wasn't received from another process
+     *
+     * @param event The event that is being called
+     */
+    @Override
+    public void onEvent(T event) {
+        if (!running || Thread.currentThread() instanceof EventBridge.Receiver || !isMirrored(event.getClass()))
+            return;
+        if (pendingCount.incrementAndGet() > MAX_PENDING) {
+            pendingCount.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        ByteBuffer buffer = scratch.get();
+        buffer.clear();
+        try {
+            codec.encode(event, buffer);
+        } catch (BufferOverflowException e) {
+            pendingCount.decrementAndGet();
+            throw new EventBusException("Event " + event.getClass().getName() + " is bigger than "
+                    + BUFFER_SIZE + " bytes");
+        } catch (RuntimeException e) {
+            pendingCount.decrementAndGet();
+            throw e;
+        }
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        pending.offer(bytes);
+        LockSupport.unpark(sender);
+    }
+
+    /**
+     * The loop of the {@link #sender} thread. Sends the pending events in batches. A batch
+     * contains the id of this bridge and the number of events, followed by the sequence number,
+     * the length and the bytes of every event
+     */
+    private void send() {
+        ByteBuffer batch = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long sequence = 0;
+        byte[] next = null;
+        while (running || next != null || !pending.isEmpty()) {
+            if (next == null) next = pending.poll();
+            if (next == null) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(10));
+                continue;
+            }
+            batch.clear();
+            batch.putLong(id);
+            batch.putInt(0);
+            int count = 0;
+            while (next != null && (count == 0 || batch.remaining() >= next.length + 12)) {
+                if (next.length + 12 > batch.remaining()) {
+                    // the event can never fit in a batch
+                    dropped.incrementAndGet();
+                } else {
+                    batch.putLong(++sequence);
+                    batch.putInt(next.length);
+                    batch.put(next);
+                    count++;
+                }
+                pendingCount.decrementAndGet();
+                next = pending.poll();
+            }
+            if (count == 0) continue;
+            batch.putInt(8, count);
+            batch.flip();
+            try {
+                transport.send(batch);
+                sent.addAndGet(count);
+            } catch (IOException e) {
+                dropped.addAndGet(count);
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Calls the events of the specified batch unless they were sent by this bridge or were
+     * already received. The batch is rejected as a whole if it is malformed or if the codec
+     * doesn't trust one of its events
+     *
+     * @param batch The received batch
+     */
+    @SuppressWarnings("unchecked")
+    private void receive(ByteBuffer batch) {
+        if (batch.remaining() < 12) {
+            rejected.incrementAndGet();
+            return;
+        }
+        long origin = batch.getLong();
+        if (origin == id) return;
+        int count = batch.getInt();
+        if (!isAcceptable(batch.duplicate(), count)) {
+            rejected.incrementAndGet();
+            return;
+        }
+        Long last = lastReceived.get(origin);
+        for (int i = 0; i < count; i++) {
+            long sequence = batch.getLong();
+            int length = batch.getInt();
+            int end = batch.position() + length;
+            if (last != null && sequence <= last) {
+                duplicates.incrementAndGet();
+                batch.position(end);
+                continue;
+            }
+            ByteBuffer bytes = batch.slice();
+            bytes.limit(length);
+            batch.position(end);
+            Object event = null;
+            try {
+                event = codec.decode(bytes);
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                new EventBusException("Couldn't decode event " + sequence + " received from bridge "
+                        + Long.toHexString(origin), e).printStackTrace();
+            }
+            if (event != null) {
+                received.incrementAndGet();
+                if (isMirrored(event.getClass())) {
+                    try {
+                        bus.callEvent((T) event);
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+            // the event was handled, so a copy of it received later is a duplicate
+            last = sequence;
+            lastReceived.put(origin, sequence);
+        }
+    }
+
+    /**
+     * Checks every event of a batch without decoding any of them
+     *
+     * @param batch The batch, positioned after its header
+     * @param count The number of events in the batch
+     * @return Whether if every event fits in the batch and is trusted by the codec
+     */
+    private boolean isAcceptable(ByteBuffer batch, int count) {
+        if (count < 0 || count > batch.remaining() / 12) return false;
+        for (int i = 0; i < count; i++) {
+            if (batch.remaining() < 12) return false;
+            batch.getLong();
+            int length = batch.getInt();
+            if (length <= 0 || length > batch.remaining()) return false;
+            ByteBuffer bytes = batch.slice();
+            bytes.limit(length);
+            if (!codec.canDecode(bytes)) return false;
+            batch.position(batch.position() + length);
+        }
+        return true;
+    }
+
+    /**
+     * @return The number of events sent to the other processes
+     */
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    /**
+     * @return The number of events received from the other processes
+     */
+    public long getReceivedCount() {
+        return received.get();
+    }
+
+    /**
+     * @return The number of received events dropped because they were already received
+     */
+    public long getDuplicateCount() {
+        return duplicates.get();
+    }
+
+    /**
+     * @return The number of events that couldn't be sent
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return The number of received batches rejected because they were malformed or contained
+     * an event the codec doesn't trust
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * @return The number of received events that couldn't be decoded
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Removes this bridge from the stages of the {@link EventBus}, sends the pending events,
+     * stops the background threads and closes the transport
+     *
+     * @throws IOException If the transport couldn't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        bus.removeStage(this);
+        boolean started = running;
+        running = false;
+        if (started) {
+            LockSupport.unpark(sender);
+            receiver.interrupt();
+            try {
+                sender.join();
+                receiver.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        transport.close();
+    }
+
+    /**
+     * The thread receiving batches and calling their events. Events called on this thread
+     * are never sent by a bridge
+     */
+    private final class Receiver extends Thread {
+
+        private Receiver() {
+            super("EventBridge-receiver");
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    ByteBuffer batch = transport.receive(100, TimeUnit.MILLISECONDS);
+                    if (batch != null) receive(batch);
+                } catch (InterruptedException e) {
+                    return;
+                } catch (IOException | RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.bridge;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Publishes and reads the write position in the header of a ring file shared by the
+ * processes of a {@link SharedMemoryTransport}. A process reading a position published by
+ * {@link #publish(ByteBuffer, int, long)} must see every batch written before it.
+ *
+ * Java 8 has no acquire or release access to a {@link ByteBuffer}, so this version only
+ * works on x86 processors. The volatile accesses around the plain accesses keep HotSpot from
+ * moving them, and x86 doesn't reorder stores with stores or loads with loads. On weakly
+ * ordered processors, such as ARM, the transport must run on Java 11 or later, where this
+ * class is replaced by a version with release stores and acquire loads.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+final class RingHeader {
+
+    /**
+     * Accessed between the plain accesses that mustn't be reordered
+     */
+    private static volatile int fence;
+
+    private RingHeader() {
+    }
+
+    /**
+     * Publishes a write position. The batches written before are visible to a process reading
+     * the position, and the position is visible before the batches written after
+     *
+     * @param ring The ring
+     * @param offset The offset of the position in the ring
+     * @param position The write position
+     */
+    static void publish(ByteBuffer ring, int offset, long position) {
+        fence = 0;
+        ring.putLong(offset, position);
+        fence = 0;
+    }
+
+    /**
+     * Reads a write position before reading the batches written before it
+     *
+     * @param ring The ring
+     * @param offset The offset of the position in the ring
+     * @return The write position
+     */
+    static long read(ByteBuffer ring, int offset) {
+        long position = ring.getLong(offset);
+        int ignored = fence;
+        return position;
+    }
+
+    /**
+     * Reads a write position again after a batch was copied, to find out whether if the batch
+     * may have been overwritten while it was copied
+     *
+     * @param ring The ring
+     * @param offset The offset of the position in the ring
+     * @return The write position
+     */
+    static long recheck(ByteBuffer ring, int offset) {
+        int ignored = fence;
+        return ring.getLong(offset);
+    }
+
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.bridge;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link BridgeTransport} using memory-mapped ring files in a shared directory, such as
+ * a directory in {@code /dev/shm}. Every process writes its batches to its own ring file and
+ * reads the ring files of the other processes in the directory.
+ *
+ * A ring file never blocks its writer: when a reader falls behind by more than half of the
+ * ring, it skips to the newest batch and the skipped batches are counted by
+ * {@link #getLostCount()}. Readers only see batches written after they found the ring file.
+ * A batch can be at most a quarter of the ring: a batch being written, together with the end
+ * of the ring it may skip, then never reaches a batch a reader copies within half of the ring.
+ * The ring file of a process is deleted when the transport is closed.
+ *
+ * Every process stamps the header of its ring file with the current time while it receives.
+ * The ring file of a process that crashed isn't deleted by it, so the other processes delete
+ * ring files whose stamp is older than 30 seconds. A process that is paused for longer than
+ * that loses its ring file and must create a new transport.
+ *
+ * Any process that can write to the directory can write batches, so the directory must only
+ * be accessible to the processes sharing it. On file systems with POSIX permissions, ring files
+ * are created readable and writable by their owner only.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public class SharedMemoryTransport implements BridgeTransport {
+
+    /**
+     * The size of the header of a ring file. The header contains the capacity of the ring
+     * at offset 0, the published write position at offset 8 and the time the owning process
+     * was last seen at offset 16
+     */
+    private static final int HEADER_SIZE = 64;
+
+    /**
+     * The offsets of the write position and the time in the header
+     */
+    private static final int POSITION = 8, SEEN = 16;
+
+    /**
+     * Written instead of a length when the rest of the ring is skipped
+     */
+    private static final int WRAP = -1;
+
+    /**
+     * The file extension of the ring files
+     */
+    private static final String SUFFIX = ".ring";
+
+    /**
+     * The interval between looking for new ring files
+     */
+    private static final long SCAN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * The time after which a ring file whose owner wasn't seen is deleted
+     */
+    private static final long ABANDONED_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * The directory containing the ring files
+     */
+    private final Path directory;
+
+    /**
+     * The ring file of this process
+     */
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer ring;
+
+    /**
+     * The capacity of the ring of this process in bytes
+     */
+    private final int capacity;
+
+    /**
+     * The position the next batch will be written at. Positions increase forever; the
+     * index in the ring is the position modulo the capacity
+     */
+    private long writePosition;
+
+    /**
+     * The readers of the ring files of the other processes, mapped by their file
+     */
+    private final Map<Path, Reader> readers = new HashMap<>();
+
+    /**
+     * When the directory was last scanned for ring files
+     */
+    private long lastScan = System.nanoTime() - SCAN_INTERVAL_NANOS;
+
+    /**
+     * The number of batches skipped by the readers
+     */
+    private final AtomicLong lost = new AtomicLong();
+
+    /**
+     * The number of abandoned ring files deleted by this process
+     */
+    private final AtomicLong abandoned = new AtomicLong();
+
+    /**
+     * Creates the ring file of this process in the specified directory
+     *
+     * @param directory The directory shared by the processes
+     * @param capacity The capacity of the ring in bytes. A batch can be at most a quarter of it
+     * @throws IOException If the ring file couldn't be created
+     */
+    public SharedMemoryTransport(Path directory, int capacity) throws IOException {
+        if (capacity < 1024)
+            throw new IllegalArgumentException("Capacity must be at least 1024 bytes");
+        this.directory = directory;
+        this.capacity = capacity;
+        Files.createDirectories(directory);
+        String name = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        // the ring file is prepared under another name, so readers never find a partial header
+        Path created = directory.resolve(name + SUFFIX + ".tmp");
+        this.channel = FileChannel.open(created, options(), ownerOnly(directory));
+        this.ring = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + capacity);
+        ring.putLong(0, capacity);
+        ring.putLong(SEEN, System.currentTimeMillis());
+        RingHeader.publish(ring, POSITION, 0);
+        this.file = Files.move(created, directory.resolve(name + SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Set<StandardOpenOption> options() {
+        Set<StandardOpenOption> options = new HashSet<>();
+        options.add(StandardOpenOption.CREATE_NEW);
+        options.add(StandardOpenOption.READ);
+        options.add(StandardOpenOption.WRITE);
+        return options;
+    }
+
+    /**
+     * @param directory The directory of the ring files
+     * @return The owner-only permissions, if the file system supports POSIX permissions
+     */
+    private static FileAttribute<?>[] ownerOnly(Path directory) {
+        if (!directory.getFileSystem().supportedFileAttributeViews().contains("posix"))
+            return new FileAttribute<?>[0];
+        return new FileAttribute<?>[]{PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------"))};
+    }
+
+    /**
+     * Creates the ring file of this process in the specified directory with a capacity of 4 MB
+     *
+     * @param directory The directory shared by the processes
+     * @throws IOException If the ring file couldn't be created
+     */
+    public SharedMemoryTransport(Path directory) throws IOException {
+        this(directory, 4 * 1024 * 1024);
+    }
+
+    @Override
+    public synchronized void send(ByteBuffer batch) throws IOException {
+        int length = batch.remaining();
+        // the skipped end of the ring is shorter than the batch, so the write and the skipped end
+        // stay within half of the ring; readers only copy batches within the other half
+        if (length + 4 > capacity / 4)
+            throw new IOException("Batch is bigger than a quarter of the ring");
+        int index = (int) (writePosition % capacity);
+        if (index + 4 + length > capacity) {
+            if (index + 4 <= capacity) ring.putInt(HEADER_SIZE + index, WRAP);
+            writePosition += capacity - index;
+            index = 0;
+        }
+        ring.position(HEADER_SIZE + index + 4);
+        ring.put(batch);
+        ring.putInt(HEADER_SIZE + index, length);
+        writePosition += 4 + length;
+        RingHeader.publish(ring, POSITION, writePosition);
+    }
+
+    @Override
+    public ByteBuffer receive(long timeout, TimeUnit unit) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long backoff = 1000;
+        while (true) {
+            if (System.nanoTime() - lastScan >= SCAN_INTERVAL_NANOS) scan();
+            for (Reader reader : readers.values()) {
+                ByteBuffer batch = reader.poll();
+                if (batch != null) return batch;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return null;
+            if (Thread.interrupted()) throw new InterruptedException();
+            LockSupport.parkNanos(Math.min(remaining, backoff));
+            backoff = Math.min(backoff * 2, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    /**
+     * Stamps the ring file of this process, opens readers for new ring files, closes the
+     * readers of deleted ring files and deletes abandoned ring files
+     *
+     * @throws IOException If the directory couldn't be read
+     */
+    private void scan() throws IOException {
+        lastScan = System.nanoTime();
+        long now = System.currentTimeMillis();
+        ring.putLong(SEEN, now);
+        Set<Path> found = new HashSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path other : files) {
+                if (other.equals(file)) continue;
+                Reader reader = readers.get(other);
+                if (reader == null) {
+                    reader = openReader(other);
+                    if (reader == null) continue;
+                    readers.put(other, reader);
+                }
+                if (now - reader.ring.getLong(SEEN) > ABANDONED_MILLIS) {
+                    // the owner crashed, or it would have stamped its ring file
+                    if (Files.deleteIfExists(other)) abandoned.incrementAndGet();
+                    continue;
+                }
+                found.add(other);
+            }
+        }
+        for (Iterator<Map.Entry<Path, Reader>> it = readers.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Path, Reader> entry = it.next();
+            if (!found.contains(entry.getKey())) {
+                entry.getValue().channel.close();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * @param path The ring file
+     * @return A reader starting at the current write position of the ring file, or null
+     * if the ring file isn't ready yet
+     * @throws IOException If the ring file couldn't be opened
+     */
+    private Reader openReader(Path path) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException e) {
+            // deleted since the directory was read
+            return null;
+        }
+        long size = channel.size();
+        if (size <= HEADER_SIZE) {
+            channel.close();
+            return null;
+        }
+        ByteBuffer ring = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        long capacity = ring.getLong(0);
+        if (capacity <= 0 || capacity != size - HEADER_SIZE) {
+            channel.close();
+            return null;
+        }
+        return new Reader(channel, ring, (int) capacity);
+    }
+
+    /**
+     * @return The number of batches skipped because a reader fell behind
+     */
+    public long getLostCount() {
+        return lost.get();
+    }
+
+    /**
+     * @return The number of ring files of crashed processes deleted by this process
+     */
+    public long getAbandonedCount() {
+        return abandoned.get();
+    }
+
+    /**
+     * Closes the readers and deletes the ring file of this process
+     *
+     * @throws IOException If the ring file couldn't be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        for (Reader reader : readers.values()) {
+            reader.channel.close();
+        }
+        readers.clear();
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Reads the ring file of another process
+     */
+    private final class Reader {
+
+        private final FileChannel channel;
+        private final ByteBuffer ring;
+        private final int capacity;
+
+        /**
+         * The position of the next batch to read
+         */
+        private long readPosition;
+
+        private Reader(FileChannel channel, ByteBuffer ring, int capacity) {
+            this.channel = channel;
+            this.ring = ring;
+            this.capacity = capacity;
+            this.readPosition = RingHeader.read(ring, POSITION);
+        }
+
+        /**
+         * @return The next batch, or null if there is no new batch
+         */
+        private ByteBuffer poll() {
+            while (true) {
+                long write = RingHeader.read(ring, POSITION);
+                if (write == readPosition) return null;
+                if (write - readPosition > capacity / 2) {
+                    skipTo(write);
+                    return null;
+                }
+                int index = (int) (readPosition % capacity);
+                int length = index + 4 <= capacity ? ring.getInt(HEADER_SIZE + index) : WRAP;
+                if (length == WRAP) {
+                    readPosition += capacity - index;
+                    continue;
+                }
+                if (length < 0 || index + 4 + length > capacity) {
+                    skipTo(write);
+                    return null;
+                }
+                byte[] batch = new byte[length];
+                ByteBuffer source = ring.duplicate();
+                source.position(HEADER_SIZE + index + 4);
+                source.get(batch);
+                // the batch may have been overwritten while it was copied. A write that isn't
+                // published yet starts at the rechecked position and takes at most half of the
+                // ring, so the batch is intact if it is within half of the ring behind it
+                long rechecked = RingHeader.recheck(ring, POSITION);
+                if (rechecked - readPosition > capacity / 2) {
+                    skipTo(rechecked);
+                    return null;
+                }
+                readPosition += 4 + length;
+                return ByteBuffer.wrap(batch);
+            }
+        }
+
+        private void skipTo(long write) {
+            lost.incrementAndGet();
+            readPosition = write;
+        }
+    }
+
+}
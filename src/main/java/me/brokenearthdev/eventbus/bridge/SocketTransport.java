@@ -0,0 +1,482 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.bridge;
+
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link BridgeTransport} using TCP connections on the loopback interface. Every process
+ * listens on its own port and sends its batches to the ports of the other processes. A
+ * process that isn't listening yet is connected to when the next batch is sent; batches
+ * sent before that are not delivered to it.
+ *
+ * Every process must use the same secret. Any local process can connect to a loopback port,
+ * so a connection is only used after both ends proved that they know the secret: each end
+ * sends a random nonce and the other end answers with an HMAC-SHA256 of both nonces and the
+ * port of the accepting end, keyed with the secret. The secret itself is never sent, and since
+ * the proofs name the accepting end, a process listening on another port can't relay them.
+ * Connections failing the handshake, or not finishing it within 5 seconds, are closed before
+ * anything is read from them and counted by {@link #getRejectedConnectionCount()}. At most 4
+ * handshakes run at once and 16 more wait; further connections are rejected until they finish.
+ *
+ * Received batches wait in a queue of at most {@link #getQueueCapacity()} batches. When the
+ * queue is full, received batches are dropped and counted by {@link #getDroppedCount()}.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public class SocketTransport implements BridgeTransport {
+
+    /**
+     * The maximum size of a received batch
+     */
+    private static final int MAX_BATCH_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * The minimum size of the shared secret in bytes
+     */
+    private static final int MIN_SECRET_SIZE = 16;
+
+    /**
+     * The size of the nonces and of the proofs exchanged by the handshake
+     */
+    private static final int NONCE_SIZE = 32, PROOF_SIZE = 32;
+
+    /**
+     * The roles mixed into the proofs, so that a proof sent by one end can't be sent back by the other
+     */
+    private static final byte CONNECTING = 'C', ACCEPTING = 'A';
+
+    /**
+     * The time the other end has to finish the handshake
+     */
+    private static final int HANDSHAKE_TIMEOUT_MILLIS = 5000;
+
+    /**
+     * The maximum number of handshakes with accepted connections running at once, and waiting
+     */
+    private static final int MAX_HANDSHAKES = 4, MAX_WAITING_HANDSHAKES = 16;
+
+    /**
+     * The key of the HMAC, created from the shared secret
+     */
+    private final SecretKeySpec key;
+
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * The socket other processes connect to
+     */
+    private final ServerSocketChannel server;
+
+    /**
+     * The port of {@link #server}, which the proofs of the handshake name
+     */
+    private final int port;
+
+    /**
+     * Runs the handshakes of accepted connections
+     */
+    private final ThreadPoolExecutor handshakes;
+
+    /**
+     * The ports of the other processes
+     */
+    private final int[] peers;
+
+    /**
+     * The connections to the other processes, mapped by their port. Only used by the sending thread
+     */
+    private final Map<Integer, SocketChannel> outgoing = new HashMap<>();
+
+    /**
+     * The connections from the other processes
+     */
+    private final List<SocketChannel> incoming = new CopyOnWriteArrayList<>();
+
+    /**
+     * The received batches
+     */
+    private final BlockingQueue<ByteBuffer> received;
+
+    /**
+     * The number of received batches dropped because {@link #received} was full
+     */
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * The number of connections closed because they failed the handshake
+     */
+    private final AtomicLong rejectedConnections = new AtomicLong();
+
+    /**
+     * Whether if {@link #close()} was called
+     */
+    private volatile boolean closed;
+
+    /**
+     * Listens on the specified port of the loopback interface
+     *
+     * @param secret The secret shared by the processes. Must be at least 16 bytes, and should be
+     *               random bytes known only to these processes
+     * @param port The port of this process
+     * @param peers The ports of the other processes
+     * @param queueCapacity The maximum number of received batches waiting to be handled. Must be positive
+     * @throws IOException If the port couldn't be bound
+     */
+    public SocketTransport(byte[] secret, int port, int[] peers, int queueCapacity) throws IOException {
+        Objects.requireNonNull(secret, "Parameter(s) can't be null");
+        Objects.requireNonNull(peers, "Parameter(s) can't be null");
+        if (secret.length < MIN_SECRET_SIZE)
+            throw new EventBusException("The secret must be at least " + MIN_SECRET_SIZE + " bytes");
+        if (queueCapacity <= 0)
+            throw new EventBusException("Queue capacity must be positive");
+        this.key = new SecretKeySpec(secret.clone(), "HmacSHA256");
+        this.peers = peers.clone();
+        this.received = new LinkedBlockingQueue<>(queueCapacity);
+        this.server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        this.port = server.socket().getLocalPort();
+        this.handshakes = new ThreadPoolExecutor(MAX_HANDSHAKES, MAX_HANDSHAKES, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(MAX_WAITING_HANDSHAKES), task -> {
+            Thread thread = new Thread(task, "EventBridge-socket-handshake-" + this.port);
+            thread.setDaemon(true);
+            return thread;
+        });
+        handshakes.allowCoreThreadTimeOut(true);
+        Thread acceptor = new Thread(this::accept, "EventBridge-socket-" + this.port);
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Listens on the specified port of the loopback interface with a queue of 1024 received batches
+     *
+     * @param secret The secret shared by the processes. Must be at least 16 bytes, and should be
+     *               random bytes known only to these processes
+     * @param port The port of this process
+     * @param peers The ports of the other processes
+     * @throws IOException If the port couldn't be bound
+     */
+    public SocketTransport(byte[] secret, int port, int... peers) throws IOException {
+        this(secret, port, peers, 1024);
+    }
+
+    /**
+     * Accepts connections from the other processes and hands them to {@link #handshakes}
+     */
+    private void accept() {
+        while (!closed) {
+            SocketChannel connection;
+            try {
+                connection = server.accept();
+            } catch (IOException e) {
+                if (!closed) e.printStackTrace();
+                return;
+            }
+            incoming.add(connection);
+            try {
+                handshakes.execute(() -> authenticate(connection));
+            } catch (RejectedExecutionException e) {
+                // too many handshakes are running, or the transport was closed
+                reject(connection);
+            }
+        }
+    }
+
+    /**
+     * Runs the handshake with the specified accepted connection and starts a thread reading it
+     * if the other process passed the handshake
+     *
+     * @param connection The connection from another process
+     */
+    private void authenticate(SocketChannel connection) {
+        boolean authenticated;
+        try {
+            authenticated = acceptHandshake(connection);
+        } catch (IOException e) {
+            // the other end closed the connection or didn't answer in time
+            authenticated = false;
+        }
+        if (!authenticated) {
+            reject(connection);
+            return;
+        }
+        Thread reader = new Thread(() -> read(connection), "EventBridge-socket-reader-" + port);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Counts and closes a connection that didn't pass the handshake
+     *
+     * @param connection The connection
+     */
+    private void reject(SocketChannel connection) {
+        rejectedConnections.incrementAndGet();
+        incoming.remove(connection);
+        try {
+            connection.close();
+        } catch (IOException ignored) {
+            // already closed
+        }
+    }
+
+    /**
+     * Reads the batches sent over the specified authenticated connection until it is closed
+     *
+     * @param connection The connection from another process
+     */
+    private void read(SocketChannel connection) {
+        ByteBuffer header = ByteBuffer.allocate(4);
+        try {
+            while (!closed) {
+                header.clear();
+                if (!readFully(connection, header)) break;
+                int length = header.getInt(0);
+                if (length < 0 || length > MAX_BATCH_SIZE)
+                    throw new IOException("Invalid batch length " + length);
+                ByteBuffer batch = ByteBuffer.allocate(length);
+                if (!readFully(connection, batch)) break;
+                batch.flip();
+                if (!received.offer(batch)) dropped.incrementAndGet();
+            }
+        } catch (IOException e) {
+            if (!closed) e.printStackTrace();
+        } finally {
+            incoming.remove(connection);
+            try {
+                connection.close();
+            } catch (IOException ignored) {
+                // already closed
+            }
+        }
+    }
+
+    private static boolean readFully(SocketChannel connection, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (connection.read(buffer) < 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * The handshake of the accepting end. Sends a nonce, checks the proof of the connecting end
+     * and answers with its own proof
+     *
+     * @param connection The accepted connection
+     * @return Whether if the connecting end knows the secret
+     * @throws IOException If the connection failed or timed out
+     */
+    private boolean acceptHandshake(SocketChannel connection) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(HANDSHAKE_TIMEOUT_MILLIS);
+        byte[] challenge = new byte[NONCE_SIZE];
+        random.nextBytes(challenge);
+        writeFully(connection, ByteBuffer.wrap(challenge));
+        byte[] reply = new byte[NONCE_SIZE + PROOF_SIZE];
+        if (!readFully(connection, reply, deadline)) return false;
+        byte[] nonce = Arrays.copyOf(reply, NONCE_SIZE);
+        byte[] proof = Arrays.copyOfRange(reply, NONCE_SIZE, reply.length);
+        if (!MessageDigest.isEqual(proof, proof(CONNECTING, port, challenge, nonce))) return false;
+        writeFully(connection, ByteBuffer.wrap(proof(ACCEPTING, port, challenge, nonce)));
+        return true;
+    }
+
+    /**
+     * The handshake of the connecting end. Answers the nonce of the accepting end with a nonce
+     * and a proof, then checks the proof of the accepting end
+     *
+     * @param connection The opened connection
+     * @param peer The port the connection was opened to, which the proofs must name
+     * @return Whether if the accepting end knows the secret
+     * @throws IOException If the connection failed or timed out
+     */
+    private boolean connectHandshake(SocketChannel connection, int peer) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(HANDSHAKE_TIMEOUT_MILLIS);
+        byte[] challenge = new byte[NONCE_SIZE];
+        if (!readFully(connection, challenge, deadline)) return false;
+        byte[] nonce = new byte[NONCE_SIZE];
+        random.nextBytes(nonce);
+        ByteBuffer reply = ByteBuffer.allocate(NONCE_SIZE + PROOF_SIZE);
+        reply.put(nonce).put(proof(CONNECTING, peer, challenge, nonce)).flip();
+        writeFully(connection, reply);
+        byte[] proof = new byte[PROOF_SIZE];
+        return readFully(connection, proof, deadline)
+                && MessageDigest.isEqual(proof, proof(ACCEPTING, peer, challenge, nonce));
+    }
+
+    /**
+     * @param role The role of the end sending the proof
+     * @param acceptor The port of the accepting end. A proof made for a connection to one port
+     *                 isn't valid for any other port, so it can't be relayed
+     * @param challenge The nonce of the accepting end
+     * @param nonce The nonce of the connecting end
+     * @return The HMAC-SHA256 of the role, the port and both nonces, keyed with the shared secret
+     */
+    private byte[] proof(byte role, int acceptor, byte[] challenge, byte[] nonce) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            mac.update(role);
+            mac.update(ByteBuffer.allocate(4).putInt(0, acceptor));
+            mac.update(challenge);
+            return mac.doFinal(nonce);
+        } catch (GeneralSecurityException e) {
+            throw new EventBusException("HmacSHA256 isn't available", e);
+        }
+    }
+
+    /**
+     * Reads the specified number of handshake bytes before the specified deadline, so that
+     * a slow sender can't keep a handshake running by sending one byte at a time
+     *
+     * @param connection The connection
+     * @param bytes The array to fill
+     * @param deadline The {@link System#nanoTime()} the handshake must be finished at
+     * @return Whether if the array was filled. False if the connection was closed
+     * @throws IOException If the connection failed or the deadline passed
+     */
+    private static boolean readFully(SocketChannel connection, byte[] bytes, long deadline) throws IOException {
+        try {
+            // unlike the channel, the socket's stream honors the timeout
+            InputStream in = connection.socket().getInputStream();
+            for (int read = 0; read < bytes.length; ) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0)
+                    throw new SocketTimeoutException("The handshake timed out");
+                connection.socket().setSoTimeout((int) remaining);
+                int n = in.read(bytes, read, bytes.length - read);
+                if (n < 0) return false;
+                read += n;
+            }
+            return true;
+        } finally {
+            connection.socket().setSoTimeout(0);
+        }
+    }
+
+    private static void writeFully(SocketChannel connection, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            connection.write(buffer);
+        }
+    }
+
+    @Override
+    public void send(ByteBuffer batch) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4);
+        header.putInt(0, batch.remaining());
+        for (int peer : peers) {
+            SocketChannel connection = outgoing.get(peer);
+            if (connection == null) {
+                try {
+                    connection = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), peer));
+                } catch (IOException e) {
+                    // the peer isn't listening (yet)
+                    continue;
+                }
+                try {
+                    connection.socket().setTcpNoDelay(true);
+                    if (!connectHandshake(connection, peer)) {
+                        rejectedConnections.incrementAndGet();
+                        connection.close();
+                        continue;
+                    }
+                } catch (IOException e) {
+                    // the peer closed the connection or didn't answer in time
+                    rejectedConnections.incrementAndGet();
+                    connection.close();
+                    continue;
+                }
+                outgoing.put(peer, connection);
+            }
+            ByteBuffer[] buffers = {header.duplicate(), batch.duplicate()};
+            try {
+                while (buffers[1].hasRemaining()) {
+                    connection.write(buffers);
+                }
+            } catch (IOException e) {
+                outgoing.remove(peer);
+                connection.close();
+            }
+        }
+    }
+
+    @Override
+    public ByteBuffer receive(long timeout, TimeUnit unit) throws InterruptedException {
+        return received.poll(timeout, unit);
+    }
+
+    /**
+     * @return The maximum number of received batches waiting to be handled
+     */
+    public int getQueueCapacity() {
+        return received.remainingCapacity() + received.size();
+    }
+
+    /**
+     * @return The number of received batches dropped because too many were waiting
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return The number of connections, from or to other processes, closed because the other
+     * end didn't prove that it knows the secret
+     */
+    public long getRejectedConnectionCount() {
+        return rejectedConnections.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        server.close();
+        handshakes.shutdownNow();
+        for (SocketChannel connection : outgoing.values()) {
+            connection.close();
+        }
+        outgoing.clear();
+        for (SocketChannel connection : incoming) {
+            connection.close();
+        }
+    }
+
+}
@@ -0,0 +1,816 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.codec;
+
+import me.brokenearthdev.eventbus.annotations.CallerEventBus;
+import me.brokenearthdev.eventbus.entities.EventBus;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A compact binary {@link EventCodec}. The fields of an event class are found once, when
+ * the class is first encoded or decoded, and every event of that class is then written field
+ * by field straight into the buffer. The written fields are all non-static, non-transient
+ * fields of the event class and its superclasses, except for fields annotated with
+ * {@link CallerEventBus} and fields holding an {@link EventBus}.
+ *
+ * Supported field values are primitives and their wrappers, {@link String}s, enums, byte arrays,
+ * other objects with a no-argument constructor (written the same way as events) and common
+ * {@link Serializable} value classes of the {@code java.*} packages, such as collections,
+ * {@link java.math.BigDecimal} and {@link java.util.UUID}, which are written using Java
+ * serialization. Object graphs mustn't contain cycles.
+ *
+ * Every field is written with a hash of its name and the type of its value. An event written
+ * by an older or newer version of its class can still be decoded: fields that don't exist
+ * anymore are skipped and new fields keep the value given by the no-argument constructor.
+ * Event classes are identified by their name, or by a smaller id if registered using
+ * {@link #register(Class, int)} on both the encoding and the decoding side.
+ *
+ * Decoded bytes may come from another process or from a file, so only trusted classes are
+ * decoded: classes passed to {@link #register(Class, int)} or {@link #allow(Class[])}, and the
+ * exact declared class of a field of a trusted class. Any other class name in the bytes makes
+ * {@link #decode(ByteBuffer)} throw an {@link EventBusException} without the class being loaded.
+ * Java serialized values are restricted the same way, to the trusted classes and a fixed list
+ * of Java platform value classes.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public class BinaryEventCodec implements EventCodec {
+
+    /**
+     * The version of the format written by this codec. It is written before every event
+     */
+    public static final byte FORMAT_VERSION = 1;
+
+    /**
+     * The type tags written before every field value
+     */
+    private static final byte NULL = 0, BOOLEAN = 1, BYTE = 2, SHORT = 3, CHAR = 4, INT = 5, LONG = 6,
+            FLOAT = 7, DOUBLE = 8, STRING = 9, ENUM = 10, BYTES = 11, OBJECT = 12, SERIALIZED = 13;
+
+    /**
+     * The maximum depth of objects nested in fields. Deeper objects aren't decoded
+     */
+    private static final int MAX_DEPTH = 64;
+
+    /**
+     * The Java platform classes that may be written using Java serialization. Their
+     * serialized forms only contain other values, so they can't run code when decoded
+     */
+    private static final Set<String> SERIALIZABLE = new HashSet<>(Arrays.asList(
+            "java.lang.Boolean", "java.lang.Byte", "java.lang.Character", "java.lang.Short",
+            "java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double",
+            "java.lang.Number", "java.lang.String", "java.lang.Enum",
+            "java.math.BigInteger", "java.math.BigDecimal",
+            "java.util.ArrayList", "java.util.LinkedList", "java.util.ArrayDeque",
+            "java.util.HashMap", "java.util.LinkedHashMap", "java.util.TreeMap",
+            "java.util.HashSet", "java.util.LinkedHashSet", "java.util.TreeSet",
+            "java.util.UUID", "java.util.Date", "java.util.Arrays$ArrayList",
+            "java.util.Collections$EmptyList", "java.util.Collections$EmptySet", "java.util.Collections$EmptyMap",
+            "java.util.Collections$SingletonList", "java.util.Collections$SingletonSet",
+            "java.util.Collections$SingletonMap", "java.util.Collections$UnmodifiableCollection",
+            "java.util.Collections$UnmodifiableList", "java.util.Collections$UnmodifiableRandomAccessList",
+            "java.util.Collections$UnmodifiableSet", "java.util.Collections$UnmodifiableMap",
+            // the serialized forms of List.of(...) and of the java.time classes
+            "java.util.CollSer", "java.time.Ser"));
+
+    /**
+     * The plan of every encoded or decoded class, created once per class
+     */
+    private final ClassValue<ClassPlan> plans = new ClassValue<ClassPlan>() {
+        @Override
+        protected ClassPlan computeValue(Class<?> type) {
+            return new ClassPlan(type);
+        }
+    };
+
+    /**
+     * The trusted classes mapped by their name. Only these classes, and the declared classes of
+     * their fields, are decoded
+     */
+    private final ConcurrentHashMap<String, Class<?>> trusted = new ConcurrentHashMap<>();
+
+    /**
+     * The registered classes mapped by their id, and the other way around
+     */
+    private final ConcurrentHashMap<Integer, Class<?>> idToClass = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, Integer> classToId = new ConcurrentHashMap<>();
+
+    /**
+     * The pool of the buffers returned by {@link #encode(Object)}
+     */
+    private final BufferPool pool;
+
+    /**
+     * @param pool The pool of the buffers returned by {@link #encode(Object)}
+     */
+    public BinaryEventCodec(BufferPool pool) {
+        Objects.requireNonNull(pool, "Parameter(s) can't be null");
+        this.pool = pool;
+    }
+
+    /**
+     * Creates a codec that encodes into a pool of 64 KB buffers
+     */
+    public BinaryEventCodec() {
+        this(new BufferPool(64 * 1024, 64));
+    }
+
+    /**
+     * Registers an id for the specified class. Events of registered classes are written
+     * with their id instead of their class name. The same ids must be registered where
+     * the events are decoded. Registered classes are trusted, like classes passed to
+     * {@link #allow(Class[])}
+     *
+     * @param type The class
+     * @param id The id. Must be positive
+     * @return This object
+     */
+    public BinaryEventCodec register(Class<?> type, int id) {
+        Objects.requireNonNull(type, "Parameter(s) can't be null");
+        if (id <= 0)
+            throw new EventBusException("Class id must be positive");
+        Class<?> existing = idToClass.putIfAbsent(id, type);
+        if (existing != null && existing != type)
+            throw new EventBusException("Class id " + id + " is already registered for " + existing.getName());
+        classToId.put(type, id);
+        trusted.put(type.getName(), type);
+        return this;
+    }
+
+    /**
+     * Trusts the specified classes, so that events and field values of these classes are
+     * decoded. They are still written with their class name; use {@link #register(Class, int)}
+     * to write them with an id
+     *
+     * @param types The classes
+     * @return This object
+     */
+    public BinaryEventCodec allow(Class<?>... types) {
+        Objects.requireNonNull(types, "Parameter(s) can't be null");
+        for (Class<?> type : types) {
+            Objects.requireNonNull(type, "Parameter(s) can't be null");
+            trusted.put(type.getName(), type);
+        }
+        return this;
+    }
+
+    /**
+     * @param type The class
+     * @return Whether if the specified class was passed to {@link #register(Class, int)} or
+     * {@link #allow(Class[])}
+     */
+    public boolean isTrusted(Class<?> type) {
+        return type != null && trusted.get(type.getName()) == type;
+    }
+
+    @Override
+    public void encode(Object event, ByteBuffer buffer) {
+        Objects.requireNonNull(event, "Parameter(s) can't be null");
+        buffer.put(FORMAT_VERSION);
+        writeObject(event, buffer);
+    }
+
+    /**
+     * Encodes the specified event into a buffer taken from the {@link BufferPool}.
+     * The returned buffer should be passed to {@link #release(ByteBuffer)} once its
+     * contents aren't used anymore
+     *
+     * @param event The event to encode
+     * @return The buffer containing the encoded event, ready to be read
+     */
+    public ByteBuffer encode(Object event) {
+        ByteBuffer buffer = pool.acquire();
+        try {
+            encode(event, buffer);
+        } catch (BufferOverflowException e) {
+            pool.release(buffer);
+            throw new EventBusException("Event " + event.getClass().getName() + " is bigger than "
+                    + pool.getBufferSize() + " bytes");
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer returned by {@link #encode(Object)} to the {@link BufferPool}
+     *
+     * @param buffer The buffer
+     */
+    public void release(ByteBuffer buffer) {
+        pool.release(buffer);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws EventBusException If the bytes name a class that isn't trusted, or are malformed
+     */
+    @Override
+    public Object decode(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION)
+            throw new EventBusException("Unsupported event format version " + version);
+        return readObject(buffer, null, 0);
+    }
+
+    /**
+     * Checks the version and the class of the event at the buffer's position. No class is
+     * loaded and the buffer's position isn't changed
+     *
+     * @param buffer The buffer to read from
+     * @return Whether if the event is of a registered or allowed class
+     */
+    @Override
+    public boolean canDecode(ByteBuffer buffer) {
+        ByteBuffer header = buffer.duplicate();
+        try {
+            if (header.get() != FORMAT_VERSION) return false;
+            int id = readVarInt(header);
+            return id != 0 ? idToClass.containsKey(id) : trusted.containsKey(readString(header));
+        } catch (RuntimeException e) {
+            // the header is truncated or malformed
+            return false;
+        }
+    }
+
+    /**
+     * @return The pool of the buffers returned by {@link #encode(Object)}
+     */
+    public BufferPool getBufferPool() {
+        return pool;
+    }
+
+    private void writeObject(Object object, ByteBuffer buffer) {
+        writeClass(object.getClass(), buffer);
+        plans.get(object.getClass()).write(object, buffer);
+    }
+
+    /**
+     * @param buffer The buffer to read from
+     * @param declared The declared class of the field the object is read into, or null for an event
+     * @param depth The number of objects the object is nested in
+     * @return The object
+     */
+    private Object readObject(ByteBuffer buffer, Class<?> declared, int depth) {
+        if (depth > MAX_DEPTH)
+            throw new EventBusException("Objects are nested deeper than " + MAX_DEPTH);
+        return plans.get(readClass(buffer, declared)).read(buffer, depth);
+    }
+
+    private void writeClass(Class<?> type, ByteBuffer buffer) {
+        Integer id = classToId.get(type);
+        if (id != null) {
+            writeVarInt(id, buffer);
+        } else {
+            writeVarInt(0, buffer);
+            writeString(type.getName(), buffer);
+        }
+    }
+
+    /**
+     * Reads a class id or name. The class is never loaded by name: it must be trusted or be
+     * the declared class of the field it's read into
+     *
+     * @param buffer The buffer to read from
+     * @param declared The declared class of the field the value is read into, or null
+     * @return The class
+     */
+    private Class<?> readClass(ByteBuffer buffer, Class<?> declared) {
+        int id = readVarInt(buffer);
+        if (id != 0) {
+            Class<?> type = idToClass.get(id);
+            if (type == null)
+                throw new EventBusException("Unknown class id " + id);
+            return type;
+        }
+        String name = readString(buffer);
+        Class<?> type = trusted.get(name);
+        if (type != null) return type;
+        if (declared != null && declared.getName().equals(name)) return declared;
+        throw new EventBusException("Class " + name + " isn't registered or allowed for decoding");
+    }
+
+    /**
+     * Writes the type tag and the specified value
+     *
+     * @param value The value
+     * @param buffer The buffer to write to
+     */
+    private void writeValue(Object value, ByteBuffer buffer) {
+        if (value == null) {
+            buffer.put(NULL);
+        } else if (value instanceof String) {
+            buffer.put(STRING);
+            writeString((String) value, buffer);
+        } else if (value instanceof Integer) {
+            buffer.put(INT);
+            writeVarInt(zigzag((Integer) value), buffer);
+        } else if (value instanceof Long) {
+            buffer.put(LONG);
+            writeVarLong(zigzag((Long) value), buffer);
+        } else if (value instanceof Boolean) {
+            buffer.put(BOOLEAN);
+            buffer.put((byte) ((Boolean) value ? 1 : 0));
+        } else if (value instanceof Double) {
+            buffer.put(DOUBLE);
+            buffer.putDouble((Double) value);
+        } else if (value instanceof Float) {
+            buffer.put(FLOAT);
+            buffer.putFloat((Float) value);
+        } else if (value instanceof Byte) {
+            buffer.put(BYTE);
+            buffer.put((Byte) value);
+        } else if (value instanceof Short) {
+            buffer.put(SHORT);
+            buffer.putShort((Short) value);
+        } else if (value instanceof Character) {
+            buffer.put(CHAR);
+            buffer.putChar((Character) value);
+        } else if (value instanceof Enum) {
+            buffer.put(ENUM);
+            writeClass(((Enum<?>) value).getDeclaringClass(), buffer);
+            writeString(((Enum<?>) value).name(), buffer);
+        } else if (value instanceof byte[]) {
+            buffer.put(BYTES);
+            writeVarInt(((byte[]) value).length, buffer);
+            buffer.put((byte[]) value);
+        } else if (isPlatformClass(value.getClass())) {
+            if (!(value instanceof Serializable) || !SERIALIZABLE.contains(value.getClass().getName()))
+                throw new EventBusException("Can't encode a value of " + value.getClass().getName());
+            buffer.put(SERIALIZED);
+            byte[] bytes = serialize(value);
+            writeVarInt(bytes.length, buffer);
+            buffer.put(bytes);
+        } else {
+            buffer.put(OBJECT);
+            writeObject(value, buffer);
+        }
+    }
+
+    /**
+     * Reads a value with the specified type tag
+     *
+     * @param tag The type tag
+     * @param buffer The buffer to read from
+     * @param declared The declared class of the field the value is read into
+     * @param depth The number of objects the value is nested in
+     * @return The value
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object readValue(byte tag, ByteBuffer buffer, Class<?> declared, int depth) {
+        switch (tag) {
+            case NULL: return null;
+            case BOOLEAN: return buffer.get() != 0;
+            case BYTE: return buffer.get();
+            case SHORT: return buffer.getShort();
+            case CHAR: return buffer.getChar();
+            case INT: return unzigzag(readVarInt(buffer));
+            case LONG: return unzigzag(readVarLong(buffer));
+            case FLOAT: return buffer.getFloat();
+            case DOUBLE: return buffer.getDouble();
+            case STRING: return readString(buffer);
+            case ENUM: {
+                Class type = readClass(buffer, declared);
+                if (!type.isEnum())
+                    throw new EventBusException(type.getName() + " isn't an enum");
+                String name = readString(buffer);
+                try {
+                    return Enum.valueOf(type, name);
+                } catch (IllegalArgumentException e) {
+                    // the constant was removed
+                    return null;
+                }
+            }
+            case BYTES: {
+                byte[] bytes = new byte[readLength(buffer)];
+                buffer.get(bytes);
+                return bytes;
+            }
+            case OBJECT: return readObject(buffer, declared, depth + 1);
+            case SERIALIZED: {
+                byte[] bytes = new byte[readLength(buffer)];
+                buffer.get(bytes);
+                return deserialize(bytes);
+            }
+            default: throw new EventBusException("Unknown type tag " + tag);
+        }
+    }
+
+    /**
+     * Skips a value with the specified type tag without loading any class
+     *
+     * @param tag The type tag
+     * @param buffer The buffer to read from
+     * @param depth The number of objects the value is nested in
+     */
+    private static void skipValue(byte tag, ByteBuffer buffer, int depth) {
+        switch (tag) {
+            case NULL: break;
+            case BOOLEAN: case BYTE: buffer.get(); break;
+            case SHORT: case CHAR: buffer.getShort(); break;
+            case INT: readVarInt(buffer); break;
+            case LONG: readVarLong(buffer); break;
+            case FLOAT: buffer.getFloat(); break;
+            case DOUBLE: buffer.getDouble(); break;
+            case ENUM:
+                skipClass(buffer);
+                skipBytes(buffer);
+                break;
+            case STRING: case BYTES: case SERIALIZED:
+                skipBytes(buffer);
+                break;
+            case OBJECT: {
+                // unknown fields are nested like decoded ones, so they are limited the same way
+                if (depth + 1 > MAX_DEPTH)
+                    throw new EventBusException("Objects are nested deeper than " + MAX_DEPTH);
+                skipClass(buffer);
+                int fields = readVarInt(buffer);
+                for (int i = 0; i < fields; i++) {
+                    buffer.getInt();
+                    skipValue(buffer.get(), buffer, depth + 1);
+                }
+                break;
+            }
+            default: throw new EventBusException("Unknown type tag " + tag);
+        }
+    }
+
+    private static void skipClass(ByteBuffer buffer) {
+        if (readVarInt(buffer) == 0) skipBytes(buffer);
+    }
+
+    /**
+     * Skips a length and as many bytes
+     *
+     * @param buffer The buffer to read from
+     */
+    private static void skipBytes(ByteBuffer buffer) {
+        int length = readLength(buffer);
+        buffer.position(buffer.position() + length);
+    }
+
+    /**
+     * Reads the length of a string or an array
+     *
+     * @param buffer The buffer to read from
+     * @return The length. Never more than the remaining bytes, so that a malformed length
+     * can't allocate a huge array
+     */
+    private static int readLength(ByteBuffer buffer) {
+        int length = readVarInt(buffer);
+        if (length < 0 || length > buffer.remaining())
+            throw new EventBusException("Malformed length " + length);
+        return length;
+    }
+
+    /**
+     * @param type The class
+     * @return Whether if the class belongs to the Java platform, whose fields shouldn't be accessed
+     */
+    private static boolean isPlatformClass(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.");
+    }
+
+    private static byte[] serialize(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            throw new EventBusException("Couldn't serialize " + value.getClass().getName(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Object deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new TrustedObjectInputStream(bytes)) {
+            return in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new EventBusException("Couldn't deserialize a field value", e);
+        }
+    }
+
+    private static void writeString(String value, ByteBuffer buffer) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length, buffer);
+        buffer.put(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = readLength(buffer);
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    private static void writeVarInt(int value, ByteBuffer buffer) {
+        while ((value & ~0x7f) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            if (b >= 0) return value;
+        }
+        throw new EventBusException("Malformed varint");
+    }
+
+    private static void writeVarLong(long value, ByteBuffer buffer) {
+        while ((value & ~0x7fL) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) return value;
+        }
+        throw new EventBusException("Malformed varlong");
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * The fields and the constructor of a class, found once per class
+     */
+    private final class ClassPlan {
+
+        private final Class<?> type;
+
+        /**
+         * The no-argument constructor, or null if the class doesn't have one
+         */
+        private final Constructor<?> constructor;
+
+        /**
+         * The written fields, sorted by their key
+         */
+        private final FieldPlan[] fields;
+
+        private ClassPlan(Class<?> type) {
+            if (isPlatformClass(type) || type.isInterface() || type.isArray() || Modifier.isAbstract(type.getModifiers()))
+                throw new EventBusException("Can't encode " + type.getName());
+            this.type = type;
+            List<FieldPlan> fields = new ArrayList<>();
+            Set<String> keys = new HashSet<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()
+                            || field.isAnnotationPresent(CallerEventBus.class)
+                            || EventBus.class.isAssignableFrom(field.getType()))
+                        continue;
+                    // a field hidden by a subclass field with the same name is keyed by its class too
+                    String key = keys.add(field.getName()) ? field.getName() : c.getName() + "." + field.getName();
+                    field.setAccessible(true);
+                    fields.add(new FieldPlan(field, key));
+                }
+            }
+            fields.sort((a, b) -> a.key.compareTo(b.key));
+            this.fields = fields.toArray(new FieldPlan[0]);
+            Constructor<?> constructor;
+            try {
+                constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                constructor = null;
+            }
+            this.constructor = constructor;
+        }
+
+        private void write(Object object, ByteBuffer buffer) {
+            writeVarInt(fields.length, buffer);
+            try {
+                for (FieldPlan field : fields) {
+                    buffer.putInt(field.hash);
+                    field.write(object, buffer);
+                }
+            } catch (IllegalAccessException e) {
+                throw new EventBusException("Couldn't encode " + type.getName(), e);
+            }
+        }
+
+        private Object read(ByteBuffer buffer, int depth) {
+            if (constructor == null)
+                throw new EventBusException(type.getName() + " needs a no-argument constructor to be decoded");
+            Object object;
+            try {
+                object = constructor.newInstance();
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new EventBusException("Couldn't create " + type.getName(), e);
+            }
+            int count = readVarInt(buffer);
+            try {
+                for (int i = 0; i < count; i++) {
+                    int hash = buffer.getInt();
+                    byte tag = buffer.get();
+                    FieldPlan field = i < fields.length && fields[i].hash == hash ? fields[i] : find(hash);
+                    if (field == null) {
+                        skipValue(tag, buffer, depth);
+                    } else {
+                        field.read(object, tag, buffer, depth);
+                    }
+                }
+            } catch (IllegalAccessException e) {
+                throw new EventBusException("Couldn't decode " + type.getName(), e);
+            }
+            return object;
+        }
+
+        private FieldPlan find(int hash) {
+            for (FieldPlan field : fields) {
+                if (field.hash == hash) return field;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A written field
+     */
+    private final class FieldPlan {
+
+        private final Field field;
+        private final String key;
+
+        /**
+         * The hash of {@link #key}, written before the value
+         */
+        private final int hash;
+
+        /**
+         * The type tag of the field if the field is primitive, otherwise {@link #OBJECT}
+         */
+        private final byte kind;
+
+        private FieldPlan(Field field, String key) {
+            this.field = field;
+            this.key = key;
+            this.hash = key.hashCode();
+            Class<?> type = field.getType();
+            if (type == int.class) kind = INT;
+            else if (type == long.class) kind = LONG;
+            else if (type == boolean.class) kind = BOOLEAN;
+            else if (type == double.class) kind = DOUBLE;
+            else if (type == float.class) kind = FLOAT;
+            else if (type == byte.class) kind = BYTE;
+            else if (type == short.class) kind = SHORT;
+            else if (type == char.class) kind = CHAR;
+            else kind = OBJECT;
+        }
+
+        private void write(Object object, ByteBuffer buffer) throws IllegalAccessException {
+            switch (kind) {
+                case INT: buffer.put(INT); writeVarInt(zigzag(field.getInt(object)), buffer); break;
+                case LONG: buffer.put(LONG); writeVarLong(zigzag(field.getLong(object)), buffer); break;
+                case BOOLEAN: buffer.put(BOOLEAN); buffer.put((byte) (field.getBoolean(object) ? 1 : 0)); break;
+                case DOUBLE: buffer.put(DOUBLE); buffer.putDouble(field.getDouble(object)); break;
+                case FLOAT: buffer.put(FLOAT); buffer.putFloat(field.getFloat(object)); break;
+                case BYTE: buffer.put(BYTE); buffer.put(field.getByte(object)); break;
+                case SHORT: buffer.put(SHORT); buffer.putShort(field.getShort(object)); break;
+                case CHAR: buffer.put(CHAR); buffer.putChar(field.getChar(object)); break;
+                default: writeValue(field.get(object), buffer);
+            }
+        }
+
+        private void read(Object object, byte tag, ByteBuffer buffer, int depth) throws IllegalAccessException {
+            if (tag == kind) {
+                switch (kind) {
+                    case INT: field.setInt(object, unzigzag(readVarInt(buffer))); return;
+                    case LONG: field.setLong(object, unzigzag(readVarLong(buffer))); return;
+                    case BOOLEAN: field.setBoolean(object, buffer.get() != 0); return;
+                    case DOUBLE: field.setDouble(object, buffer.getDouble()); return;
+                    case FLOAT: field.setFloat(object, buffer.getFloat()); return;
+                    case BYTE: field.setByte(object, buffer.get()); return;
+                    case SHORT: field.setShort(object, buffer.getShort()); return;
+                    case CHAR: field.setChar(object, buffer.getChar()); return;
+                }
+            }
+            Class<?> type = field.getType();
+            Object value = readValue(tag, buffer, type, depth);
+            if (type.isPrimitive()) {
+                if (value == null) return;
+                try {
+                    // widens the value if the field's type was changed to a wider type
+                    field.set(object, value);
+                } catch (IllegalArgumentException e) {
+                    // the field's type was changed to an incompatible type
+                }
+            } else if (value == null || type.isInstance(value)) {
+                field.set(object, value);
+            }
+        }
+    }
+
+    /**
+     * An {@link ObjectInputStream} that only resolves the classes in {@link #SERIALIZABLE},
+     * the trusted classes and arrays of them. Any other class is rejected before it's loaded
+     */
+    private final class TrustedObjectInputStream extends ObjectInputStream {
+
+        private TrustedObjectInputStream(byte[] bytes) throws IOException {
+            super(new ByteArrayInputStream(bytes));
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            String name = desc.getName();
+            String component = name;
+            int dimensions = 0;
+            while (component.startsWith("[")) {
+                component = component.substring(1);
+                dimensions++;
+            }
+            if (dimensions > 0) {
+                // primitive arrays are always allowed
+                if (component.length() == 1) return super.resolveClass(desc);
+                if (!component.startsWith("L") || !component.endsWith(";"))
+                    throw new InvalidClassException(name, "Malformed array class name");
+                component = component.substring(1, component.length() - 1);
+            }
+            Class<?> type = trusted.get(component);
+            if (type == null) {
+                if (!SERIALIZABLE.contains(component))
+                    throw new InvalidClassException(name, "Class isn't registered or allowed for decoding");
+                return super.resolveClass(desc);
+            }
+            for (int i = 0; i < dimensions; i++) {
+                type = Array.newInstance(type, 0).getClass();
+            }
+            return type;
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+            throw new InvalidClassException("Proxy classes aren't decoded");
+        }
+    }
+
+}
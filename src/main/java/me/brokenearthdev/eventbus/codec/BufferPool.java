@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.codec;
+
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of direct {@link ByteBuffer}s of the same size, used for encoding events without
+ * allocating a buffer for every event. Each thread keeps one released buffer for itself;
+ * other released buffers are kept in a shared queue of at most {@link #getMaxPooled()} buffers.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public class BufferPool {
+
+    /**
+     * The capacity of every buffer in this pool
+     */
+    private final int bufferSize;
+
+    /**
+     * The maximum number of buffers kept in {@link #shared}
+     */
+    private final int maxPooled;
+
+    /**
+     * The buffer kept by each thread
+     */
+    private final ThreadLocal<ByteBuffer> local = new ThreadLocal<>();
+
+    /**
+     * The buffers shared between the threads
+     */
+    private final Queue<ByteBuffer> shared = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The number of buffers in {@link #shared}
+     */
+    private final AtomicInteger sharedCount = new AtomicInteger();
+
+    /**
+     * @param bufferSize The capacity of every buffer in this pool
+     * @param maxPooled The maximum number of buffers shared between the threads
+     */
+    public BufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize <= 0 || maxPooled < 0)
+            throw new EventBusException("Invalid buffer pool size");
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * @return A cleared buffer. The buffer should be passed to {@link #release(ByteBuffer)}
+     * when it isn't used anymore
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = local.get();
+        if (buffer != null) {
+            local.set(null);
+        } else {
+            buffer = shared.poll();
+            if (buffer != null) {
+                sharedCount.decrementAndGet();
+            } else {
+                buffer = ByteBuffer.allocateDirect(bufferSize);
+            }
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Returns the specified buffer to the pool. The buffer mustn't be used after it is released.
+     * Buffers that weren't acquired from this pool are ignored
+     *
+     * @param buffer The buffer to return
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() != bufferSize || !buffer.isDirect()) return;
+        if (local.get() == null) {
+            local.set(buffer);
+        } else if (sharedCount.incrementAndGet() <= maxPooled) {
+            shared.offer(buffer);
+        } else {
+            sharedCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return The capacity of every buffer in this pool
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return The maximum number of buffers shared between the threads
+     */
+    public int getMaxPooled() {
+        return maxPooled;
+    }
+
+    /**
+     * @return The number of buffers currently shared between the threads
+     */
+    public int getPooledCount() {
+        return sharedCount.get();
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.codec;
+
+import me.brokenearthdev.eventbus.journal.EventSerializer;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * An {@link EventSerializer} that uses an {@link EventCodec}. Use this class to store events
+ * in an {@link me.brokenearthdev.eventbus.journal.EventJournal} using a codec, for example
+ * <pre>
+ *     new EventJournal&lt;&gt;(directory, new CodecEventSerializer&lt;&gt;(new BinaryEventCodec()));
+ * </pre>
+ *
+ * @param <T> The type of the events
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public class CodecEventSerializer<T> implements EventSerializer<T> {
+
+    /**
+     * The codec initialized by the constructor
+     */
+    private final EventCodec codec;
+
+    /**
+     * @param codec The codec used for serializing the events
+     */
+    public CodecEventSerializer(EventCodec codec) {
+        Objects.requireNonNull(codec, "Parameter(s) can't be null");
+        this.codec = codec;
+    }
+
+    @Override
+    public void serialize(T event, ByteBuffer buffer) {
+        codec.encode(event, buffer);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T deserialize(ByteBuffer buffer) {
+        return (T) codec.decode(buffer);
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.codec;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes event objects to bytes and decodes them back. Codecs are used by the stages that
+ * store or send events, such as the {@link me.brokenearthdev.eventbus.journal.EventJournal}
+ * (through {@link CodecEventSerializer}). Unlike an
+ * {@link me.brokenearthdev.eventbus.journal.EventSerializer}, a codec isn't bound to the event
+ * type of an {@link me.brokenearthdev.eventbus.entities.EventBus} and the encoded bytes must
+ * identify the class of the event.
+ *
+ * Implementations must be safe to use from several threads at once.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ * @see BinaryEventCodec
+ */
+public interface EventCodec {
+
+    /**
+     * Writes the specified event to the buffer, starting at the buffer's position
+     *
+     * @param event The event to write
+     * @param buffer The buffer to write the event to
+     * @throws BufferOverflowException If the buffer doesn't have enough space
+     */
+    void encode(Object event, ByteBuffer buffer);
+
+    /**
+     * Reads an event from the buffer, starting at the buffer's position. After this method
+     * returns, the buffer's position is after the event
+     *
+     * @param buffer The buffer to read the event from
+     * @return The event
+     */
+    Object decode(ByteBuffer buffer);
+
+    /**
+     * Checks the header of the event at the buffer's position without decoding the event.
+     * Callers receiving bytes from another process use this method to reject them before
+     * anything is decoded. The buffer's position isn't changed
+     *
+     * @param buffer The buffer to read the header from
+     * @return Whether if this codec trusts the class of the event and would decode it
+     */
+    boolean canDecode(ByteBuffer buffer);
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.annotations.CallerEventBus;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sets the fields annotated with {@link CallerEventBus} of an event class to the
+ * {@link EventBus} calling the event. The fields of an event class are searched and validated
+ * once, and are then set through method handles. Event classes without such fields get
+ * {@link #NONE}, which doesn't do anything. Invalid event classes are remembered too, so
+ * their fields aren't searched again on every call
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+final class CallerBusInjector {
+
+    /**
+     * The injector of event classes without fields annotated with {@link CallerEventBus}
+     */
+    static final CallerBusInjector NONE = new CallerBusInjector(new Class<?>[0], new MethodHandle[0], null);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, EventBus.class);
+
+    /**
+     * The injector of every event class
+     */
+    private static final ClassValue<CallerBusInjector> INJECTORS = new ClassValue<CallerBusInjector>() {
+        @Override
+        protected CallerBusInjector computeValue(Class<?> type) {
+            try {
+                return create(type);
+            } catch (EventBusException e) {
+                // a thrown exception wouldn't be cached, so the class would be searched on every call
+                return new CallerBusInjector(null, null, e);
+            }
+        }
+    };
+
+    /**
+     * The type of each field
+     */
+    private final Class<?>[] types;
+
+    /**
+     * The setter of each field, taking the event as an {@link Object} and an {@link EventBus}
+     */
+    private final MethodHandle[] setters;
+
+    /**
+     * Why the event class is invalid, or null if it is valid
+     */
+    private final EventBusException error;
+
+    private CallerBusInjector(Class<?>[] types, MethodHandle[] setters, EventBusException error) {
+        this.types = types;
+        this.setters = setters;
+        this.error = error;
+    }
+
+    /**
+     * @param eventClass An event class
+     * @return The injector of the event class
+     * @throws EventBusException If a field annotated with {@link CallerEventBus} isn't a type
+     * of {@link EventBus}, or is static or final
+     */
+    static CallerBusInjector of(Class<?> eventClass) {
+        CallerBusInjector injector = INJECTORS.get(eventClass);
+        if (injector.error != null)
+            throw new EventBusException(injector.error.getMessage(), injector.error);
+        return injector;
+    }
+
+    /**
+     * Sets the fields of the specified event to the specified bus
+     *
+     * @param event The event
+     * @param bus The {@link EventBus} calling the event
+     */
+    void inject(Object event, EventBus<?> bus) {
+        for (int i = 0; i < setters.length; i++) {
+            if (!types[i].isInstance(bus))
+                throw new EventBusException("Caller event bus isn't a type of " + types[i].getName());
+            try {
+                setters[i].invokeExact(event, bus);
+            } catch (Throwable e) {
+                throw new EventBusException("Couldn't initialize caller event bus", e);
+            }
+        }
+    }
+
+    /**
+     * Searches and validates the fields annotated with {@link CallerEventBus} of the specified
+     * event class and its superclasses
+     *
+     * @param eventClass An event class
+     * @return The injector of the event class
+     */
+    private static CallerBusInjector create(Class<?> eventClass) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> class_ = eventClass; class_ != null && class_ != Object.class; class_ = class_.getSuperclass()) {
+            for (Field field : class_.getDeclaredFields()) {
+                if (field.getAnnotation(CallerEventBus.class) == null) continue;
+                if (!EventBus.class.isAssignableFrom(field.getType()))
+                    throw new EventBusException("Field isn't a type of " + EventBus.class.getName());
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers()))
+                    throw new EventBusException("Cannot initialize caller event bus when they are static or final");
+                fields.add(field);
+            }
+        }
+        if (fields.isEmpty()) return NONE;
+        Class<?>[] types = new Class<?>[fields.size()];
+        MethodHandle[] setters = new MethodHandle[fields.size()];
+        for (int i = 0; i < setters.length; i++) {
+            Field field = fields.get(i);
+            try {
+                field.setAccessible(true);
+                types[i] = field.getType();
+                setters[i] = MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new EventBusException("Cannot initialize caller event bus of " + field, e);
+            }
+        }
+        return new CallerBusInjector(types, setters, null);
+    }
+
+}
@@ -0,0 +1,458 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.annotations.DelayedEvent;
+import me.brokenearthdev.eventbus.annotations.SubscribeEvent;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+import me.brokenearthdev.eventbus.exceptions.EventListenerException;
+import me.brokenearthdev.eventbus.utils.Consumer;
+import me.brokenearthdev.eventbus.utils.Predicate;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * An {@link EventBus} that must only be used by one thread, such as the thread running
+ * a game loop. Calling an event doesn't use any synchronization: every event class is
+ * given an int id, and calling an event looks up the handlers of its id in an array and
+ * invokes them directly through method handles.
+ *
+ * The owning thread is the first thread that registers a listener or calls an event. When
+ * assertions are enabled ({@code -ea}), using the bus from another thread throws
+ * {@link EventBusException}; otherwise it isn't checked. Delayed events (annotated with
+ * {@link DelayedEvent}) would be called on another thread and therefore can't be called
+ * on this bus. For the same reason, failed handlers can only be retried right away:
+ * {@link ExceptionPolicy#retry(int, long)} policies with a backoff are refused.
+ *
+ * The stages, pools and retainers are copied into plain fields of this bus when they are
+ * changed on the owning thread, so calling an event doesn't read any concurrent collection.
+ * Profiling enabled by {@link EventBusDiagnostics} on another thread (e.g. through JMX) is
+ * only seen every {@value #PROFILER_CHECK_INTERVAL} called events, or as soon as the bus is
+ * changed on the owning thread.
+ *
+ * @param <T> The superclasses of all events. Refer to {@link EventBus} for more information
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public class ConfinedEventBus<T> extends EventBus<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Invoker[] NO_INVOKERS = new Invoker[0];
+
+    /**
+     * The number of called events after which the profiler of the {@link EventCaller} is read again
+     */
+    private static final int PROFILER_CHECK_INTERVAL = 1024;
+
+    /**
+     * The thread using this bus, set on first use
+     */
+    private Thread owner;
+
+    /**
+     * The ids of the event classes
+     */
+    private final IdentityHashMap<Class<?>, Integer> ids = new IdentityHashMap<>();
+
+    /**
+     * The event class of each id
+     */
+    private Class<?>[] classes = new Class<?>[16];
+
+    /**
+     * The invokers of each id, or null if they must be resolved again
+     */
+    private Invoker[][] invokers = new Invoker[16][];
+
+    /**
+     * Whether if the event class of each id is cancelled or delayed. Only valid while
+     * the invokers of the id are resolved
+     */
+    private boolean[] cancelled = new boolean[16], delayed = new boolean[16];
+
+    /**
+     * The pool of each id, or null if the event class isn't pooled or its events are retained.
+     * Only valid while the invokers of the id are resolved
+     */
+    private EventPool<?>[] eventPools = new EventPool<?>[16];
+
+    /**
+     * A copy of the stages, or null if it must be copied again
+     */
+    private EventStage<T>[] stageCopy;
+
+    /**
+     * The profiler of the {@link EventCaller} when it was last read
+     */
+    private DispatchProfiler profiler;
+
+    /**
+     * The number of called events since the profiler was last read
+     */
+    private int sinceProfilerCheck;
+
+    /**
+     * The number of ids given
+     */
+    private int count;
+
+    /**
+     * The event class called last and its id
+     */
+    private Class<?> lastClass;
+    private int lastId;
+
+    /**
+     * @param annotation The event annotation. Refer to {@link EventBus#EventBus(Class)}
+     */
+    public ConfinedEventBus(Class<? extends Annotation> annotation) {
+        super(annotation);
+    }
+
+    /**
+     * Creates a bus using {@link SubscribeEvent} as the event annotation
+     */
+    public ConfinedEventBus() {
+        super();
+    }
+
+    /**
+     * Registers a listener and gives an id to every event class its event methods require.
+     * Refer to {@link EventBus#register(Object)}
+     *
+     * @param object The listener object
+     * @return This object
+     */
+    @Override
+    public EventBus<T> register(Object object) {
+        assert checkOwner();
+        super.register(object);
+        for (SubscriberMethod subscriber : SubscriberCache.getSubscribers(object.getClass(), annotations)) {
+            idOf(subscriber.eventType);
+        }
+        invalidate();
+        return this;
+    }
+
+    @Override
+    public EventBus<T> unregister(Object object) {
+        assert checkOwner();
+        super.unregister(object);
+        invalidate();
+        return this;
+    }
+
+    @Override
+    public <E extends T> EventBus<T> subscribe(Class<E> type, Predicate<? super E> filter, Consumer<? super E> consumer) {
+        assert checkOwner();
+        super.subscribe(type, filter, consumer);
+        idOf(type);
+        invalidate();
+        return this;
+    }
+
+    @Override
+    public EventBus<T> unsubscribe(Consumer<?> consumer) {
+        assert checkOwner();
+        super.unsubscribe(consumer);
+        invalidate();
+        return this;
+    }
+
+    @Override
+    public <E extends PooledEvent> EventBus<T> addPool(Class<E> type, EventPool<E> pool) {
+        assert checkOwner();
+        super.addPool(type, pool);
+        invalidate();
+        return this;
+    }
+
+    @Override
+    public EventBus<T> removePool(Class<? extends PooledEvent> type) {
+        assert checkOwner();
+        super.removePool(type);
+        invalidate();
+        return this;
+    }
+
+    @Override
+    public EventBus<T> addRetainer(Object retainer, Class<?> eventClass) {
+        assert checkOwner();
+        super.addRetainer(retainer, eventClass);
+        invalidate();
+        return this;
+    }
+
+    @Override
+    public EventBus<T> removeRetainer(Object retainer) {
+        assert checkOwner();
+        super.removeRetainer(retainer);
+        invalidate();
+        return this;
+    }
+
+    @Override
+    public EventBus<T> addStage(EventStage<T> stage) {
+        assert checkOwner();
+        super.addStage(stage);
+        invalidate();
+        return this;
+    }
+
+    @Override
+    public EventBus<T> removeStage(EventStage<T> stage) {
+        assert checkOwner();
+        super.removeStage(stage);
+        invalidate();
+        return this;
+    }
+
+    /**
+     * Sets the {@link ExceptionPolicy}. Refer to {@link EventBus#setExceptionPolicy(ExceptionPolicy)}.
+     * Since this bus can't wait before retrying a failed handler on another thread, policies
+     * created by {@link ExceptionPolicy#retry(int, long)} with a backoff are refused by throwing
+     * {@link EventBusException}
+     *
+     * @param policy The policy
+     * @return This object
+     */
+    @Override
+    public EventBus<T> setExceptionPolicy(ExceptionPolicy policy) {
+        if (policy instanceof RetryPolicy && ((RetryPolicy) policy).backoffMillis != 0)
+            throw new EventBusException("Retries with a backoff can't be used on a " + ConfinedEventBus.class.getSimpleName());
+        super.setExceptionPolicy(policy);
+        return this;
+    }
+
+    @Override
+    public EventBus<T> cancelEvent(Class<? extends T> event) {
+        assert checkOwner();
+        super.cancelEvent(event);
+        invalidate();
+        return this;
+    }
+
+    @Override
+    public EventBus<T> uncancelEvent(Class<? extends T> event) {
+        assert checkOwner();
+        super.uncancelEvent(event);
+        invalidate();
+        return this;
+    }
+
+    /**
+     * Calls the specified event on the current thread. Refer to {@link EventBus#callEvent(Object)}
+     *
+     * @param event The event object
+     * @return This object
+     */
+    @Override
+    public EventBus<T> callEvent(T event) {
+        assert checkOwner();
+        Class<?> eventClass = event.getClass();
+        int id = eventClass == lastClass ? lastId : idOf(eventClass);
+        Invoker[] invokers = this.invokers[id];
+        if (invokers == null) invokers = resolve(id);
+        EventPool<?> pool = eventPools[id];
+        if (pool != null) pool.checkUsable(event);
+        if (!cancelled[id]) {
+            // rejected before the stages see the event, since it is never dispatched
+            if (delayed[id] && invokers.length != 0)
+                throw new EventBusException("Delayed events can't be called on a " + ConfinedEventBus.class.getSimpleName());
+            EventStage<T>[] stages = stageCopy;
+            if (stages == null) stages = copyStages();
+            for (EventStage<T> stage : stages) {
+                stage.onEvent(event);
+            }
+            if (invokers.length != 0) {
+                caller.initCallerEventBus(event);
+                if (++sinceProfilerCheck == PROFILER_CHECK_INTERVAL) {
+                    sinceProfilerCheck = 0;
+                    profiler = caller.profiler;
+                }
+                DispatchProfiler profiler = this.profiler;
+                if (profiler == null) {
+                    for (Invoker invoker : invokers) {
+                        invoker.invoke(event, caller);
+                    }
+                } else {
+                    Object recorded = profiler.begin();
+                    int invoked = 0;
+                    try {
+                        for (Invoker invoker : invokers) {
+                            long start = System.nanoTime();
+                            if (invoker.invoke(event, caller)) {
+                                profiler.statisticsOf(invoker.handler).record(System.nanoTime() - start);
+                                invoked++;
+                            }
+                        }
+                    } finally {
+                        profiler.end(recorded, eventClass, invoked);
+                    }
+                }
+            }
+        }
+        if (pool != null) pool.releaseCalled(event);
+        return this;
+    }
+
+    /**
+     * @param eventClass An event class
+     * @return The id of the event class. A new id is given if the class doesn't have one
+     */
+    private int idOf(Class<?> eventClass) {
+        Integer id = ids.get(eventClass);
+        if (id == null) {
+            id = count++;
+            if (id == classes.length) {
+                int length = classes.length * 2;
+                classes = Arrays.copyOf(classes, length);
+                invokers = Arrays.copyOf(invokers, length);
+                cancelled = Arrays.copyOf(cancelled, length);
+                delayed = Arrays.copyOf(delayed, length);
+                eventPools = Arrays.copyOf(eventPools, length);
+            }
+            classes[id] = eventClass;
+            ids.put(eventClass, id);
+        }
+        lastClass = eventClass;
+        lastId = id;
+        return id;
+    }
+
+    /**
+     * Resolves the invokers of the specified id
+     *
+     * @param id The id of an event class
+     * @return The invokers
+     */
+    private Invoker[] resolve(int id) {
+        Class<?> eventClass = classes[id];
+        cancelled[id] = isCancelled(eventClass);
+        delayed[id] = eventClass.isAnnotationPresent(DelayedEvent.class)
+                && eventClass.getAnnotation(DelayedEvent.class).value() != 0;
+        EventPool<?> pool = PooledEvent.class.isAssignableFrom(eventClass) ? pools.get(eventClass) : null;
+        // a retainer still uses the event, so it mustn't be reset and handed out again
+        eventPools[id] = pool != null && !isRetained(eventClass) ? pool : null;
+        EventHandler[] handlers = caller.getTable().getHandlers(eventClass).all;
+        Invoker[] resolved = handlers.length == 0 ? NO_INVOKERS : new Invoker[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            resolved[i] = new Invoker(handlers[i]);
+        }
+        invokers[id] = resolved;
+        return resolved;
+    }
+
+    /**
+     * Copies the stages into {@link #stageCopy}
+     *
+     * @return The copy
+     */
+    @SuppressWarnings("unchecked")
+    private EventStage<T>[] copyStages() {
+        EventStage<T>[] copy = stages.toArray(new EventStage[0]);
+        stageCopy = copy;
+        return copy;
+    }
+
+    /**
+     * Discards the resolved invokers and the copied stages, and reads the profiler again.
+     * The ids of the event classes are kept
+     */
+    private void invalidate() {
+        Arrays.fill(invokers, null);
+        stageCopy = null;
+        profiler = caller.profiler;
+        sinceProfilerCheck = 0;
+    }
+
+    /**
+     * Sets the owning thread on first use and checks that the current thread is the owning thread
+     *
+     * @return True, so that it can be used in an assert statement
+     */
+    private boolean checkOwner() {
+        Thread current = Thread.currentThread();
+        if (owner == null) {
+            owner = current;
+        } else if (owner != current) {
+            throw new EventBusException(ConfinedEventBus.class.getSimpleName() + " owned by " + owner.getName()
+                    + " was used by " + current.getName());
+        }
+        return true;
+    }
+
+    /**
+     * Invokes a handler directly through a method handle
+     */
+    private static final class Invoker {
+
+        private static final MethodType TYPE = MethodType.methodType(void.class, Object.class);
+
+        /**
+         * The event method bound to its listener, or the subscribed consumer's method bound
+         * to the consumer, taking the event as an {@link Object}
+         */
+        private final MethodHandle handle;
+
+        private final EventHandler handler;
+        private final FieldFilter fieldFilter;
+        private final Predicate<Object> predicate;
+
+        private Invoker(EventHandler handler) {
+            this.handler = handler;
+            this.fieldFilter = handler.fieldFilter;
+            this.predicate = handler.predicate;
+            try {
+                if (handler instanceof EventHandler.MethodHandler) {
+                    EventHandler.MethodHandler method = (EventHandler.MethodHandler) handler;
+                    handle = MethodHandles.lookup().unreflect(method.subscriber.method).bindTo(method.listener).asType(TYPE);
+                } else {
+                    Consumer<Object> consumer = ((EventHandler.ConsumerHandler) handler).subscription.consumer;
+                    handle = MethodHandles.lookup().findVirtual(Consumer.class, "accept", TYPE).bindTo(consumer);
+                }
+            } catch (IllegalAccessException | NoSuchMethodException e) {
+                throw new EventListenerException("One of the event listener methods isn't accessible");
+            }
+        }
+
+        /**
+         * @return Whether if the event matched the filters and the handler was invoked
+         */
+        private boolean invoke(Object event, EventCaller<?> caller) {
+            if (fieldFilter != null && !fieldFilter.expected.equals(fieldFilter.valueOf(event))) return false;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    // a failing predicate is handled like a failing handler
+                    if (predicate != null && !predicate.test(event)) return false;
+                    handle.invokeExact(event);
+                    return true;
+                } catch (Throwable e) {
+                    long delay = caller.onFailure(handler, event, e, attempt);
+                    if (delay < 0) return true;
+                    // there is no other thread to retry on, and waiting here would stall the owning thread
+                    if (delay > 0)
+                        throw new EventBusException("Retries with a delay can't be used on a " + ConfinedEventBus.class.getSimpleName());
+                }
+            }
+        }
+    }
+
+}
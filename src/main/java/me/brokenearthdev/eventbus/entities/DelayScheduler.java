@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the event methods of delayed events (annotated with
+ * {@link me.brokenearthdev.eventbus.annotations.DelayedEvent}) once their delay passed. This
+ * version runs every delayed event on one shared daemon thread, so delayed events that didn't
+ * run yet don't keep the JVM running; the multi-release JAR contains a version for Java 21
+ * and later that uses a virtual thread instead
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+final class DelayScheduler {
+
+    private static final ScheduledExecutorService EXECUTOR = new ScheduledThreadPoolExecutor(1, task -> {
+        Thread thread = new Thread(task, "EventBus-delayed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private DelayScheduler() {
+    }
+
+    /**
+     * @param task The task to run
+     * @param delay The number of milliseconds to wait before running the task
+     */
+    static void schedule(Runnable task, long delay) {
+        EXECUTOR.schedule(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException | Error e) {
+                // the shared thread must survive a failing task
+                e.printStackTrace();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the {@link HandlerStatistics} of the handlers of an {@link EventCaller} and emits a
+ * {@code DispatchEvent} to Java Flight Recorder around each dispatch, if the JVM supports it.
+ * The caller only uses a profiler while profiling is enabled, so calling events isn't slowed
+ * down otherwise
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+final class DispatchProfiler {
+
+    /**
+     * Whether if the JVM has Java Flight Recorder events. {@link DispatchRecorder} mustn't
+     * load the flight recorder event otherwise
+     */
+    private static final boolean JFR = isJfrAvailable();
+
+    /**
+     * The statistics of each event method, or of each subscribed consumer
+     */
+    final ConcurrentMap<Object, HandlerStatistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * The number of dispatched events
+     */
+    final LongAdder dispatches = new LongAdder();
+
+    /**
+     * @param handler A handler
+     * @return The statistics of the handler
+     */
+    HandlerStatistics statisticsOf(EventHandler handler) {
+        Object key = handler.getKey();
+        HandlerStatistics statistics = this.statistics.get(key);
+        if (statistics == null) {
+            HandlerStatistics created = new HandlerStatistics(HandlerStatistics.nameOf(handler));
+            statistics = this.statistics.putIfAbsent(key, created);
+            if (statistics == null) statistics = created;
+        }
+        return statistics;
+    }
+
+    /**
+     * Called before the handlers of an event are invoked
+     *
+     * @return The flight recorder event, or null
+     */
+    Object begin() {
+        dispatches.increment();
+        return JFR ? DispatchRecorder.start() : null;
+    }
+
+    /**
+     * Called after the handlers of an event were invoked
+     *
+     * @param recorded The object returned by {@link #begin()}
+     * @param eventClass The event class
+     * @param invoked The number of invoked handlers
+     */
+    void end(Object recorded, Class<?> eventClass, int invoked) {
+        if (recorded != null) DispatchRecorder.finish(recorded, eventClass, invoked);
+    }
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, DispatchProfiler.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+}
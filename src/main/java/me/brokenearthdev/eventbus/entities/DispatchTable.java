@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The handlers of an {@link EventBus} at one point in time. A table is created from the
+ * registered listeners, the subscribed consumers and the event annotation, and is replaced
+ * by the {@link EventCaller} whenever one of them changes. The handlers of each called event
+ * class are resolved once per table
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+final class DispatchTable {
+
+    /**
+     * Every handler, in order
+     */
+    private final EventHandler[] handlers;
+
+    /**
+     * The handlers of the event classes called so far
+     */
+    final ConcurrentHashMap<Class<?>, HandlerSet> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * @param listeners The registered listeners
+     * @param subscriptions The subscribed consumers
+     * @param annotations The event annotations
+     */
+    DispatchTable(List<Object> listeners, List<FunctionalSubscription> subscriptions,
+                  List<Class<? extends Annotation>> annotations) {
+        List<EventHandler> handlers = new ArrayList<>();
+        for (Object listener : listeners) {
+            for (SubscriberMethod subscriber : SubscriberCache.getSubscribers(listener.getClass(), annotations)) {
+                handlers.add(new EventHandler.MethodHandler(listener, subscriber, handlers.size()));
+            }
+        }
+        for (FunctionalSubscription subscription : subscriptions) {
+            handlers.add(new EventHandler.ConsumerHandler(subscription, handlers.size()));
+        }
+        this.handlers = handlers.toArray(new EventHandler[0]);
+    }
+
+    /**
+     * Resolves the handlers of every event class the specified table resolved, so that
+     * replacing that table with this one doesn't make the next calls resolve them
+     *
+     * @param previous The table this table replaces
+     */
+    void resolveLike(DispatchTable previous) {
+        for (Class<?> eventClass : previous.resolved.keySet()) {
+            getHandlers(eventClass);
+        }
+    }
+
+    /**
+     * @return The number of handlers
+     */
+    int size() {
+        return handlers.length;
+    }
+
+    /**
+     * @return Whether if there are no handlers at all
+     */
+    boolean isEmpty() {
+        return handlers.length == 0;
+    }
+
+    /**
+     * @param eventClass The class of a called event
+     * @return The handlers accepting the event class
+     */
+    HandlerSet getHandlers(Class<?> eventClass) {
+        HandlerSet set = resolved.get(eventClass);
+        if (set == null) {
+            set = resolve(eventClass);
+            HandlerSet existing = resolved.putIfAbsent(eventClass, set);
+            if (existing != null) set = existing;
+        }
+        return set;
+    }
+
+    private HandlerSet resolve(Class<?> eventClass) {
+        List<EventHandler> accepting = new ArrayList<>();
+        for (EventHandler handler : handlers) {
+            if (contains(eventClass, handler.eventType)) accepting.add(handler);
+        }
+        return accepting.isEmpty() ? HandlerSet.EMPTY : new HandlerSet(accepting);
+    }
+
+    /**
+     * Checks whether the first parameter is the same as the second parameter
+     * or the second parameter is the superclass (or above) of the first parameter
+     *
+     * @param c1 The class to check if it is equal to the second parameter
+     *           or is a subclass (or below) of the second parameter
+     * @param c2 The class to check if it is equal to the first parameter
+     *           or is a superclass (or above) of the first parameter
+     * @return Whether if the first parameter is equal to the second
+     * parameter or the second parameter is the superclass (or above) of
+     * the first parameter {@code firstParameter instanceof secondParameter}
+     */
+    private static boolean contains(Class<?> c1, Class<?> c2) {
+        return c1.equals(c2) || c1.getSuperclass() != null && contains(c1.getSuperclass(), c2);
+    }
+
+}
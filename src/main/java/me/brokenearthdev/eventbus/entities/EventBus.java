@@ -1,288 +1,575 @@
-/*
- * Copyright 2018 github.com/BrokenEarthDev
- * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
- * with the License. You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
- * governing permissions and limitations under the License.
- */
-package me.brokenearthdev.eventbus.entities;
-
-import me.brokenearthdev.eventbus.annotations.CancellableEvent;
-import me.brokenearthdev.eventbus.annotations.SubscribeEvent;
-import me.brokenearthdev.eventbus.exceptions.EventBusException;
-
-import java.io.Serializable;
-import java.lang.annotation.Annotation;
-import java.util.ArrayList;
-import java.util.List;
-
-/**
- * The {@link EventBus} is responsible for handling, cancelling, and calling events.
- * You can register a listener by using:
- * <pre>
- *     EventBus&lt;Event&gt; eventBus = new EventBus&lt;&gt;();
- *     eventBus.register(listenerObject);
- * </pre>
- * And now to call an event, use
- * <pre>
- *     eventBus.callEvent(eventObj);
- * </pre>
- * Please note that event type should be inherited or be the same as the Event superclass
- * specified in the type parameters
- * You can unregister an event listener by using {@link #unregister(Object)} and
- * cancel an event using {@link #cancelEvent(Class)}. To uncancel an event, use
- * {@link #uncancelEvent(Class)}
- *
- * @param <T> The superclasses of all events. The event bus is designed to be heavily
- *           customizable. The superclasses of all events will then be used as a type
- *           to call an event, cancel an event, or uncancel an event inherited or the
- *           same as the event specified
- *
- * @author BrokenEarth // BrokenEarthDev
- * @version 4.0
- * @since 1.0
- */
-public class EventBus<T> implements Serializable {
-
-    /**
-     * The registered event listeners are stored here. Registered event listeners are
-     * stored in a list. When an event is called, every event method in this list will
-     * be invoked. To register an event listener, use {@link #register(Object)} and to
-     * unregister an event listener, use {@link #unregister(Object)}
-     */
-    final List<Object> registered = new ArrayList<>();
-
-    /**
-     * The cancelled events are stored in this list. When a cancelled event is called,
-     * no event method will be invoked. To cancel an event, use {@link #cancelEvent(Class)}
-     * and to uncancel an event, use {@link #uncancelEvent(Class)}
-     */
-    final List<Class<?>> cancelled = new ArrayList<>();
-    /**
-     * The annotation in which a method needs to be annotated with this annotation to be
-     * considered as an event method. Calling an event will first look methods with the
-     * specified annotation. A method is an event method if
-     * <ul>
-     *    <li>The method is annotated with the specified event annotation</li>
-     *    <li>The method is public and not static</li>
-     *    <li>They only have one parameter</li>
-     *    <li>That one parameter is requiring an event object. If you call that event
-     *    (or any event that is a subclass of the specified event), that method will run</li>
-     * </ul>
-     */
-    Class<? extends Annotation> annotation;
-
-    /**
-     * The {@link ListenerList} contains a list of registered listeners and cancelled events
-     * where you can retrieve them because they're public.
-     * You can also get the event annotation from the listener list by using {@link ListenerList#getAnnotation()}
-     */
-    private final ListenerList<T> listenerList = new ListenerList<>(this);
-
-    /**
-     * The {@link EventCaller} is responsible for calling events. {@link #callEvent(Object)} calls
-     * {@link EventCaller#callEvent(Object)} by {@link #callEvent(Object)}.
-     * {@link EventCaller} calls an event efficiently
-     */
-    private final EventCaller<T> caller;
-
-    /**
-     * This constructor requires an annotation as the parameter. You need to specify
-     * the event annotation in the constructor.
-     * Any methods that are annotated with the specified annotation are looked first
-     * before calling an event. A method is an event method if
-     * <ul>
-     *     <li>The method is annotated with the specified event annotation</li>
-     *     <li>The method is public and not static</li>
-     *     <li>They only have one parameter</li>
-     *     <li>That one parameter is requiring an event object. If you call that event
-     *     which is inherited or equal to the value specified in {@link T}, that method
-     *     will run</li>
-     * </ul>
-     *
-     * @param annotation The annotation specified. Any method annotated with this annotation
-     *                   and that method is public and not static and has one parameter requiring
-     *                   an event object which is inherited or equal to the value specified in {@link T}
-     *                   will be considered as an event method
-     */
-    public EventBus(Class<? extends Annotation> annotation) {
-        this.annotation = annotation;
-        this.caller = new EventCaller<>(this);
-    }
-
-    /**
-     * Creating an instance of this class with an empty constructor allows {@link SubscribeEvent}
-     * to be the event annotation. This constructor will call the main constructor, which is
-     * {@link #EventBus(Class)} to set the event annotation to {@link SubscribeEvent}. Any methods
-     * that are annotated with {@link SubscribeEvent} are looked first before calling an event.
-     * Refer to {@link #EventBus(Class)} for more information
-     */
-    public EventBus() {
-        this(SubscribeEvent.class);
-    }
-
-    /**
-     * Registers a listener and adds it to {@link #registered}.
-     * When an event is called using
-     * {@link #callEvent(Object)}, all event methods in the registered listeners will be searched
-     * before invoking the event methods. A method is an event method if
-     * <ul>
-     *     <li>The method is annotated with the specified event annotation</li>
-     *     <li>The method is public and not static</li>
-     *     <li>They only have one parameter</li>
-     *     <li>That one parameter is requiring an event object. If you call that event
-     *     which is inherited or equal to the value specified in {@link T}, that method
-     *     will run</li>
-     * </ul>
-     *
-     * @param object The listener object
-     * @return This object
-     */
-    public EventBus register(Object object) {
-        registered.add(object);
-        return this;
-    }
-
-    /**
-     * Registers the specified listeners and adds them to {@link #registered}.
-     * You can specify as many listener objects as you want since the parameter uses varargs
-     * When an event is called using
-     * {@link #callEvent(Object)}, all event methods in the registered listeners will be searched
-     * before invoking the event methods. A method is an event method if
-     * <ul>
-     *     <li>The method is annotated with the specified event annotation</li>
-     *     <li>The method is public and not static</li>
-     *     <li>They only have one parameter</li>
-     *     <li>That one parameter is requiring an event object. If you call that event
-     *     which is inherited or equal to the value specified in {@link T}, that method
-     *     will run</li>
-     * </ul>
-     *
-     * @param objects The listener objects. You can specify as many objects as you want
-     *                since the parameter uses varargs.
-     * @return This object
-     */
-    public EventBus register(Object ...objects) {
-        for (Object o : objects) {
-            register(o);
-        }
-        return this;
-    }
-
-    /**
-     * Unregisters the specified listener and removes it from {@link #registered}.
-     * The {@link EventBus} will no longer look for events method in the specified object.
-     * If the specified object isn't registered, nothing will happen
-     *
-     * @param object The registered object
-     * @return This object
-     */
-    public EventBus unregister(Object object) {
-        registered.remove(object);
-        return this;
-    }
-
-    /**
-     * Unregisters the specified listeners and removes them from {@link #registered}.
-     * The {@link EventBus} will no longer look for event methods in the specified objects.
-     * If one of the specified object is not registered, other specified objects that are
-     * registered will be unregistered.
-     *
-     * @param objects The objects that will be unregistered if they are registered
-     * @return This object
-     */
-    public EventBus unregister(Object ...objects) {
-        for (Object o : objects) {
-            unregister(o);
-        }
-        return this;
-    }
-
-    /**
-     * This method will call all event methods that requires the specified object.
-     * An event method will also be called if they requires any object that is a superclass and
-     * higher-up classes. That means that any method that requires the {@link T} object as the
-     * parameter will be called if any event is called. The specified event won't be called if it
-     * is cancelled.
-     *
-     * @param event The event object. Method that'll be called will
-     *              be affected by the type of event. Any method that will
-     *              be called will have a superclass (or a higher class) or
-     *              the specified event class as a parameter. The specified
-     *              event won't be called if it is cancelled
-     * @return This object
-     */
-    public EventBus callEvent(T event) {
-        if (isCancelled(event.getClass())) return this;
-        caller.callEvent(event);
-        return this;
-    }
-
-    /**
-     * An event will be cancellable if the class or the class inherits from
-     * a class that is annotated with {@link CancellableEvent}
-     *
-     * @param event The specified event class that will be checked if the
-     *              event is cancellable or not.
-     * @return Whether if the specified event class is cancellable or not.
-     */
-    public boolean isCancellable(Class<? extends T> event) {
-        return event.isAnnotationPresent(CancellableEvent.class);
-    }
-
-    /**
-     * @param event The specified event class that will have the event
-     *              class or it's superclass (or above) checked if it's
-     *              cancelled or not.
-     * @return Whether if the event class (or it's superclass or above) is
-     * cancelled or not
-     * @see #cancelEvent(Class)
-     */
-    public boolean isCancelled(Class<?> event) {
-        return cancelled.contains(event) || event.getSuperclass() != null && isCancelled(event.getSuperclass());
-    }
-
-    /**
-     * Cancels the specified event. Cancelled events won't run.
-     * If the event is not cancellable, {@link EventBusException}
-     * will be thrown.
-     *
-     * @param event The event to cancel
-     * @return This object
-     */
-    public EventBus cancelEvent(Class<? extends T> event) {
-        if (!isCancellable(event))
-            throw new EventBusException("Specified event is not cancellable");
-        cancelled.add(event);
-        return this;
-    }
-
-    /**
-     * Uncancels the specified event. If the event is not cancelled, nothing
-     * will happen. If the event is not cancellable, {@link EventBusException}
-     * will be thrown.
-     *
-     * @param event The event to uncancel.
-     * @return This object
-     */
-    public EventBus uncancelEvent(Class<? extends T> event) {
-        if (!isCancellable(event))
-            throw new EventBusException("Specified event is not cancellable");
-        cancelled.remove(event);
-        return this;
-    }
-
-    /**
-     * @return Whether if the {@link EventBus} is modifiable or not. Modifiable event buses
-     * must be {@link ModifiableEventBus}, meaning that this object must be an instanceof
-     * {@link ModifiableEventBus}.
-     */
-    public boolean isModifiable() {
-        return this instanceof ModifiableEventBus;
-    }
-
-}
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.annotations.CancellableEvent;
+import me.brokenearthdev.eventbus.annotations.DelayedEvent;
+import me.brokenearthdev.eventbus.annotations.SubscribeEvent;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+import me.brokenearthdev.eventbus.exceptions.EventListenerException;
+import me.brokenearthdev.eventbus.utils.Consumer;
+import me.brokenearthdev.eventbus.utils.Predicate;
+
+import java.io.Serializable;
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The {@link EventBus} is responsible for handling, cancelling, and calling events.
+ * You can register a listener by using:
+ * <pre>
+ *     EventBus&lt;Event&gt; eventBus = new EventBus&lt;&gt;();
+ *     eventBus.register(listenerObject);
+ * </pre>
+ * And now to call an event, use
+ * <pre>
+ *     eventBus.callEvent(eventObj);
+ * </pre>
+ * Please note that event type should be inherited or be the same as the Event superclass
+ * specified in the type parameters
+ * You can unregister an event listener by using {@link #unregister(Object)} and
+ * cancel an event using {@link #cancelEvent(Class)}. To uncancel an event, use
+ * {@link #uncancelEvent(Class)}
+ *
+ * @param <T> The superclasses of all events. The event bus is designed to be heavily
+ *           customizable. The superclasses of all events will then be used as a type
+ *           to call an event, cancel an event, or uncancel an event inherited or the
+ *           same as the event specified
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 4.0
+ * @since 1.0
+ */
+public class EventBus<T> implements Serializable {
+
+    /**
+     * The registered event listeners are stored here. Registered event listeners are
+     * stored in a list. When an event is called, every event method in this list will
+     * be invoked. To register an event listener, use {@link #register(Object)} and to
+     * unregister an event listener, use {@link #unregister(Object)}.
+     * The list is copy-on-write so that events can be called from several threads, such
+     * as the lanes of a {@link KeyedEventCaller}, while listeners are being registered
+     */
+    final List<Object> registered = new CopyOnWriteArrayList<>();
+
+    /**
+     * The cancelled events are stored in this list. When a cancelled event is called,
+     * no event method will be invoked. To cancel an event, use {@link #cancelEvent(Class)}
+     * and to uncancel an event, use {@link #uncancelEvent(Class)}
+     */
+    final List<Class<?>> cancelled = new CopyOnWriteArrayList<>();
+    /**
+     * The annotations in which a method needs to be annotated with one of these annotations
+     * to be considered as an event method. Calling an event will first look methods with the
+     * specified annotations. A method is an event method if
+     * <ul>
+     *    <li>The method is annotated with one of the event annotations</li>
+     *    <li>The method is public and not static</li>
+     *    <li>They only have one parameter</li>
+     *    <li>That one parameter is requiring an event object. If you call that event
+     *    (or any event that is a subclass of the specified event), that method will run</li>
+     * </ul>
+     * The list can't be modified; {@link EventBusModifier} replaces it as a whole
+     */
+    volatile List<Class<? extends Annotation>> annotations;
+
+    /**
+     * The consumers subscribed to event classes. To subscribe a consumer, use
+     * {@link #subscribe(Class, Consumer)} and to unsubscribe a consumer, use
+     * {@link #unsubscribe(Consumer)}
+     */
+    final List<FunctionalSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * The stages every called event passes through before its event methods are invoked.
+     * To add a stage, use {@link #addStage(EventStage)} and to remove a stage, use
+     * {@link #removeStage(EventStage)}
+     */
+    final List<EventStage<T>> stages = new CopyOnWriteArrayList<>();
+
+    /**
+     * Decides what happens when an event method or a subscribed consumer throws an exception.
+     * To set the policy, use {@link #setExceptionPolicy(ExceptionPolicy)}
+     */
+    volatile ExceptionPolicy exceptionPolicy = ExceptionPolicy.abort();
+
+    /**
+     * The pools of the pooled event classes. To add a pool, use {@link #addPool(Class, EventPool)}
+     */
+    final ConcurrentMap<Class<?>, EventPool<?>> pools = new ConcurrentHashMap<>();
+
+    /**
+     * The objects keeping called events after they were called, with the event class each of
+     * them keeps. To add a retainer, use {@link #addRetainer(Object, Class)}
+     */
+    private final Map<Object, Class<?>> retainers = new HashMap<>();
+
+    /**
+     * The event classes kept by the retainers. Pooled events of these classes (and their
+     * subclasses) aren't released. Replaced whenever a retainer is added or removed
+     */
+    private volatile Class<?>[] retained = new Class<?>[0];
+
+    /**
+     * The {@link ListenerList} contains a list of registered listeners and cancelled events
+     * where you can retrieve them because they're public.
+     * You can also get the event annotation from the listener list by using {@link ListenerList#getAnnotation()}
+     */
+    private final ListenerList<T> listenerList = new ListenerList<>(this);
+
+    /**
+     * The {@link EventCaller} is responsible for calling events. {@link #callEvent(Object)} calls
+     * {@link EventCaller#callEvent(Object)} by {@link #callEvent(Object)}.
+     * {@link EventCaller} calls an event efficiently
+     */
+    final EventCaller<T> caller;
+
+    /**
+     * This constructor requires an annotation as the parameter. You need to specify
+     * the event annotation in the constructor.
+     * Any methods that are annotated with the specified annotation are looked first
+     * before calling an event. A method is an event method if
+     * <ul>
+     *     <li>The method is annotated with the specified event annotation</li>
+     *     <li>The method is public and not static</li>
+     *     <li>They only have one parameter</li>
+     *     <li>That one parameter is requiring an event object. If you call that event
+     *     which is inherited or equal to the value specified in {@link T}, that method
+     *     will run</li>
+     * </ul>
+     *
+     * @param annotation The annotation specified. Any method annotated with this annotation
+     *                   and that method is public and not static and has one parameter requiring
+     *                   an event object which is inherited or equal to the value specified in {@link T}
+     *                   will be considered as an event method
+     */
+    public EventBus(Class<? extends Annotation> annotation) {
+        Objects.requireNonNull(annotation, "Parameter(s) can't be null");
+        this.annotations = Collections.singletonList(annotation);
+        this.caller = new EventCaller<>(this);
+    }
+
+    /**
+     * Creating an instance of this class with an empty constructor allows {@link SubscribeEvent}
+     * to be the event annotation. This constructor will call the main constructor, which is
+     * {@link #EventBus(Class)} to set the event annotation to {@link SubscribeEvent}. Any methods
+     * that are annotated with {@link SubscribeEvent} are looked first before calling an event.
+     * Refer to {@link #EventBus(Class)} for more information
+     */
+    public EventBus() {
+        this(SubscribeEvent.class);
+    }
+
+    /**
+     * Registers a listener and adds it to {@link #registered}.
+     * When an event is called using
+     * {@link #callEvent(Object)}, all event methods in the registered listeners will be searched
+     * before invoking the event methods. A method is an event method if
+     * <ul>
+     *     <li>The method is annotated with the specified event annotation</li>
+     *     <li>The method is public and not static</li>
+     *     <li>They only have one parameter</li>
+     *     <li>That one parameter is requiring an event object. If you call that event
+     *     which is inherited or equal to the value specified in {@link T}, that method
+     *     will run</li>
+     * </ul>
+     *
+     * @param object The listener object
+     * @return This object
+     * @throws EventBusException If an {@link me.brokenearthdev.eventbus.annotations.EventFilter}
+     * of the listener is invalid. The listener isn't registered in that case
+     */
+    public EventBus register(Object object) {
+        // finds the event methods now, so that an invalid event filter fails here and not on every call
+        SubscriberCache.getSubscribers(object.getClass(), annotations);
+        registered.add(object);
+        caller.invalidate();
+        return this;
+    }
+
+    /**
+     * Registers the specified listeners and adds them to {@link #registered}.
+     * You can specify as many listener objects as you want since the parameter uses varargs
+     * When an event is called using
+     * {@link #callEvent(Object)}, all event methods in the registered listeners will be searched
+     * before invoking the event methods. A method is an event method if
+     * <ul>
+     *     <li>The method is annotated with the specified event annotation</li>
+     *     <li>The method is public and not static</li>
+     *     <li>They only have one parameter</li>
+     *     <li>That one parameter is requiring an event object. If you call that event
+     *     which is inherited or equal to the value specified in {@link T}, that method
+     *     will run</li>
+     * </ul>
+     *
+     * @param objects The listener objects. You can specify as many objects as you want
+     *                since the parameter uses varargs.
+     * @return This object
+     * @throws EventBusException If an {@link me.brokenearthdev.eventbus.annotations.EventFilter}
+     * of one of the listeners is invalid. None of the listeners are registered in that case
+     */
+    public EventBus register(Object ...objects) {
+        for (Object o : objects) {
+            SubscriberCache.getSubscribers(o.getClass(), annotations);
+        }
+        for (Object o : objects) {
+            register(o);
+        }
+        return this;
+    }
+
+    /**
+     * Unregisters the specified listener and removes it from {@link #registered}.
+     * The {@link EventBus} will no longer look for events method in the specified object.
+     * If the specified object isn't registered, nothing will happen
+     *
+     * @param object The registered object
+     * @return This object
+     */
+    public EventBus unregister(Object object) {
+        if (registered.remove(object)) {
+            caller.invalidate();
+            caller.forgetFailures(object);
+        }
+        return this;
+    }
+
+    /**
+     * Unregisters the specified listeners and removes them from {@link #registered}.
+     * The {@link EventBus} will no longer look for event methods in the specified objects.
+     * If one of the specified object is not registered, other specified objects that are
+     * registered will be unregistered.
+     *
+     * @param objects The objects that will be unregistered if they are registered
+     * @return This object
+     */
+    public EventBus unregister(Object ...objects) {
+        for (Object o : objects) {
+            unregister(o);
+        }
+        return this;
+    }
+
+    /**
+     * Subscribes a consumer to the specified event class. When the event class (or any of its
+     * subclasses) is called, the consumer will accept the event. Consumers are invoked after
+     * the event methods of the registered listeners, in the order they were subscribed.
+     *
+     * @param type The event class
+     * @param consumer The consumer
+     * @param <E> The type of the event class
+     * @return This object
+     */
+    public <E extends T> EventBus subscribe(Class<E> type, Consumer<? super E> consumer) {
+        return subscribe(type, null, consumer);
+    }
+
+    /**
+     * Subscribes a consumer to the specified event class. When the event class (or any of its
+     * subclasses) is called and the event matches the filter, the consumer will accept the event.
+     * The filter is tested before the consumer is invoked.
+     *
+     * @param type The event class
+     * @param filter The filter events must match, or null to accept every event
+     * @param consumer The consumer
+     * @param <E> The type of the event class
+     * @return This object
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends T> EventBus subscribe(Class<E> type, Predicate<? super E> filter, Consumer<? super E> consumer) {
+        Objects.requireNonNull(type, "Parameter(s) can't be null");
+        Objects.requireNonNull(consumer, "Parameter(s) can't be null");
+        subscriptions.add(new FunctionalSubscription(type, (Predicate<Object>) filter, (Consumer<Object>) consumer));
+        caller.invalidate();
+        return this;
+    }
+
+    /**
+     * Unsubscribes the specified consumer from every event class it is subscribed to.
+     * If the consumer isn't subscribed, nothing will happen
+     *
+     * @param consumer The subscribed consumer
+     * @return This object
+     */
+    public EventBus unsubscribe(Consumer<?> consumer) {
+        if (subscriptions.removeIf(subscription -> subscription.consumer == consumer)) {
+            caller.invalidate();
+            caller.failures.remove(consumer);
+        }
+        return this;
+    }
+
+    /**
+     * This method will call all event methods that requires the specified object.
+     * An event method will also be called if they requires any object that is a superclass and
+     * higher-up classes. That means that any method that requires the {@link T} object as the
+     * parameter will be called if any event is called. The specified event won't be called if it
+     * is cancelled.
+     *
+     * @param event The event object. Method that'll be called will
+     *              be affected by the type of event. Any method that will
+     *              be called will have a superclass (or a higher class) or
+     *              the specified event class as a parameter. The specified
+     *              event won't be called if it is cancelled
+     * @return This object
+     */
+    public EventBus callEvent(T event) {
+        EventPool<?> pool = poolOf(event);
+        if (isCancelled(event.getClass())) {
+            if (pool != null) pool.releaseCalled(event);
+            return this;
+        }
+        for (EventStage<T> stage : stages) {
+            stage.onEvent(event);
+        }
+        caller.callEvent(event, pool);
+        return this;
+    }
+
+    /**
+     * Adds a pool for the specified event class. Events of exactly this class called by
+     * {@link #callEvent(Object)} are released to the pool once every event method was invoked
+     * (for a {@link DelayedEvent}, once the delayed event methods were invoked), unless a
+     * retainer is added (refer to {@link #addRetainer(Object)}). Refer to {@link EventPool}
+     * for more information
+     *
+     * @param type The pooled event class
+     * @param pool The pool
+     * @param <E> The type of the pooled event class
+     * @return This object
+     */
+    public <E extends PooledEvent> EventBus addPool(Class<E> type, EventPool<E> pool) {
+        Objects.requireNonNull(type, "Parameter(s) can't be null");
+        Objects.requireNonNull(pool, "Parameter(s) can't be null");
+        pools.put(type, pool);
+        return this;
+    }
+
+    /**
+     * Removes the pool of the specified event class. Events of the class won't be released anymore
+     *
+     * @param type The pooled event class
+     * @return This object
+     */
+    public EventBus removePool(Class<? extends PooledEvent> type) {
+        pools.remove(type);
+        return this;
+    }
+
+    /**
+     * Acquires an event from the pool of the specified event class. If no pool was added
+     * for the class, {@link EventBusException} will be thrown
+     *
+     * @param type The pooled event class
+     * @param <E> The type of the pooled event class
+     * @return A released event, or a new event if the pool is empty
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends PooledEvent> E acquire(Class<E> type) {
+        EventPool<E> pool = (EventPool<E>) pools.get(type);
+        if (pool == null)
+            throw new EventBusException("No pool was added for " + type.getName());
+        return pool.acquire();
+    }
+
+    /**
+     * @param event A called event
+     * @return The pool of the event, or null if the event isn't pooled. In debug mode, the
+     * pool checks that the event wasn't released
+     */
+    EventPool<?> poolOf(Object event) {
+        if (!(event instanceof PooledEvent) || pools.isEmpty()) return null;
+        EventPool<?> pool = pools.get(event.getClass());
+        if (pool == null) return null;
+        pool.checkUsable(event);
+        // a retainer still uses the event, so it mustn't be reset and handed out again
+        return isRetained(event.getClass()) ? null : pool;
+    }
+
+    /**
+     * @param eventClass A pooled event class
+     * @return Whether if called events of the class are kept by a retainer, so they mustn't
+     * be released to their pool
+     */
+    boolean isRetained(Class<?> eventClass) {
+        for (Class<?> type : retained) {
+            if (type.isAssignableFrom(eventClass)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds an object keeping every called event after it was called. Refer to
+     * {@link #addRetainer(Object, Class)}. Stages whose {@link EventStage#retainsEvents()}
+     * returns true are added as retainers by {@link #addStage(EventStage)}
+     *
+     * @param retainer The retainer
+     * @return This object
+     */
+    public EventBus<T> addRetainer(Object retainer) {
+        return addRetainer(retainer, Object.class);
+    }
+
+    /**
+     * Adds an object keeping called events of the specified class after they were called, such
+     * as a publisher buffering them. While the retainer is added, pooled events of the class
+     * (or of its subclasses) called on this bus aren't released to their pool, since a released
+     * event is reset and handed out again; they are left to the garbage collector instead.
+     * Pooled events of other classes are still released. Adding a retainer again replaces the
+     * class it keeps
+     *
+     * @param retainer The retainer
+     * @param eventClass The class of the events it keeps
+     * @return This object
+     */
+    public EventBus<T> addRetainer(Object retainer, Class<?> eventClass) {
+        Objects.requireNonNull(retainer, "Parameter(s) can't be null");
+        Objects.requireNonNull(eventClass, "Parameter(s) can't be null");
+        synchronized (retainers) {
+            retainers.put(retainer, eventClass);
+            retained = retainers.values().toArray(new Class<?>[0]);
+        }
+        return this;
+    }
+
+    /**
+     * Removes a retainer. Pooled events of its class are released again once no other
+     * retainer keeps them. If the retainer wasn't added, nothing will happen
+     *
+     * @param retainer The retainer
+     * @return This object
+     */
+    public EventBus<T> removeRetainer(Object retainer) {
+        synchronized (retainers) {
+            if (retainers.remove(retainer) != null)
+                retained = retainers.values().toArray(new Class<?>[0]);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a stage. Every event called by {@link #callEvent(Object)} is given to the
+     * added stages (in the order they were added) before its event methods are invoked.
+     * Cancelled events aren't given to the stages.
+     *
+     * @param stage The stage to add
+     * @return This object
+     */
+    public EventBus addStage(EventStage<T> stage) {
+        stages.add(stage);
+        if (stage.retainsEvents()) addRetainer(stage);
+        return this;
+    }
+
+    /**
+     * Removes the specified stage. If the stage wasn't added, nothing will happen
+     *
+     * @param stage The stage to remove
+     * @return This object
+     */
+    public EventBus removeStage(EventStage<T> stage) {
+        if (stages.remove(stage) && !stages.contains(stage)) removeRetainer(stage);
+        return this;
+    }
+
+    /**
+     * Sets the {@link ExceptionPolicy} deciding what happens when an event method or a
+     * subscribed consumer throws an exception. By default, calling the event is aborted
+     * and an {@link EventListenerException} is thrown
+     *
+     * @param policy The policy
+     * @return This object
+     */
+    public EventBus setExceptionPolicy(ExceptionPolicy policy) {
+        Objects.requireNonNull(policy, "Parameter(s) can't be null");
+        this.exceptionPolicy = policy;
+        return this;
+    }
+
+    /**
+     * @return The {@link ExceptionPolicy} of this bus
+     */
+    public ExceptionPolicy getExceptionPolicy() {
+        return exceptionPolicy;
+    }
+
+    /**
+     * An event will be cancellable if the class or the class inherits from
+     * a class that is annotated with {@link CancellableEvent}
+     *
+     * @param event The specified event class that will be checked if the
+     *              event is cancellable or not.
+     * @return Whether if the specified event class is cancellable or not.
+     */
+    public boolean isCancellable(Class<? extends T> event) {
+        return event.isAnnotationPresent(CancellableEvent.class);
+    }
+
+    /**
+     * @param event The specified event class that will have the event
+     *              class or it's superclass (or above) checked if it's
+     *              cancelled or not.
+     * @return Whether if the event class (or it's superclass or above) is
+     * cancelled or not
+     * @see #cancelEvent(Class)
+     */
+    public boolean isCancelled(Class<?> event) {
+        return cancelled.contains(event) || event.getSuperclass() != null && isCancelled(event.getSuperclass());
+    }
+
+    /**
+     * Cancels the specified event. Cancelled events won't run.
+     * If the event is not cancellable, {@link EventBusException}
+     * will be thrown.
+     *
+     * @param event The event to cancel
+     * @return This object
+     */
+    public EventBus cancelEvent(Class<? extends T> event) {
+        if (!isCancellable(event))
+            throw new EventBusException("Specified event is not cancellable");
+        cancelled.add(event);
+        return this;
+    }
+
+    /**
+     * Uncancels the specified event. If the event is not cancelled, nothing
+     * will happen. If the event is not cancellable, {@link EventBusException}
+     * will be thrown.
+     *
+     * @param event The event to uncancel.
+     * @return This object
+     */
+    public EventBus uncancelEvent(Class<? extends T> event) {
+        if (!isCancellable(event))
+            throw new EventBusException("Specified event is not cancellable");
+        cancelled.remove(event);
+        return this;
+    }
+
+    /**
+     * @return Whether if the {@link EventBus} is modifiable or not. Modifiable event buses
+     * must be {@link ModifiableEventBus}, meaning that this object must be an instanceof
+     * {@link ModifiableEventBus}.
+     */
+    public boolean isModifiable() {
+        return this instanceof ModifiableEventBus;
+    }
+
+}
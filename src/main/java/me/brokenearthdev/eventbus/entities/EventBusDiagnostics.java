@@ -0,0 +1,217 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This class reports the state of an {@link EventBus}: its resolved dispatch table, the
+ * statistics of its handlers, its pending delayed events and the sizes of its caches.
+ *
+ * Handler statistics and Java Flight Recorder events are only recorded while profiling is
+ * enabled using {@link #setProfiling(boolean)}, because timing every handler slows down calling
+ * events. While profiling, a {@code me.brokenearthdev.eventbus.Dispatch} event is emitted around
+ * each dispatch if the JVM has Java Flight Recorder.
+ *
+ * To read the diagnostics with JMX clients, use
+ * <pre>
+ *     new EventBusDiagnostics&lt;&gt;(EVENT_BUS).registerMBean("main");
+ * </pre>
+ *
+ * @param <T> The type parameter of {@link EventBus}
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ * @see ListenerList
+ */
+public class EventBusDiagnostics<T> implements EventBusDiagnosticsMXBean {
+
+    /**
+     * The {@link EventBus} whose state is reported
+     */
+    private final EventBus<T> bus;
+
+    /**
+     * @param bus The {@link EventBus} whose state is reported
+     */
+    public EventBusDiagnostics(EventBus<T> bus) {
+        Objects.requireNonNull(bus, "Parameter(s) can't be null");
+        this.bus = bus;
+    }
+
+    /**
+     * @return The names of the handlers of every event class called so far, in the order
+     * they are invoked. Handlers excluded by an {@link me.brokenearthdev.eventbus.annotations.EventFilter}
+     * are included. Empty if the handlers changed and no event was called since, because the
+     * dispatch table is only created by calling an event
+     */
+    public Map<Class<?>, List<String>> getDispatchTable() {
+        DispatchTable current = bus.caller.peekTable();
+        if (current == null) return Collections.emptyMap();
+        Map<Class<?>, List<String>> table = new LinkedHashMap<>();
+        for (Map.Entry<Class<?>, HandlerSet> entry : current.resolved.entrySet()) {
+            List<String> names = new ArrayList<>();
+            for (EventHandler handler : entry.getValue().all) {
+                names.add(HandlerStatistics.nameOf(handler));
+            }
+            table.put(entry.getKey(), Collections.unmodifiableList(names));
+        }
+        return Collections.unmodifiableMap(table);
+    }
+
+    /**
+     * @return The statistics of every handler invoked while profiling was enabled
+     */
+    public List<HandlerStatistics> getStatistics() {
+        DispatchProfiler profiler = bus.caller.profiler;
+        if (profiler == null) return Collections.emptyList();
+        return Collections.unmodifiableList(new ArrayList<>(profiler.statistics.values()));
+    }
+
+    @Override
+    public int getRegisteredListenerCount() {
+        return bus.registered.size();
+    }
+
+    @Override
+    public int getSubscriptionCount() {
+        return bus.subscriptions.size();
+    }
+
+    @Override
+    public int getHandlerCount() {
+        DispatchTable table = bus.caller.peekTable();
+        return table == null ? 0 : table.size();
+    }
+
+    @Override
+    public int getResolvedEventClassCount() {
+        DispatchTable table = bus.caller.peekTable();
+        return table == null ? 0 : table.resolved.size();
+    }
+
+    @Override
+    public int getPendingDelayedCount() {
+        return bus.caller.pendingDelayed.get();
+    }
+
+    @Override
+    public int getPoolCount() {
+        return bus.pools.size();
+    }
+
+    @Override
+    public String[] getCancelledEventNames() {
+        List<String> names = new ArrayList<>();
+        for (Class<?> event : bus.cancelled) {
+            names.add(event.getName());
+        }
+        return names.toArray(new String[0]);
+    }
+
+    @Override
+    public String[] getDispatchTableSummary() {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<Class<?>, List<String>> entry : getDispatchTable().entrySet()) {
+            lines.add(entry.getKey().getName() + " -> " + String.join(", ", entry.getValue()));
+        }
+        return lines.toArray(new String[0]);
+    }
+
+    @Override
+    public String[] getStatisticsSummary() {
+        List<String> lines = new ArrayList<>();
+        for (HandlerStatistics statistics : getStatistics()) {
+            lines.add(statistics.toString());
+        }
+        return lines.toArray(new String[0]);
+    }
+
+    @Override
+    public long getProfiledDispatchCount() {
+        DispatchProfiler profiler = bus.caller.profiler;
+        return profiler == null ? 0 : profiler.dispatches.sum();
+    }
+
+    @Override
+    public boolean isProfiling() {
+        return bus.caller.profiler != null;
+    }
+
+    /**
+     * Enables or disables profiling. Disabling profiling discards the recorded statistics
+     *
+     * @param profiling Whether if profiling should be enabled
+     */
+    @Override
+    public synchronized void setProfiling(boolean profiling) {
+        if (profiling == isProfiling()) return;
+        bus.caller.profiler = profiling ? new DispatchProfiler() : null;
+    }
+
+    @Override
+    public synchronized void resetStatistics() {
+        if (isProfiling()) bus.caller.profiler = new DispatchProfiler();
+    }
+
+    /**
+     * Registers this object to the platform MBean server as
+     * {@code me.brokenearthdev.eventbus:type=EventBus,name=<name>}
+     *
+     * @param name The name of the {@link EventBus}
+     * @return The name of the registered MBean
+     */
+    public ObjectName registerMBean(String name) {
+        Objects.requireNonNull(name, "Parameter(s) can't be null");
+        try {
+            ObjectName objectName = objectName(name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new EventBusException("Couldn't register diagnostics of " + name, e);
+        }
+    }
+
+    /**
+     * Unregisters the MBean registered by {@link #registerMBean(String)}. If it isn't registered,
+     * nothing will happen
+     *
+     * @param name The name of the {@link EventBus}
+     */
+    public void unregisterMBean(String name) {
+        Objects.requireNonNull(name, "Parameter(s) can't be null");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = objectName(name);
+            if (server.isRegistered(objectName)) server.unregisterMBean(objectName);
+        } catch (JMException e) {
+            throw new EventBusException("Couldn't unregister diagnostics of " + name, e);
+        }
+    }
+
+    private static ObjectName objectName(String name) throws JMException {
+        return new ObjectName("me.brokenearthdev.eventbus:type=EventBus,name=" + ObjectName.quote(name));
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+/**
+ * The management interface of {@link EventBusDiagnostics}, registered to the platform
+ * MBean server by {@link EventBusDiagnostics#registerMBean(String)}. It can be read with
+ * standard JMX clients such as JConsole or VisualVM
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public interface EventBusDiagnosticsMXBean {
+
+    /**
+     * @return The number of registered listeners
+     */
+    int getRegisteredListenerCount();
+
+    /**
+     * @return The number of subscribed consumers
+     */
+    int getSubscriptionCount();
+
+    /**
+     * @return The number of event methods and subscribed consumers in the dispatch table, or
+     * 0 if the handlers changed and no event was called since. Reading it doesn't create the table
+     */
+    int getHandlerCount();
+
+    /**
+     * @return The number of event classes whose handlers were resolved by the current dispatch table
+     */
+    int getResolvedEventClassCount();
+
+    /**
+     * @return The number of delayed events and {@link ExceptionPolicy} retries waiting for
+     * their delay to pass
+     */
+    int getPendingDelayedCount();
+
+    /**
+     * @return The number of event pools
+     */
+    int getPoolCount();
+
+    /**
+     * @return The names of the cancelled event classes
+     */
+    String[] getCancelledEventNames();
+
+    /**
+     * @return One line per resolved event class, listing its handlers in the order they are invoked
+     */
+    String[] getDispatchTableSummary();
+
+    /**
+     * @return One line per profiled handler with its invocation count and latency percentiles
+     */
+    String[] getStatisticsSummary();
+
+    /**
+     * @return The number of events dispatched while profiling was enabled
+     */
+    long getProfiledDispatchCount();
+
+    /**
+     * @return Whether if profiling is enabled
+     */
+    boolean isProfiling();
+
+    /**
+     * @param profiling Whether if profiling should be enabled
+     */
+    void setProfiling(boolean profiling);
+
+    /**
+     * Discards the recorded statistics
+     */
+    void resetStatistics();
+
+}
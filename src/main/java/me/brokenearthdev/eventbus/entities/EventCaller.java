@@ -1,198 +1,416 @@
-/*
- * Copyright 2018 github.com/BrokenEarthDev
- * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
- * with the License. You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
- * governing permissions and limitations under the License.
- */
-package me.brokenearthdev.eventbus.entities;
-
-import me.brokenearthdev.eventbus.annotations.CallerEventBus;
-import me.brokenearthdev.eventbus.annotations.DelayedEvent;
-import me.brokenearthdev.eventbus.exceptions.EventBusException;
-import me.brokenearthdev.eventbus.exceptions.EventListenerException;
-import me.brokenearthdev.eventbus.utils.Action;
-
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
-
-/**
- * This class is responsible for calling events efficiently
- *
- * @param <T> The type parameter of the initialized {@link EventBus}
- *
- * @author BrokenEarth // BrokenEarthDev
- * @version 1.0
- * @since 4.0
- */
-public class EventCaller<T> {
-
-    /**
-     * This is the caller {@link EventBus} initialized by the constructors
-     */
-    private EventBus<T> bus;
-
-    /**
-     * This is the main constructor that initializes {@link #bus} to
-     * the variable set in the parameter
-     *
-     * @param bus The caller {@link EventBus}
-     */
-    public EventCaller(EventBus<T> bus) {
-        this.bus = bus;
-    }
-
-    /**
-     * Initializes the caller {@link EventBus} annotatied with in
-     * {@link CallerEventBus} in an event class which isa accessible
-     * by an {@link EventBus}
-     *
-     * @param event The event class
-     */
-    private void initCallerEventBus(T event) {
-        Class<?> eventClass = event.getClass();
-        Field[] fields = eventClass.getFields();
-        List<Field> fields1 = new ArrayList<>();
-        for (Field field : fields) {
-            if (field.getAnnotation(CallerEventBus.class) != null) {
-                if (!isEventBusVariable(field.getType()))
-                    throw new EventBusException("Field isn't a type of " + EventBus.class.getName());
-                if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers()))
-                    throw new EventBusException("Cannot initialize caller event bus when they are static or final");
-                fields1.add(field);
-            }
-        }
-        for (Field field : fields1) {
-            try {
-                field.setAccessible(true);
-                field.set(event, bus);
-            } catch (IllegalAccessException e) {
-                e.printStackTrace();
-            }
-        }
-    }
-
-    /**
-     * @param class_ The {@link Class} to check if it is an {@link EventBus},
-     *               or is a subclass (or below) of {@link EventBus}
-     * @return Whether if the data provided in the parameters is an {@link EventBus},
-     * or is a subclass (or below) of {@link EventBus}
-     */
-    private static boolean isEventBusVariable(Class class_) {
-        return class_.equals(EventBus.class) || class_.getSuperclass() != null && isEventBusVariable(class_.getSuperclass());
-    }
-
-    /**
-     * Calls the specified event. It searches for the event methods for the
-     * specified event and invokes them.
-     *
-     * @param event The event that will affect what methods will be called
-     */
-    public void callEvent(T event) {
-        if (getRegisteredClasses().size() == 0) return;
-        Class eventClass = event.getClass();
-        if (getDelay(event.getClass()) < 0)
-            throw new EventBusException("Delay can't be negative");
-        Action action = () -> {
-            for (Object o : getRegisteredClasses()) {
-                for (Method method : o.getClass().getMethods()) {
-                    if (isEventMethod(method, event)) {
-                        try {
-                            method.invoke(o, event);
-                        } catch (IllegalAccessException e) {
-                            throw new EventListenerException("One of the event listener methods isn't accessible");
-                        } catch (InvocationTargetException e) {
-                            throw new EventListenerException("One of the event listeners had an uncaught exception", e.getCause());
-                        }
-                    }
-                }
-            }
-        };
-        if (getDelay(eventClass) == 0) {
-            action.run();
-        } else {
-            new Timer().schedule(new TimerTask() {
-                @Override
-                public void run() {
-                    action.run();
-                }
-            }, getDelay(eventClass));
-        }
-        initCallerEventBus(event);
-    }
-
-    /**
-     * @return The registered classes
-     */
-    private List<Object> getRegisteredClasses() {
-        return bus.registered;
-    }
-
-    /**
-     * Specifies whether if the method is an event method with the event class (or above)
-     * specified.
-     *
-     * @param method The method that'll be checked if it is an event method
-     *               with the event class (or above) specified
-     * @param obj The event class
-     * @return Whether if the method is an event method with the event class (or its superclass
-     * or above) specified.
-     */
-    private boolean isEventMethod(Method method, T obj) {
-        return Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers()) &&
-                method.getParameterCount() == 1 && contains(obj.getClass(), method.getParameterTypes()[0])
-                && method.getAnnotation(bus.annotation) != null;
-    }
-
-    /**
-     * Checks whether the first parameter is the same as the second parameter
-     * or the second parameter is the superclass (or above) of the first parameter
-     *
-     * @param c1 The class to check if it is equal to the second parameter
-     *           or is a subclass (or below) of the second parameter
-     * @param c2 The class to check if it is equal to the first parameter
-     *           or is a superclass (or above) of the first parameter
-     * @return Whether if the first parameter is equal to the second
-     * parameter or the second parameter is the superclass (or above) of
-     * the first parameter {@code firstParameter instanceof secondParameter}
-     */
-    private static boolean contains(Class c1, Class c2) {
-        return c1.equals(c2) || c1.getSuperclass() != null && contains(c1.getSuperclass(), c2);
-    }
-
-    /**
-     * Checks whether if the event class is delayed (annotated with {@link DelayedEvent})
-     * or not
-     *
-     * @param class_ The class to check if it is delayed (annotated with {@link DelayedEvent)
-     * @return Whether if the event class is annotated with {@link DelayedEvent}
-     */
-    private static boolean isDelayed(Class class_) {
-        return class_.isAnnotationPresent(DelayedEvent.class);
-    }
-
-    /**
-     * Gets the delay for the specified event class. If the specified event class
-     * is not annotated with {@link DelayedEvent} or not {@link #isDelayed(Class)},
-     * the method will return 0.
-     *
-     * @param class_ The class to retrieve its delay
-     * @return The method will return 0 if the event class is not annotated with
-     * {@link DelayedEvent} or will return {@link DelayedEvent#value()} if it is
-     * annotated with {@link DelayedEvent}
-     */
-    private static int getDelay(Class class_) {
-        return (!isDelayed(class_)) ? 0 : ((DelayedEvent) class_.getAnnotation(DelayedEvent.class)).value();
-    }
-
-}
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.annotations.CallerEventBus;
+import me.brokenearthdev.eventbus.annotations.DelayedEvent;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+import me.brokenearthdev.eventbus.exceptions.EventListenerException;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is responsible for calling events efficiently
+ *
+ * @param <T> The type parameter of the initialized {@link EventBus}
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.0
+ */
+public class EventCaller<T> {
+
+    /**
+     * Returned by {@link #invoke} when the predicate of a handler didn't accept the event
+     */
+    private static final Release REJECTED = new Release(null, null);
+
+    /**
+     * This is the caller {@link EventBus} initialized by the constructors
+     */
+    private EventBus<T> bus;
+
+    /**
+     * The handlers of the {@link EventBus}, or null if they changed since the table was
+     * last created. Events are called using the table read when they are called
+     */
+    private volatile DispatchTable table;
+
+    /**
+     * The number of failures of each event method, or of each subscribed consumer
+     */
+    final ConcurrentMap<Object, AtomicLong> failures = new ConcurrentHashMap<>();
+
+    /**
+     * Records the statistics of the handlers while profiling is enabled, or null
+     */
+    volatile DispatchProfiler profiler;
+
+    /**
+     * The number of delayed events and retries waiting for their delay to pass
+     */
+    final AtomicInteger pendingDelayed = new AtomicInteger();
+
+    /**
+     * This is the main constructor that initializes {@link #bus} to
+     * the variable set in the parameter
+     *
+     * @param bus The caller {@link EventBus}
+     */
+    public EventCaller(EventBus<T> bus) {
+        this.bus = bus;
+    }
+
+    /**
+     * Initializes the caller {@link EventBus} annotatied with in
+     * {@link CallerEventBus} in an event class which isa accessible
+     * by an {@link EventBus}. Event classes without such fields are skipped
+     *
+     * @param event The event class
+     */
+    void initCallerEventBus(T event) {
+        CallerBusInjector injector = CallerBusInjector.of(event.getClass());
+        if (injector != CallerBusInjector.NONE) injector.inject(event, bus);
+    }
+
+    /**
+     * Calls the specified event. It searches for the event methods for the
+     * specified event and invokes them.
+     *
+     * @param event The event that will affect what methods will be called
+     */
+    public void callEvent(T event) {
+        callEvent(event, null);
+    }
+
+    /**
+     * Calls the specified event and releases it to the specified pool once every event
+     * method was invoked
+     *
+     * @param event The event that will affect what methods will be called
+     * @param pool The pool of the event, or null if it isn't pooled
+     */
+    void callEvent(T event, EventPool<?> pool) {
+        DispatchTable table = getTable();
+        if (table.isEmpty()) {
+            if (pool != null) pool.releaseCalled(event);
+            return;
+        }
+        Class eventClass = event.getClass();
+        int delay = getDelay(eventClass);
+        if (delay < 0)
+            throw new EventBusException("Delay can't be negative");
+        HandlerSet handlers = table.getHandlers(eventClass);
+        initCallerEventBus(event);
+        if (delay == 0) {
+            dispatch(handlers, event, pool);
+        } else {
+            pendingDelayed.incrementAndGet();
+            DelayScheduler.schedule(() -> {
+                pendingDelayed.decrementAndGet();
+                try {
+                    dispatch(handlers, event, pool);
+                } catch (EventListenerException e) {
+                    // there is no caller to throw to, but the scheduler must survive
+                    e.printStackTrace();
+                }
+            }, delay);
+        }
+    }
+
+    /**
+     * Invokes the handlers accepting the specified event, then releases the event. A pooled
+     * event with retries scheduled by the {@link ExceptionPolicy} is released once the
+     * retries finished
+     *
+     * @param handlers The handlers of the event class
+     * @param event The event
+     * @param pool The pool of the event, or null if it isn't pooled
+     */
+    private void dispatch(HandlerSet handlers, T event, EventPool<?> pool) {
+        DispatchProfiler profiler = this.profiler;
+        Release release = null;
+        try {
+            if (profiler == null) {
+                for (EventHandler handler : handlers.select(event)) {
+                    Release result = invoke(handler, event, 1, pool, release);
+                    if (result != REJECTED) release = result;
+                }
+            } else {
+                Object recorded = profiler.begin();
+                int invoked = 0;
+                try {
+                    for (EventHandler handler : handlers.select(event)) {
+                        long start = System.nanoTime();
+                        boolean accepted = true;
+                        try {
+                            Release result = invoke(handler, event, 1, pool, release);
+                            accepted = result != REJECTED;
+                            if (accepted) release = result;
+                        } finally {
+                            if (accepted) {
+                                profiler.statisticsOf(handler).record(System.nanoTime() - start);
+                                invoked++;
+                            }
+                        }
+                    }
+                } finally {
+                    profiler.end(recorded, event.getClass(), invoked);
+                }
+            }
+        } finally {
+            if (release != null) release.done();
+            else if (pool != null) pool.releaseCalled(event);
+        }
+    }
+
+    /**
+     * Invokes the specified handler if its predicate accepts the event. If the handler or its
+     * predicate fails, the failure is handled by {@link #onFailure} and the handler is invoked
+     * again right away or later, as the {@link ExceptionPolicy} decides
+     *
+     * @param handler The handler
+     * @param event The event
+     * @param attempt The number of times the handler was invoked for the event, plus one
+     * @param pool The pool of the event, or null if it isn't pooled
+     * @param release The release of the pooled event, or null if none was created yet
+     * @return The release of the pooled event. Created when a retry of a pooled event is scheduled.
+     * {@link #REJECTED} if the predicate of the handler didn't accept the event
+     */
+    private Release invoke(EventHandler handler, Object event, int attempt, EventPool<?> pool, Release release) {
+        for (; ; attempt++) {
+            try {
+                if (!handler.accepts(event)) return REJECTED;
+                handler.invoke(event);
+                return release;
+            } catch (IllegalAccessException e) {
+                throw new EventListenerException("One of the event listener methods isn't accessible");
+            } catch (InvocationTargetException e) {
+                long delay = onFailure(handler, event, e.getCause(), attempt);
+                if (delay < 0) return release;
+                if (delay > 0) return scheduleRetry(handler, event, attempt + 1, delay, pool, release);
+            }
+        }
+    }
+
+    /**
+     * Invokes the specified handler again once the delay passed, on the {@link DelayScheduler}
+     *
+     * @param handler The failed handler
+     * @param event The event
+     * @param attempt The number of times the handler was invoked for the event, plus one
+     * @param delay The number of milliseconds to wait
+     * @param pool The pool of the event, or null if it isn't pooled
+     * @param release The release of the pooled event, or null if none was created yet
+     * @return The release of the pooled event, or null if it isn't pooled
+     */
+    private Release scheduleRetry(EventHandler handler, Object event, int attempt, long delay,
+                                  EventPool<?> pool, Release release) {
+        if (pool != null) {
+            if (release == null) release = new Release(pool, event);
+            release.pending.incrementAndGet();
+        }
+        Release scheduled = release;
+        pendingDelayed.incrementAndGet();
+        DelayScheduler.schedule(() -> {
+            pendingDelayed.decrementAndGet();
+            try {
+                invoke(handler, event, attempt, pool, scheduled);
+            } catch (EventListenerException e) {
+                // there is no caller to throw to, but the scheduler must survive
+                e.printStackTrace();
+            } finally {
+                if (scheduled != null) scheduled.done();
+            }
+        }, delay);
+        return release;
+    }
+
+    /**
+     * Counts and reports a failed handler, then asks the {@link ExceptionPolicy} of the
+     * {@link EventBus} what to do
+     *
+     * @param handler The failed handler
+     * @param event The event
+     * @param cause The exception thrown by the handler
+     * @param attempt The number of times the handler was invoked for the event
+     * @return The number of milliseconds to wait before invoking the handler again, or -1
+     * if it shouldn't be invoked again
+     * @throws EventListenerException If the policy aborts calling the event
+     */
+    long onFailure(EventHandler handler, Object event, Throwable cause, int attempt) {
+        Object key = handler.getKey();
+        AtomicLong count = failures.get(key);
+        if (count == null) {
+            AtomicLong created = new AtomicLong();
+            count = failures.putIfAbsent(key, created);
+            if (count == null) count = created;
+        }
+        count.incrementAndGet();
+        if (event instanceof ListenerErrorEvent) {
+            // a failing error handler isn't reported again
+            cause.printStackTrace();
+            return -1;
+        }
+        ListenerErrorEvent error = new ListenerErrorEvent(bus, event, handler.getListener(), handler.getMethod(), cause, attempt);
+        boolean reported = report(error);
+        ExceptionPolicy policy = bus.exceptionPolicy;
+        ExceptionPolicy.Resolution resolution = policy.onException(error);
+        if (resolution == ExceptionPolicy.Resolution.ABORT)
+            throw new EventListenerException("One of the event listeners had an uncaught exception", cause);
+        if (!reported) cause.printStackTrace();
+        return resolution == ExceptionPolicy.Resolution.RETRY ? Math.max(0, policy.getRetryDelay(error)) : -1;
+    }
+
+    /**
+     * Forgets the failures of the event methods of the specified unregistered listener. The
+     * failures of an event method are kept while another registered listener has it
+     *
+     * @param listener The unregistered listener
+     */
+    void forgetFailures(Object listener) {
+        if (failures.isEmpty()) return;
+        for (Method method : listener.getClass().getMethods()) {
+            if (!failures.containsKey(method)) continue;
+            boolean shared = false;
+            for (Object other : bus.registered) {
+                if (method.getDeclaringClass().isInstance(other)) {
+                    shared = true;
+                    break;
+                }
+            }
+            if (!shared) failures.remove(method);
+        }
+    }
+
+    /**
+     * Invokes the handlers requiring a {@link ListenerErrorEvent}
+     *
+     * @param error The failure
+     * @return Whether if any handler required the failure
+     */
+    private boolean report(ListenerErrorEvent error) {
+        boolean reported = false;
+        for (EventHandler handler : getTable().getHandlers(ListenerErrorEvent.class).select(error)) {
+            if (invoke(handler, error, 1, null, null) != REJECTED) reported = true;
+        }
+        return reported;
+    }
+
+    /**
+     * @return The current {@link DispatchTable}, or null if the table was invalidated and no
+     * event was called since. Unlike {@link #getTable()}, a new table isn't created
+     */
+    DispatchTable peekTable() {
+        return table;
+    }
+
+    /**
+     * @return The current {@link DispatchTable}. If the table was invalidated, a new
+     * one is created from the registered listeners and subscribed consumers
+     */
+    DispatchTable getTable() {
+        DispatchTable table = this.table;
+        if (table != null) return table;
+        synchronized (this) {
+            if (this.table == null)
+                this.table = new DispatchTable(bus.registered, bus.subscriptions, bus.annotations);
+            return this.table;
+        }
+    }
+
+    /**
+     * Creates a new {@link DispatchTable} right away and replaces the current one. The event
+     * classes resolved by the current table are resolved before the new table is published,
+     * so calls don't resolve them again. Events called on other threads in the meantime keep
+     * using the current table; every call uses either the current table or the new one.
+     * The annotations of the {@link EventBus} are only replaced once the new table was
+     * created, so an invalid {@link me.brokenearthdev.eventbus.annotations.EventFilter}
+     * leaves the {@link EventBus} unchanged
+     *
+     * @param annotations The event annotations of the new table
+     */
+    synchronized void rebuild(List<Class<? extends Annotation>> annotations) {
+        DispatchTable previous = this.table;
+        DispatchTable table = new DispatchTable(bus.registered, bus.subscriptions, annotations);
+        if (previous != null) table.resolveLike(previous);
+        bus.annotations = annotations;
+        this.table = table;
+    }
+
+    /**
+     * Discards the current {@link DispatchTable}. Must be called whenever the registered
+     * listeners, the subscribed consumers or the event annotation change
+     */
+    synchronized void invalidate() {
+        table = null;
+    }
+
+    /**
+     * Checks whether if the event class is delayed (annotated with {@link DelayedEvent})
+     * or not
+     *
+     * @param class_ The class to check if it is delayed (annotated with {@link DelayedEvent)
+     * @return Whether if the event class is annotated with {@link DelayedEvent}
+     */
+    private static boolean isDelayed(Class class_) {
+        return class_.isAnnotationPresent(DelayedEvent.class);
+    }
+
+    /**
+     * Gets the delay for the specified event class. If the specified event class
+     * is not annotated with {@link DelayedEvent} or not {@link #isDelayed(Class)},
+     * the method will return 0.
+     *
+     * @param class_ The class to retrieve its delay
+     * @return The method will return 0 if the event class is not annotated with
+     * {@link DelayedEvent} or will return {@link DelayedEvent#value()} if it is
+     * annotated with {@link DelayedEvent}
+     */
+    private static int getDelay(Class class_) {
+        return (!isDelayed(class_)) ? 0 : ((DelayedEvent) class_.getAnnotation(DelayedEvent.class)).value();
+    }
+
+    /**
+     * Releases a pooled event once its dispatch and every retry scheduled for it finished
+     */
+    private static final class Release {
+
+        /**
+         * The number of unfinished dispatches and retries
+         */
+        final AtomicInteger pending = new AtomicInteger(1);
+
+        private final EventPool<?> pool;
+        private final Object event;
+
+        private Release(EventPool<?> pool, Object event) {
+            this.pool = pool;
+            this.event = event;
+        }
+
+        /**
+         * Called when the dispatch or a retry finished
+         */
+        void done() {
+            if (pending.decrementAndGet() == 0) pool.releaseCalled(event);
+        }
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.utils.Predicate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+
+/**
+ * Something the {@link EventCaller} invokes for an event: an event method of a registered
+ * listener or a subscribed consumer. Handlers are created by a {@link DispatchTable} and
+ * are numbered in the order they are invoked
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+abstract class EventHandler {
+
+    /**
+     * The event class the handler accepts, including its subclasses
+     */
+    final Class<?> eventType;
+
+    /**
+     * The field the event must match, or null
+     */
+    final FieldFilter fieldFilter;
+
+    /**
+     * The predicate the event must match, or null
+     */
+    final Predicate<Object> predicate;
+
+    /**
+     * The position of this handler in its {@link DispatchTable}. Handlers are invoked
+     * in this order
+     */
+    final int order;
+
+    EventHandler(Class<?> eventType, FieldFilter fieldFilter, Predicate<Object> predicate, int order) {
+        this.eventType = eventType;
+        this.fieldFilter = fieldFilter;
+        this.predicate = predicate;
+        this.order = order;
+    }
+
+    /**
+     * @param event The event
+     * @return Whether if the event matches the predicate of this handler. The field filter
+     * is checked by the {@link HandlerSet} instead
+     * @throws InvocationTargetException If the predicate threw an exception, which is
+     * handled like an exception thrown by the handler
+     */
+    final boolean accepts(Object event) throws InvocationTargetException {
+        try {
+            return predicate == null || predicate.test(event);
+        } catch (RuntimeException | Error e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * Invokes this handler
+     *
+     * @param event The event
+     * @throws IllegalAccessException If the event method isn't accessible
+     * @throws InvocationTargetException If the handler threw an exception
+     */
+    abstract void invoke(Object event) throws IllegalAccessException, InvocationTargetException;
+
+    /**
+     * @return The listener object, or the subscribed consumer
+     */
+    abstract Object getListener();
+
+    /**
+     * @return The event method, or null if this handler is a subscribed consumer
+     */
+    abstract Method getMethod();
+
+    /**
+     * @return The event method, or the subscribed consumer. Failures and statistics are
+     * counted by this key, so they are kept when the handlers are created again
+     */
+    final Object getKey() {
+        Method method = getMethod();
+        return method != null ? method : getListener();
+    }
+
+    /**
+     * An event method of a registered listener
+     */
+    static final class MethodHandler extends EventHandler {
+
+        final Object listener;
+        final SubscriberMethod subscriber;
+
+        MethodHandler(Object listener, SubscriberMethod subscriber, int order) {
+            super(subscriber.eventType, subscriber.fieldFilter, subscriber.predicate, order);
+            this.listener = listener;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        void invoke(Object event) throws IllegalAccessException, InvocationTargetException {
+            BiConsumer<Object, Object> invoker = subscriber.invoker;
+            if (invoker == null) {
+                subscriber.method.invoke(listener, event);
+                return;
+            }
+            try {
+                invoker.accept(listener, event);
+            } catch (Throwable e) {
+                // the generated invoker throws the exceptions of the event method as they are
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        @Override
+        Object getListener() {
+            return listener;
+        }
+
+        @Override
+        Method getMethod() {
+            return subscriber.method;
+        }
+    }
+
+    /**
+     * A subscribed consumer
+     */
+    static final class ConsumerHandler extends EventHandler {
+
+        final FunctionalSubscription subscription;
+
+        ConsumerHandler(FunctionalSubscription subscription, int order) {
+            super(subscription.eventType, null, subscription.predicate, order);
+            this.subscription = subscription;
+        }
+
+        @Override
+        void invoke(Object event) throws InvocationTargetException {
+            try {
+                subscription.consumer.accept(event);
+            } catch (RuntimeException | Error e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        @Override
+        Object getListener() {
+            return subscription.consumer;
+        }
+
+        @Override
+        Method getMethod() {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+import me.brokenearthdev.eventbus.utils.Supplier;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps released {@link PooledEvent}s of one event class so they can be acquired again
+ * instead of being created. To pool an event class, add a pool to the {@link EventBus}:
+ * <pre>
+ *     EVENT_BUS.addPool(MoveEvent.class, new EventPool&lt;&gt;(MoveEvent::new, 1024));
+ *
+ *     MoveEvent event = EVENT_BUS.acquire(MoveEvent.class);
+ *     event.x = x;
+ *     EVENT_BUS.callEvent(event); // event goes back to the pool
+ * </pre>
+ * Every platform thread keeps a few released events of its own, so acquiring and releasing
+ * on the same thread doesn't use any synchronization. Virtual threads (Java 21) are usually
+ * short-lived, so they don't. Other events are kept in a shared array split into stripes, so
+ * threads acquiring at the same time mostly use different slots. When the pool is full,
+ * released events are left to the garbage collector.
+ *
+ * In debug mode, the pool remembers every released event it keeps and throws
+ * {@link EventBusException} when such an event is called or released again. Debug mode is
+ * enabled by the constructor or for every pool by the {@code eventbus.pool.debug} system property.
+ *
+ * @param <E> The type of the pooled events
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public class EventPool<E extends PooledEvent> {
+
+    /**
+     * The maximum number of released events kept by each thread
+     */
+    private static final int LOCAL_CAPACITY = 16;
+
+    private final Supplier<E> factory;
+
+    /**
+     * The released events of each thread
+     */
+    private final ThreadLocal<Local> local = new ThreadLocal<Local>() {
+        @Override
+        protected Local initialValue() {
+            return new Local();
+        }
+    };
+
+    /**
+     * The released events shared by every thread. Empty slots are null
+     */
+    private final PoolSlots<E> shared;
+
+    /**
+     * The number of stripes the shared slots are split into, and the slots of each stripe
+     */
+    private final int stripes, stripeSize;
+
+    /**
+     * The released events while in debug mode, or null
+     */
+    private final Set<Object> released;
+
+    private final AtomicLong created = new AtomicLong();
+
+    /**
+     * @param factory Creates an event when the pool is empty
+     * @param capacity The maximum number of released events shared by every thread
+     * @param debug Whether if calling or releasing a released event should throw {@link EventBusException}
+     */
+    public EventPool(Supplier<E> factory, int capacity, boolean debug) {
+        Objects.requireNonNull(factory, "Parameter(s) can't be null");
+        if (capacity < 0)
+            throw new EventBusException("Capacity can't be negative");
+        this.factory = factory;
+        int stripes = 1;
+        while (stripes < Runtime.getRuntime().availableProcessors() && stripes * 2 <= capacity) stripes *= 2;
+        this.stripes = stripes;
+        this.stripeSize = (capacity + stripes - 1) / stripes;
+        this.shared = new PoolSlots<>(stripes * stripeSize);
+        this.released = debug ? Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>())) : null;
+    }
+
+    /**
+     * Creates a pool in debug mode if the {@code eventbus.pool.debug} system property is true
+     *
+     * @param factory Creates an event when the pool is empty
+     * @param capacity The maximum number of released events shared by every thread
+     */
+    public EventPool(Supplier<E> factory, int capacity) {
+        this(factory, capacity, Boolean.getBoolean("eventbus.pool.debug"));
+    }
+
+    /**
+     * @return A released event, or a new event if there are none
+     */
+    public E acquire() {
+        E event = VirtualThreads.isCurrent() ? null : local.get().pop();
+        if (event == null) {
+            int start = stripe() * stripeSize;
+            for (int i = 0, length = shared.length(); i < length && event == null; i++) {
+                event = shared.take((start + i) % length);
+            }
+        }
+        if (event == null) {
+            created.incrementAndGet();
+            return factory.get();
+        }
+        if (released != null) released.remove(event);
+        return event;
+    }
+
+    /**
+     * Resets the specified event and keeps it for {@link #acquire()}. The event mustn't be used
+     * after it was released
+     *
+     * @param event The event to release
+     */
+    public void release(E event) {
+        if (released != null && !released.add(event))
+            throw new EventBusException("Event " + event.getClass().getName() + " was released twice");
+        event.reset();
+        // the events kept by a virtual thread would be lost when it ends
+        if (!VirtualThreads.isCurrent() && local.get().push(event)) return;
+        int start = stripe() * stripeSize;
+        for (int i = 0, length = shared.length(); i < length; i++) {
+            if (shared.put((start + i) % length, event)) return;
+        }
+        // the pool is full and the event is left to the garbage collector, so it mustn't be remembered
+        if (released != null) released.remove(event);
+    }
+
+    /**
+     * @return Whether if the pool detects events used after they were released
+     */
+    public boolean isDebug() {
+        return released != null;
+    }
+
+    /**
+     * @return The number of events created because the pool was empty
+     */
+    public long getCreatedCount() {
+        return created.get();
+    }
+
+    /**
+     * Releases an event called on an {@link EventBus}
+     *
+     * @param event The event, which must be of type {@link E}
+     */
+    @SuppressWarnings("unchecked")
+    void releaseCalled(Object event) {
+        release((E) event);
+    }
+
+    /**
+     * Checks that the specified event wasn't released, if the pool is in debug mode
+     *
+     * @param event The event about to be called
+     */
+    void checkUsable(Object event) {
+        if (released != null && released.contains(event))
+            throw new EventBusException("Event " + event.getClass().getName() + " was used after it was released");
+    }
+
+    /**
+     * @return The stripe of the current thread
+     */
+    private int stripe() {
+        return (int) (Thread.currentThread().getId() & (stripes - 1));
+    }
+
+    /**
+     * The released events of one thread
+     */
+    private final class Local {
+
+        private final Object[] events = new Object[LOCAL_CAPACITY];
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        private E pop() {
+            if (size == 0) return null;
+            E event = (E) events[--size];
+            events[size] = null;
+            return event;
+        }
+
+        private boolean push(E event) {
+            if (size == events.length) return false;
+            events[size++] = event;
+            return true;
+        }
+    }
+
+}
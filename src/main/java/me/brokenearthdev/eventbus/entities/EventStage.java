@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+/**
+ * A stage is given every event called by an {@link EventBus} before the event methods
+ * are invoked. Stages are added using {@link EventBus#addStage(EventStage)} and are
+ * given the events in the order they were added. Cancelled events don't reach the stages.
+ *
+ * Stages are useful for things that need to see every event, such as writing the events
+ * to a journal. A stage should return quickly since it runs on the thread calling the event.
+ * If a stage throws an exception, the event won't be called.
+ *
+ * @param <T> The type parameter of the {@link EventBus}
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public interface EventStage<T> {
+
+    /**
+     * Called before the event methods of the specified event are invoked
+     *
+     * @param event The event that is being called
+     */
+    void onEvent(T event);
+
+    /**
+     * @return Whether if this stage keeps the events after {@link #onEvent(Object)} returned.
+     * Pooled events aren't released while such a stage is added; refer to
+     * {@link EventBus#addRetainer(Object)}
+     */
+    default boolean retainsEvents() {
+        return false;
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+/**
+ * Decides what happens when an event method or a subscribed consumer throws an exception.
+ * Every failure is first reported as a {@link ListenerErrorEvent}, then the policy of the
+ * {@link EventBus} decides whether if the remaining handlers still run. To set the policy,
+ * use {@link EventBus#setExceptionPolicy(ExceptionPolicy)}
+ * <ul>
+ *     <li>{@link #abort()} stops calling the event and throws an exception. This is the default policy</li>
+ *     <li>{@link #continueAndReport()} skips the failed handler and invokes the others</li>
+ *     <li>{@link #retry(int, long)} invokes the failed handler again after a backoff, without
+ *     making the thread calling the event wait</li>
+ * </ul>
+ * The policy is only consulted when a handler fails, so it doesn't slow down calling events.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public interface ExceptionPolicy {
+
+    /**
+     * What to do with a failed handler
+     */
+    enum Resolution {
+
+        /**
+         * Skip the failed handler and invoke the remaining handlers
+         */
+        CONTINUE,
+
+        /**
+         * Don't invoke the remaining handlers and throw an
+         * {@link me.brokenearthdev.eventbus.exceptions.EventListenerException}
+         */
+        ABORT,
+
+        /**
+         * Invoke the failed handler again
+         */
+        RETRY
+    }
+
+    /**
+     * Called on the thread calling the event after a handler failed and the failure was reported
+     *
+     * @param error The failure
+     * @return What to do with the failed handler
+     */
+    Resolution onException(ListenerErrorEvent error);
+
+    /**
+     * Called after {@link #onException(ListenerErrorEvent)} returned {@link Resolution#RETRY}.
+     * With a delay of 0, the failed handler is invoked again right away on the thread calling
+     * the event. Otherwise the remaining handlers are invoked first and the failed handler is
+     * invoked again on another thread once the delay passed, so it may see the event after
+     * events called later. A {@link ConfinedEventBus} only has one thread, so it refuses
+     * policies created by {@link #retry(int, long)} with a backoff and throws
+     * {@link me.brokenearthdev.eventbus.exceptions.EventBusException} if a delay is returned
+     *
+     * @param error The failure
+     * @return The number of milliseconds to wait before invoking the failed handler again
+     */
+    default long getRetryDelay(ListenerErrorEvent error) {
+        return 0;
+    }
+
+    /**
+     * @return A policy that stops calling the event when a handler fails
+     */
+    static ExceptionPolicy abort() {
+        return error -> Resolution.ABORT;
+    }
+
+    /**
+     * @return A policy that skips failed handlers and invokes the remaining handlers
+     */
+    static ExceptionPolicy continueAndReport() {
+        return error -> Resolution.CONTINUE;
+    }
+
+    /**
+     * Creates a policy that invokes a failed handler again. The first retry waits for the
+     * specified backoff, and every further retry waits twice as long as the one before, up to
+     * {@link Long#MAX_VALUE} milliseconds. The retries are scheduled like delayed events, so the
+     * thread calling the event doesn't wait for them (refer to {@link #getRetryDelay(ListenerErrorEvent)}).
+     * When the handler failed the specified number of times, it is skipped like with
+     * {@link #continueAndReport()}
+     *
+     * @param maxAttempts The maximum number of times a handler is invoked for one event
+     * @param backoffMillis The number of milliseconds to wait before the first retry
+     * @return The policy
+     */
+    static ExceptionPolicy retry(int maxAttempts, long backoffMillis) {
+        if (maxAttempts <= 0 || backoffMillis < 0)
+            throw new IllegalArgumentException("Attempts must be positive and backoff can't be negative");
+        return new RetryPolicy(maxAttempts, backoffMillis);
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+
+import java.lang.reflect.Field;
+
+/**
+ * A compiled {@link me.brokenearthdev.eventbus.annotations.EventFilter} comparing an event
+ * field with a value. Event handlers with a field filter on the same {@link Field} are put
+ * in the same hash index by {@link HandlerSet}
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+final class FieldFilter {
+
+    /**
+     * The compared field
+     */
+    final Field field;
+
+    /**
+     * The value the field must be equal to, boxed the same way {@link Field#get(Object)} boxes it
+     */
+    final Object expected;
+
+    /**
+     * @param eventType The event class required by the event method
+     * @param name The name of the field
+     * @param value The value the field must be equal to
+     */
+    FieldFilter(Class<?> eventType, String name, String value) {
+        this.field = findField(eventType, name);
+        this.expected = convert(field.getType(), value);
+    }
+
+    /**
+     * @param event The event
+     * @return The value of the field in the specified event
+     */
+    Object valueOf(Object event) {
+        try {
+            return field.get(event);
+        } catch (IllegalAccessException e) {
+            throw new EventBusException("Filter field " + field.getName() + " isn't accessible", e);
+        }
+    }
+
+    private static Field findField(Class<?> eventType, String name) {
+        for (Class<?> c = eventType; c != null; c = c.getSuperclass()) {
+            try {
+                Field field = c.getDeclaredField(name);
+                field.setAccessible(true);
+                return field;
+            } catch (NoSuchFieldException ignored) {
+                // look in the superclass
+            }
+        }
+        throw new EventBusException("Filter field " + name + " doesn't exist in " + eventType.getName());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object convert(Class<?> type, String value) {
+        try {
+            if (type == String.class) return value;
+            if (type == int.class || type == Integer.class) return Integer.valueOf(value);
+            if (type == long.class || type == Long.class) return Long.valueOf(value);
+            if (type == boolean.class || type == Boolean.class) return Boolean.valueOf(value);
+            if (type == double.class || type == Double.class) return Double.valueOf(value);
+            if (type == float.class || type == Float.class) return Float.valueOf(value);
+            if (type == short.class || type == Short.class) return Short.valueOf(value);
+            if (type == byte.class || type == Byte.class) return Byte.valueOf(value);
+            if ((type == char.class || type == Character.class) && value.length() == 1) return value.charAt(0);
+            if (type.isEnum()) return Enum.valueOf((Class) type, value);
+        } catch (IllegalArgumentException e) {
+            throw new EventBusException("Filter value " + value + " isn't a " + type.getName(), e);
+        }
+        throw new EventBusException("Can't filter on a field of " + type.getName());
+    }
+
+}
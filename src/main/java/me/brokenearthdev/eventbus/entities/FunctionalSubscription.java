@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.utils.Consumer;
+import me.brokenearthdev.eventbus.utils.Predicate;
+
+/**
+ * A {@link Consumer} subscribed to an event class using
+ * {@link EventBus#subscribe(Class, Predicate, Consumer)}
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+final class FunctionalSubscription {
+
+    /**
+     * The subscribed event class. The consumer accepts this class and its subclasses
+     */
+    final Class<?> eventType;
+
+    /**
+     * The predicate the event must match, or null
+     */
+    final Predicate<Object> predicate;
+
+    /**
+     * The subscribed consumer
+     */
+    final Consumer<Object> consumer;
+
+    FunctionalSubscription(Class<?> eventType, Predicate<Object> predicate, Consumer<Object> consumer) {
+        this.eventType = eventType;
+        this.predicate = predicate;
+        this.consumer = consumer;
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The handlers of one event class. Handlers filtering on an event field are put in a hash
+ * index of that field, so selecting the handlers of an event only looks at the handlers
+ * matching the event's field values instead of every handler of the event class
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+final class HandlerSet {
+
+    private static final EventHandler[] NO_HANDLERS = new EventHandler[0];
+    private static final Comparator<EventHandler> BY_ORDER = (a, b) -> Integer.compare(a.order, b.order);
+
+    /**
+     * A set without handlers
+     */
+    static final HandlerSet EMPTY = new HandlerSet(Collections.<EventHandler>emptyList());
+
+    /**
+     * The handlers without a field filter, in order
+     */
+    private final EventHandler[] unindexed;
+
+    /**
+     * The indexes of the handlers with a field filter, one per filtered field
+     */
+    private final FieldIndex[] indexes;
+
+    /**
+     * Every handler, in order
+     */
+    final EventHandler[] all;
+
+    /**
+     * @param handlers The handlers of the event class, in order
+     */
+    HandlerSet(List<EventHandler> handlers) {
+        List<EventHandler> unindexed = new ArrayList<>();
+        Map<Object, FieldIndex> indexes = new LinkedHashMap<>();
+        for (EventHandler handler : handlers) {
+            if (handler.fieldFilter == null) {
+                unindexed.add(handler);
+            } else {
+                indexes.computeIfAbsent(handler.fieldFilter.field, field -> new FieldIndex(handler.fieldFilter))
+                        .add(handler);
+            }
+        }
+        this.unindexed = unindexed.toArray(NO_HANDLERS);
+        this.indexes = indexes.values().toArray(new FieldIndex[0]);
+        this.all = handlers.toArray(NO_HANDLERS);
+    }
+
+    /**
+     * @param event The event
+     * @return The handlers matching the field filters of the specified event, in order.
+     * The returned array mustn't be modified
+     */
+    EventHandler[] select(Object event) {
+        if (indexes.length == 0) return unindexed;
+        EventHandler[] selected = unindexed;
+        List<EventHandler> merged = null;
+        for (FieldIndex index : indexes) {
+            EventHandler[] matched = index.byValue.get(index.filter.valueOf(event));
+            if (matched == null) continue;
+            if (selected.length == 0) {
+                selected = matched;
+                continue;
+            }
+            if (merged == null) {
+                merged = new ArrayList<>(selected.length + matched.length);
+                Collections.addAll(merged, selected);
+            }
+            Collections.addAll(merged, matched);
+        }
+        if (merged == null) return selected;
+        merged.sort(BY_ORDER);
+        return merged.toArray(NO_HANDLERS);
+    }
+
+    /**
+     * The handlers filtering on the same field, mapped by the value they expect
+     */
+    private static final class FieldIndex {
+
+        /**
+         * The filter of one of the handlers, used for reading the field
+         */
+        private final FieldFilter filter;
+
+        private final Map<Object, EventHandler[]> byValue = new HashMap<>();
+
+        private FieldIndex(FieldFilter filter) {
+            this.filter = filter;
+        }
+
+        private void add(EventHandler handler) {
+            EventHandler[] existing = byValue.get(handler.fieldFilter.expected);
+            EventHandler[] handlers;
+            if (existing == null) {
+                handlers = new EventHandler[]{handler};
+            } else {
+                handlers = new EventHandler[existing.length + 1];
+                System.arraycopy(existing, 0, handlers, 0, existing.length);
+                handlers[existing.length] = handler;
+            }
+            byValue.put(handler.fieldFilter.expected, handlers);
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The invocation count and latencies of one event method or subscribed consumer, recorded
+ * while profiling is enabled by {@link EventBusDiagnostics#setProfiling(boolean)}. Latencies
+ * are kept in a histogram of powers of two nanoseconds, so percentiles are rounded up to the
+ * next power of two
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public final class HandlerStatistics {
+
+    /**
+     * The name of the handler
+     */
+    private final String name;
+
+    private final LongAdder invocations = new LongAdder();
+
+    /**
+     * The number of invocations taking less than 2^(i + 1) nanoseconds, for each i. Every
+     * bucket is a {@link LongAdder}, so threads invoking the handler at the same time don't
+     * contend on one counter
+     */
+    private final LongAdder[] latencies = new LongAdder[63];
+
+    /**
+     * @param name The name of the handler. Refer to {@link #nameOf(EventHandler)}
+     */
+    HandlerStatistics(String name) {
+        this.name = name;
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records an invocation
+     *
+     * @param nanos The number of nanoseconds the invocation took
+     */
+    void record(long nanos) {
+        invocations.increment();
+        latencies[63 - Long.numberOfLeadingZeros(Math.max(nanos, 1))].increment();
+    }
+
+    /**
+     * @return The name of the handler, such as {@code com.example.Listener#onMove(MoveEvent)}
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The number of invocations recorded
+     */
+    public long getInvocationCount() {
+        return invocations.sum();
+    }
+
+    /**
+     * @param percentile The percentile, from 0 to 100
+     * @return The number of nanoseconds the specified percentage of the invocations took at
+     * most, rounded up to the next power of two, or 0 if no invocation was recorded
+     */
+    public long getLatencyPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        long[] counts = new long[latencies.length];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = latencies[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return i == 62 ? Long.MAX_VALUE : 1L << (i + 1);
+        }
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return name + " invocations=" + getInvocationCount() + " p50=" + getLatencyPercentile(50)
+                + "ns p99=" + getLatencyPercentile(99) + "ns max=" + getLatencyPercentile(100) + "ns";
+    }
+
+    /**
+     * @param handler A handler
+     * @return The name of the handler
+     */
+    static String nameOf(EventHandler handler) {
+        Method method = handler.getMethod();
+        if (method != null)
+            return method.getDeclaringClass().getName() + "#" + method.getName()
+                    + "(" + method.getParameterTypes()[0].getSimpleName() + ")";
+        Object consumer = handler.getListener();
+        return "consumer " + consumer.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(consumer))
+                + "(" + handler.eventType.getSimpleName() + ")";
+    }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+
+/**
+ * Creates the invokers of event methods. This version doesn't create any, so event methods
+ * are invoked through reflection; the multi-release JAR contains a version for Java 17 and
+ * later that generates an invoker for every event method as a hidden class
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+final class InvokerFactory {
+
+    private InvokerFactory() {
+    }
+
+    /**
+     * @param method An event method
+     * @return An invoker taking the listener object and the event, or null if the method must
+     * be invoked through reflection
+     */
+    static BiConsumer<Object, Object> create(Method method) {
+        return null;
+    }
+
+}
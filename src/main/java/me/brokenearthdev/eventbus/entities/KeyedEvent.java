@@ -0,0 +1,37 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.annotations.EventKey;
+
+/**
+ * An event that supplies its own key to a {@link KeyedEventCaller}. Events with equal
+ * keys (for example, events about the same account) are handled in the order they were
+ * called, while events with different keys may be handled in parallel.
+ *
+ * Instead of implementing this interface, an event class can annotate one of its fields
+ * with {@link EventKey}.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ * @see KeyedEventCaller
+ */
+public interface KeyedEvent {
+
+    /**
+     * @return The key of this event. Keys are compared using {@link Object#equals(Object)}
+     * and {@link Object#hashCode()}. A null key is allowed and is treated like any other key
+     */
+    Object getEventKey();
+
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.annotations.EventKey;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+
+import java.lang.reflect.Field;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Calls events on an {@link EventBus} in parallel while keeping the order of events that
+ * share the same key. Every event must supply a key, either by implementing {@link KeyedEvent}
+ * or by annotating one of its fields with {@link EventKey}. To call an event, use
+ * <pre>
+ *     KeyedEventCaller&lt;Event&gt; caller = new KeyedEventCaller&lt;&gt;(eventBus, 8);
+ *     caller.callEvent(eventObj);
+ * </pre>
+ * Keys are hashed onto a fixed number of lanes. Each lane has a lock-free queue and a single
+ * thread that takes events from the queue and calls them using {@link EventBus#callEvent(Object)}.
+ * Events with equal keys always end up in the same lane, so they are handled in the order
+ * they were passed to {@link #callEvent(Object)}. Events in different lanes are handled in
+ * parallel. Delayed events (annotated with {@link me.brokenearthdev.eventbus.annotations.DelayedEvent})
+ * are still scheduled by the {@link EventBus} and therefore aren't ordered.
+ *
+ * The number of events waiting in a lane can be retrieved with {@link #getQueueDepth(int)}.
+ * The lane threads are daemon threads and are stopped by {@link #shutdown()}.
+ *
+ * @param <T> The type parameter of the {@link EventBus}
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public class KeyedEventCaller<T> {
+
+    /**
+     * Used for naming the lane threads of every {@link KeyedEventCaller}
+     */
+    private static final AtomicInteger CALLER_COUNT = new AtomicInteger();
+
+    /**
+     * The {@link EventBus} initialized by the constructor. Events taken from the lanes are
+     * called on this {@link EventBus}
+     */
+    private final EventBus<T> bus;
+
+    /**
+     * The lanes. An event is added to the lane at the index computed by {@link #laneOf(Object)}
+     */
+    private final Lane[] lanes;
+
+    /**
+     * The {@link Field}s annotated with {@link EventKey}, mapped by their event class. Classes
+     * without such a field are mapped to {@link #NO_KEY}
+     */
+    private final ConcurrentHashMap<Class<?>, Object> keyFields = new ConcurrentHashMap<>();
+
+    /**
+     * Placeholder stored in {@link #keyFields} for event classes without an {@link EventKey} field
+     */
+    private static final Object NO_KEY = new Object();
+
+    /**
+     * The value of {@link Lane#depth} once the lane has stopped. Events can't be added to a
+     * lane in this state
+     */
+    private static final int CLOSED = Integer.MIN_VALUE;
+
+    /**
+     * Whether if {@link #shutdown()} was called
+     */
+    private volatile boolean shutdown;
+
+    /**
+     * This constructor requires the {@link EventBus} the events will be called on and the number
+     * of lanes. A lane thread is started for every lane
+     *
+     * @param bus The {@link EventBus} the events will be called on
+     * @param lanes The number of lanes. Must be positive. Usually, this is the number of
+     *              available processors
+     */
+    @SuppressWarnings("unchecked")
+    public KeyedEventCaller(EventBus<T> bus, int lanes) {
+        Objects.requireNonNull(bus, "Parameter(s) can't be null");
+        if (lanes <= 0)
+            throw new EventBusException("The number of lanes must be positive");
+        this.bus = bus;
+        this.lanes = (Lane[]) new KeyedEventCaller<?>.Lane[lanes];
+        int id = CALLER_COUNT.incrementAndGet();
+        for (int i = 0; i < lanes; i++) {
+            this.lanes[i] = new Lane("EventBus-keyed-" + id + "-lane-" + i);
+            this.lanes[i].start();
+        }
+    }
+
+    /**
+     * Creates a {@link KeyedEventCaller} with one lane for every available processor
+     *
+     * @param bus The {@link EventBus} the events will be called on
+     */
+    public KeyedEventCaller(EventBus<T> bus) {
+        this(bus, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Adds the specified event to the lane of its key. The event will be called on the
+     * {@link EventBus} after every event with the same key that was added before it.
+     * This method doesn't wait for the event to be called.
+     *
+     * @param event The event. Must implement {@link KeyedEvent} or have a field annotated
+     *              with {@link EventKey}, otherwise {@link EventBusException} is thrown
+     * @return This object
+     * @throws EventBusException If this caller was shut down. The event isn't called in that case
+     */
+    public KeyedEventCaller<T> callEvent(T event) {
+        Objects.requireNonNull(event, "Parameter(s) can't be null");
+        if (shutdown || !lanes[laneOf(getKey(event))].add(event))
+            throw new EventBusException("The keyed event caller is shut down");
+        return this;
+    }
+
+    /**
+     * @param key The key of an event
+     * @return The index of the lane events with the specified key are added to
+     */
+    public int laneOf(Object key) {
+        int hash = key == null ? 0 : key.hashCode();
+        hash ^= hash >>> 16;
+        return (hash & 0x7fffffff) % lanes.length;
+    }
+
+    /**
+     * @param event The event to get its key
+     * @return The value of {@link KeyedEvent#getEventKey()} or the value of the field
+     * annotated with {@link EventKey}
+     */
+    private Object getKey(T event) {
+        if (event instanceof KeyedEvent)
+            return ((KeyedEvent) event).getEventKey();
+        Object field = keyFields.computeIfAbsent(event.getClass(), KeyedEventCaller::findKeyField);
+        if (field == NO_KEY)
+            throw new EventBusException("Event " + event.getClass().getName() + " doesn't have a key");
+        try {
+            return ((Field) field).get(event);
+        } catch (IllegalAccessException e) {
+            throw new EventBusException("Event key field isn't accessible", e);
+        }
+    }
+
+    /**
+     * @param class_ The event class
+     * @return The field in the event class (or its superclass or above) annotated with
+     * {@link EventKey}, or {@link #NO_KEY} if there is no such field
+     */
+    private static Object findKeyField(Class<?> class_) {
+        for (Class<?> c = class_; c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (field.isAnnotationPresent(EventKey.class)) {
+                    field.setAccessible(true);
+                    return field;
+                }
+            }
+        }
+        return NO_KEY;
+    }
+
+    /**
+     * @return The number of lanes
+     */
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * @param lane The index of the lane
+     * @return The number of events waiting in the specified lane
+     */
+    public int getQueueDepth(int lane) {
+        return lanes[lane].depth();
+    }
+
+    /**
+     * @return The number of events waiting in every lane, indexed by lane
+     */
+    public int[] getQueueDepths() {
+        int[] depths = new int[lanes.length];
+        for (int i = 0; i < lanes.length; i++) {
+            depths[i] = lanes[i].depth();
+        }
+        return depths;
+    }
+
+    /**
+     * @param lane The index of the lane
+     * @return The number of events the specified lane has called so far
+     */
+    public long getCalledCount(int lane) {
+        return lanes[lane].called.get();
+    }
+
+    /**
+     * Stops accepting events. Events that were already added are still called,
+     * after which the lane threads stop. {@link #callEvent(Object)} throws an
+     * {@link EventBusException} from now on. Use {@link #awaitTermination(long, TimeUnit)}
+     * to wait for them
+     */
+    public void shutdown() {
+        shutdown = true;
+        for (Lane lane : lanes) {
+            LockSupport.unpark(lane);
+        }
+    }
+
+    /**
+     * Waits for the lane threads to stop after {@link #shutdown()} was called
+     *
+     * @param timeout The maximum time to wait
+     * @param unit The unit of the timeout
+     * @return Whether if every lane thread has stopped
+     * @throws InterruptedException If the current thread was interrupted while waiting
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Lane lane : lanes) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0 && lane.isAlive()) return false;
+            lane.join(Math.max(remaining, 1));
+            if (lane.isAlive()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * A lane is a queue of events with a single thread calling them in order
+     */
+    private class Lane extends Thread {
+
+        /**
+         * The events waiting to be called. Any thread can add events but only this lane
+         * takes them
+         */
+        private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+
+        /**
+         * The number of events in {@link #queue}, counting events that are about to be added.
+         * The lane sets it to {@link #CLOSED} before it stops, and only if it is 0, so an event
+         * is either added before the lane stops or rejected
+         */
+        private final AtomicInteger depth = new AtomicInteger();
+
+        /**
+         * The number of events this lane has called
+         */
+        private final AtomicLong called = new AtomicLong();
+
+        /**
+         * Whether if this lane is parked, waiting for events
+         */
+        private volatile boolean waiting;
+
+        private Lane(String name) {
+            super(name);
+            setDaemon(true);
+        }
+
+        /**
+         * Adds an event to this lane and wakes the lane up if it is waiting
+         *
+         * @param event The event to add
+         * @return Whether if the event was added. False if this lane has stopped
+         */
+        private boolean add(T event) {
+            int current;
+            do {
+                current = depth.get();
+                if (current == CLOSED) return false;
+            } while (!depth.compareAndSet(current, current + 1));
+            queue.offer(event);
+            if (waiting) LockSupport.unpark(this);
+            return true;
+        }
+
+        /**
+         * @return The number of events in this lane
+         */
+        private int depth() {
+            int current = depth.get();
+            return current == CLOSED ? 0 : current;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                T event = queue.poll();
+                if (event == null) {
+                    if (shutdown) {
+                        if (depth.compareAndSet(0, CLOSED)) return;
+                        // an event was counted but isn't offered yet, it's polled on the next pass
+                        Thread.yield();
+                        continue;
+                    }
+                    waiting = true;
+                    if (queue.isEmpty() && !shutdown) LockSupport.park(this);
+                    waiting = false;
+                    continue;
+                }
+                depth.decrementAndGet();
+                try {
+                    bus.callEvent(event);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+                called.incrementAndGet();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import java.lang.reflect.Method;
+
+/**
+ * Reported when an event method or a subscribed consumer throws an exception. To handle
+ * failures, register a listener with an event method requiring this event:
+ * <pre>
+ *     &#64;SubscribeEvent
+ *     public void onError(ListenerErrorEvent error) {
+ *         logger.warn("Listener failed: " + error.getMethod(), error.getCause());
+ *     }
+ * </pre>
+ * The event is invoked directly on the handlers of the {@link EventBus} the failed handler
+ * is registered to, without stages or delays. If no handler requires it, the stack trace of
+ * the failure is printed instead. A handler of this event that fails itself isn't reported
+ * again.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ * @see ExceptionPolicy
+ */
+public class ListenerErrorEvent {
+
+    private final EventBus<?> bus;
+    private final Object event;
+
+    /**
+     * The listener object or the subscribed consumer that failed
+     */
+    private final Object listener;
+
+    /**
+     * The failed event method, or null if a consumer failed
+     */
+    private final Method method;
+
+    private final Throwable cause;
+
+    /**
+     * The number of times the handler was invoked for the event, starting with 1
+     */
+    private final int attempt;
+
+    ListenerErrorEvent(EventBus<?> bus, Object event, Object listener, Method method, Throwable cause, int attempt) {
+        this.bus = bus;
+        this.event = event;
+        this.listener = listener;
+        this.method = method;
+        this.cause = cause;
+        this.attempt = attempt;
+    }
+
+    /**
+     * @return The {@link EventBus} the event was called on
+     */
+    public EventBus<?> getBus() {
+        return bus;
+    }
+
+    /**
+     * @return The event the handler failed on
+     */
+    public Object getEvent() {
+        return event;
+    }
+
+    /**
+     * @return The listener object, or the subscribed consumer if a consumer failed
+     */
+    public Object getListener() {
+        return listener;
+    }
+
+    /**
+     * @return The event method that failed, or null if a consumer failed
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * @return The exception thrown by the handler
+     */
+    public Throwable getCause() {
+        return cause;
+    }
+
+    /**
+     * @return The number of times the handler was invoked for the event, starting with 1
+     */
+    public int getAttempt() {
+        return attempt;
+    }
+
+}
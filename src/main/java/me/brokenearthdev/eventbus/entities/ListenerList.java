@@ -1,73 +1,109 @@
-/*
- * Copyright 2018 github.com/BrokenEarthDev
- * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
- * with the License. You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
- * governing permissions and limitations under the License.
- */
-package me.brokenearthdev.eventbus.entities;
-
-import java.lang.annotation.Annotation;
-import java.util.List;
-import java.util.Objects;
-
-/**
- * This class contains a list of cancelled events, registered
- * listeners and the {@link EventBus}'s event annotation
- *
- * @param <T> The type parameter of {@link EventBus}.
- *
- * @author BrokenEarth // BrokenEarthDev
- * @version 1.0
- * @since 4.0
- * @see EventBus
- */
-public class ListenerList<T> {
-
-    /**
-     * The {@link EventBus} initialized by the constructors. Used
-     * for getting cancelled events, registered listeners, and
-     * event method annotations
-     */
-    private EventBus<T> bus;
-
-    /**
-     * This constructor requires an {@link EventBus} to get
-     * the cancelled events, registered listeners, and its event method
-     * annotation
-     *
-     * @param bus The {@link EventBus} required. If
-     *            the specified {@link EventBus} is null,
-     *            {@link NullPointerException} is thrown
-     */
-    public ListenerList(EventBus<T> bus) {
-        Objects.requireNonNull(bus, "Parameter(s) can't be null");
-        this.bus = bus;
-    }
-
-    /**
-     * @return The cancelled events in the initialized {@link EventBus}
-     */
-    public List<Class<?>> getCancelledEvents() {
-        return bus.cancelled;
-    }
-
-    /**
-     * @return The registered listeners in the initialized {@link EventBus}
-     */
-    public List<Object> getRegisteredListeners() {
-        return bus.registered;
-    }
-
-    /**
-     * @return The event method annotation in the initialized {@link EventBus}
-     */
-    public Class<? extends Annotation> getAnnotation() {
-        return bus.annotation;
-    }
-
-}
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.utils.Consumer;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class contains a list of cancelled events, registered
+ * listeners and the {@link EventBus}'s event annotation
+ *
+ * @param <T> The type parameter of {@link EventBus}.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.0
+ * @see EventBus
+ */
+public class ListenerList<T> {
+
+    /**
+     * The {@link EventBus} initialized by the constructors. Used
+     * for getting cancelled events, registered listeners, and
+     * event method annotations
+     */
+    private EventBus<T> bus;
+
+    /**
+     * This constructor requires an {@link EventBus} to get
+     * the cancelled events, registered listeners, and its event method
+     * annotation
+     *
+     * @param bus The {@link EventBus} required. If
+     *            the specified {@link EventBus} is null,
+     *            {@link NullPointerException} is thrown
+     */
+    public ListenerList(EventBus<T> bus) {
+        Objects.requireNonNull(bus, "Parameter(s) can't be null");
+        this.bus = bus;
+    }
+
+    /**
+     * @return The cancelled events in the initialized {@link EventBus}
+     */
+    public List<Class<?>> getCancelledEvents() {
+        return bus.cancelled;
+    }
+
+    /**
+     * @return The registered listeners in the initialized {@link EventBus}. The returned
+     * list can't be modified; use {@link EventBus#register(Object)} and
+     * {@link EventBus#unregister(Object)} instead
+     */
+    public List<Object> getRegisteredListeners() {
+        return Collections.unmodifiableList(bus.registered);
+    }
+
+    /**
+     * @param method An event method
+     * @return The number of times the event method threw an exception, for any listener
+     * object of its class
+     * @see ExceptionPolicy
+     */
+    public long getFailureCount(Method method) {
+        AtomicLong count = bus.caller.failures.get(method);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * @param consumer A subscribed consumer
+     * @return The number of times the consumer threw an exception
+     * @see ExceptionPolicy
+     */
+    public long getFailureCount(Consumer<?> consumer) {
+        AtomicLong count = bus.caller.failures.get(consumer);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * @return The first event method annotation in the initialized {@link EventBus}
+     */
+    public Class<? extends Annotation> getAnnotation() {
+        return bus.annotations.get(0);
+    }
+
+    /**
+     * @return The event method annotations in the initialized {@link EventBus}. The
+     * returned list can't be modified
+     */
+    public List<Class<? extends Annotation>> getAnnotations() {
+        return bus.annotations;
+    }
+
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+/**
+ * An event that can be reused through an {@link EventPool} instead of being created for
+ * every call. Pooled events are acquired using {@link EventBus#acquire(Class)} and go back to
+ * their pool once {@link EventBus#callEvent(Object)} invoked every event method, so event
+ * methods, stages and consumers mustn't keep a pooled event after they return.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ * @see EventPool
+ */
+public interface PooledEvent {
+
+    /**
+     * Clears the state of this event before it goes back to its pool. After this method
+     * returns, the event must look like a newly created event
+     */
+    void reset();
+
+}
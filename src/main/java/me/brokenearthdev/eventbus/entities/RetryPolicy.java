@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+/**
+ * The {@link ExceptionPolicy} created by {@link ExceptionPolicy#retry(int, long)}. Its backoff
+ * is known before any handler fails, so a {@link ConfinedEventBus} can refuse it
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+final class RetryPolicy implements ExceptionPolicy {
+
+    /**
+     * The maximum number of times a handler is invoked for one event
+     */
+    private final int maxAttempts;
+
+    /**
+     * The number of milliseconds to wait before the first retry
+     */
+    final long backoffMillis;
+
+    RetryPolicy(int maxAttempts, long backoffMillis) {
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    @Override
+    public Resolution onException(ListenerErrorEvent error) {
+        return error.getAttempt() >= maxAttempts ? Resolution.CONTINUE : Resolution.RETRY;
+    }
+
+    @Override
+    public long getRetryDelay(ListenerErrorEvent error) {
+        int shift = Math.min(error.getAttempt() - 1, 62);
+        return Math.min(Long.MAX_VALUE >> shift, backoffMillis) << shift;
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A process-wide cache of the event methods of listener classes. The event methods of a
+ * listener class are searched once per event annotation and then shared by every
+ * {@link EventBus}, so creating an {@link EventBus} or registering another instance of a
+ * known listener class doesn't search the methods again.
+ *
+ * The cache is stored in a {@link ClassValue} of the listener class, so it doesn't keep
+ * the listener class (or its class loader) from being unloaded. Entries are keyed by the
+ * event annotation; when {@link EventBusModifier#setEventAnnotation(Class)} changes the
+ * annotation of an {@link EventBus}, the {@link EventBus} looks up the entry of the new
+ * annotation and never sees methods found for the old one. An {@link EventBus} with several
+ * event annotations merges the entries of its annotations.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+final class SubscriberCache {
+
+    /**
+     * The event methods of every listener class, mapped by the event annotation
+     */
+    private static final ClassValue<ConcurrentMap<Class<? extends Annotation>, SubscriberMethod[]>> CACHE =
+            new ClassValue<ConcurrentMap<Class<? extends Annotation>, SubscriberMethod[]>>() {
+                @Override
+                protected ConcurrentMap<Class<? extends Annotation>, SubscriberMethod[]> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>(2);
+                }
+            };
+
+    private SubscriberCache() {
+    }
+
+    /**
+     * @param listenerClass The class of a listener
+     * @param annotation The event annotation
+     * @return The event methods of the listener class. The returned array mustn't be modified
+     */
+    static SubscriberMethod[] getSubscribers(Class<?> listenerClass, Class<? extends Annotation> annotation) {
+        ConcurrentMap<Class<? extends Annotation>, SubscriberMethod[]> byAnnotation = CACHE.get(listenerClass);
+        SubscriberMethod[] subscribers = byAnnotation.get(annotation);
+        if (subscribers == null) {
+            subscribers = findSubscribers(listenerClass, annotation);
+            SubscriberMethod[] existing = byAnnotation.putIfAbsent(annotation, subscribers);
+            if (existing != null) subscribers = existing;
+        }
+        return subscribers;
+    }
+
+    /**
+     * @param listenerClass The class of a listener
+     * @param annotations The event annotations
+     * @return The event methods of the listener class annotated with any of the annotations,
+     * in the order of the annotations. A method annotated with several of them is only
+     * returned once. The returned array mustn't be modified
+     */
+    static SubscriberMethod[] getSubscribers(Class<?> listenerClass, List<Class<? extends Annotation>> annotations) {
+        if (annotations.size() == 1) return getSubscribers(listenerClass, annotations.get(0));
+        List<SubscriberMethod> subscribers = new ArrayList<>();
+        List<Method> methods = new ArrayList<>();
+        for (Class<? extends Annotation> annotation : annotations) {
+            for (SubscriberMethod subscriber : getSubscribers(listenerClass, annotation)) {
+                if (methods.contains(subscriber.method)) continue;
+                methods.add(subscriber.method);
+                subscribers.add(subscriber);
+            }
+        }
+        return subscribers.toArray(new SubscriberMethod[0]);
+    }
+
+    /**
+     * Searches the event methods of the specified listener class
+     *
+     * @param listenerClass The class of a listener
+     * @param annotation The event annotation
+     * @return The event methods of the listener class
+     */
+    private static SubscriberMethod[] findSubscribers(Class<?> listenerClass, Class<? extends Annotation> annotation) {
+        List<SubscriberMethod> subscribers = new ArrayList<>();
+        for (Method method : listenerClass.getMethods()) {
+            if (isEventMethod(method, annotation)) {
+                try {
+                    // skips the access check on every invocation
+                    method.setAccessible(true);
+                } catch (RuntimeException ignored) {
+                    // the method is invoked with the access check
+                }
+                subscribers.add(new SubscriberMethod(method));
+            }
+        }
+        return subscribers.toArray(new SubscriberMethod[0]);
+    }
+
+    /**
+     * Specifies whether if the method is an event method
+     *
+     * @param method The method that'll be checked if it is an event method
+     * @param annotation The event annotation
+     * @return Whether if the method is public, not static, has one parameter and is
+     * annotated with the event annotation
+     */
+    private static boolean isEventMethod(Method method, Class<? extends Annotation> annotation) {
+        return Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers()) &&
+                method.getParameterCount() == 1 && method.getAnnotation(annotation) != null;
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.annotations.EventFilter;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+import me.brokenearthdev.eventbus.utils.Predicate;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+
+/**
+ * An event method found in a listener class, together with the event class it requires
+ * and its compiled {@link EventFilter}. Instances are created once per listener class and
+ * event annotation by {@link SubscriberCache} and shared by every {@link EventBus}
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+final class SubscriberMethod {
+
+    /**
+     * The event method
+     */
+    final Method method;
+
+    /**
+     * The class of the only parameter of {@link #method}. The method is invoked when
+     * this class or one of its subclasses is called
+     */
+    final Class<?> eventType;
+
+    /**
+     * The field the event must match, or null
+     */
+    final FieldFilter fieldFilter;
+
+    /**
+     * The predicate the event must match, or null
+     */
+    final Predicate<Object> predicate;
+
+    /**
+     * Invokes {@link #method} with the listener object and the event, or null if the
+     * method is invoked through reflection
+     */
+    final BiConsumer<Object, Object> invoker;
+
+    SubscriberMethod(Method method) {
+        this.method = method;
+        this.invoker = InvokerFactory.create(method);
+        this.eventType = method.getParameterTypes()[0];
+        EventFilter filter = method.getAnnotation(EventFilter.class);
+        this.fieldFilter = filter == null || filter.field().isEmpty() ? null
+                : new FieldFilter(eventType, filter.field(), filter.value());
+        this.predicate = filter == null || filter.predicate() == Predicate.class ? null
+                : createPredicate(filter.predicate());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate<Object> createPredicate(Class<? extends Predicate> type) {
+        try {
+            Constructor<? extends Predicate> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new EventBusException("Couldn't create filter predicate " + type.getName(), e);
+        }
+    }
+
+}
@@ -0,0 +1,584 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.journal;
+
+import me.brokenearthdev.eventbus.entities.EventBus;
+import me.brokenearthdev.eventbus.entities.EventStage;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * An {@link EventStage} that appends every called event to a log on the disk before the
+ * event methods are invoked, so that events can be replayed after a crash. This includes
+ * delayed events which would otherwise be lost while waiting. To journal the events of an
+ * {@link EventBus}, use
+ * <pre>
+ *     EventJournal&lt;Event&gt; journal = new EventJournal&lt;&gt;(directory, serializer);
+ *     long offset = journal.replay(lastOffset, eventBus);
+ *     eventBus.addStage(journal);
+ * </pre>
+ * The log is split into segment files of {@link JournalOptions#getSegmentSize()} bytes which
+ * are memory-mapped. Appending an event serializes it and copies the bytes into the mapped
+ * segment; the calling thread never waits for the disk. Forcing the segments to the disk
+ * is done by a background thread according to the {@link SyncPolicy}. When a segment is
+ * full, a new one is created and old segments are deleted according to
+ * {@link JournalOptions#getMaxSegments()}.
+ *
+ * Every event has an offset which is returned by {@link #append(Object)}. Offsets increase
+ * with every appended event and can be passed to {@link #replay(long, EventBus)} to replay
+ * the events starting at that offset.
+ *
+ * @param <T> The type parameter of the {@link EventBus}
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public class EventJournal<T> implements EventStage<T>, Closeable {
+
+    /**
+     * The size of the header written before every event. The header contains the
+     * length of the serialized event and its CRC32 checksum
+     */
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * Written instead of a length when the rest of a segment is unused
+     */
+    private static final int END_OF_SEGMENT = -1;
+
+    /**
+     * The file extension of the segment files. Segment files are named after the offset
+     * of their first byte
+     */
+    private static final String SUFFIX = ".log";
+
+    /**
+     * The directory containing the segment files
+     */
+    private final Path directory;
+
+    /**
+     * The serializer used for writing and reading the events
+     */
+    private final EventSerializer<T> serializer;
+
+    /**
+     * The options of this journal
+     */
+    private final int segmentSize, maxSegments, maxEventSize, syncBatchSize;
+    private final long syncIntervalNanos;
+    private final SyncPolicy syncPolicy;
+
+    /**
+     * The segments, oldest first. The last segment is the one events are appended to
+     */
+    private final List<Segment> segments = new ArrayList<>();
+
+    /**
+     * The segments written to since they were last forced
+     */
+    private final List<Segment> dirty = new ArrayList<>();
+
+    /**
+     * The number of events appended since the segments were last forced
+     */
+    private int unsynced;
+
+    /**
+     * The number of events appended since the journal was created
+     */
+    private long appended;
+
+    /**
+     * The offset the next event will be appended at
+     */
+    private volatile long endOffset;
+
+    /**
+     * Whether if {@link #close()} was called
+     */
+    private volatile boolean closed;
+
+    /**
+     * The thread forcing the segments to the disk. Null when using {@link SyncPolicy#NEVER}
+     */
+    private final Thread flusher;
+
+    /**
+     * Buffer and checksum used for serializing events on the current thread
+     */
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Set on a thread while it replays events, so that the replayed events aren't
+     * appended again
+     */
+    private final ThreadLocal<Boolean> replaying = new ThreadLocal<>();
+
+    /**
+     * Opens the journal in the specified directory using the specified options. The
+     * directory is created if it doesn't exist. If the directory already contains segments,
+     * new events are appended after the last complete event in it
+     *
+     * @param directory The directory containing the segment files
+     * @param serializer The serializer used for writing and reading the events
+     * @param options The options
+     */
+    public EventJournal(Path directory, EventSerializer<T> serializer, JournalOptions options) {
+        Objects.requireNonNull(directory, "Parameter(s) can't be null");
+        Objects.requireNonNull(serializer, "Parameter(s) can't be null");
+        Objects.requireNonNull(options, "Parameter(s) can't be null");
+        if (options.getMaxEventSize() > options.getSegmentSize() - HEADER_SIZE)
+            throw new EventBusException("Segment size must be bigger than the max event size");
+        this.directory = directory;
+        this.serializer = serializer;
+        this.segmentSize = options.getSegmentSize();
+        this.maxSegments = options.getMaxSegments();
+        this.maxEventSize = options.getMaxEventSize();
+        this.syncPolicy = options.getSyncPolicy();
+        this.syncBatchSize = options.getSyncBatchSize();
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(options.getSyncIntervalMillis());
+        try {
+            Files.createDirectories(directory);
+            openSegments();
+        } catch (IOException e) {
+            throw new EventBusException("Couldn't open the journal in " + directory, e);
+        }
+        if (syncPolicy == SyncPolicy.NEVER) {
+            flusher = null;
+        } else {
+            flusher = new Thread(this::flush, "EventJournal-flusher-" + directory.getFileName());
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+    }
+
+    /**
+     * Opens the journal in the specified directory using the default {@link JournalOptions}
+     *
+     * @param directory The directory containing the segment files
+     * @param serializer The serializer used for writing and reading the events
+     */
+    public EventJournal(Path directory, EventSerializer<T> serializer) {
+        this(directory, serializer, new JournalOptions());
+    }
+
+    /**
+     * Maps the existing segment files and finds the end of the last segment. If there
+     * are no segment files, the first segment is created
+     *
+     * @throws IOException If a segment couldn't be opened
+     */
+    private void openSegments() throws IOException {
+        List<Long> bases = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    bases.add(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())));
+                } catch (NumberFormatException ignored) {
+                    // not a segment file
+                }
+            }
+        }
+        bases.sort(null);
+        for (long base : bases) {
+            segments.add(new Segment(base, 0));
+        }
+        if (segments.isEmpty()) {
+            segments.add(new Segment(0, segmentSize));
+            endOffset = 0;
+            return;
+        }
+        Segment last = segments.get(segments.size() - 1);
+        if (recover(last)) {
+            roll(last);
+        } else {
+            endOffset = last.base + last.position;
+        }
+    }
+
+    /**
+     * Finds the end of the last complete event in the specified segment. An incomplete event,
+     * left by a crash while it was being written, is erased
+     *
+     * @param segment The segment
+     * @return Whether if the segment was already full
+     */
+    private boolean recover(Segment segment) {
+        ByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (position + HEADER_SIZE <= segment.capacity) {
+            int length = buffer.getInt(position);
+            if (length == END_OF_SEGMENT) {
+                segment.position = position;
+                return true;
+            }
+            if (length == 0) break;
+            if (length < 0 || position + HEADER_SIZE + length > segment.capacity
+                    || checksum(buffer, position + HEADER_SIZE, length) != buffer.getInt(position + 4)) {
+                for (int i = position; i < segment.capacity; i++) {
+                    buffer.put(i, (byte) 0);
+                }
+                break;
+            }
+            position += HEADER_SIZE + length;
+        }
+        segment.position = position;
+        return false;
+    }
+
+    /**
+     * Appends the specified event unless the event is being replayed by this journal
+     *
+     * @param event The event that is being called
+     */
+    @Override
+    public void onEvent(T event) {
+        if (replaying.get() == null) append(event);
+    }
+
+    /**
+     * Serializes the specified event and appends it to the log. The event isn't forced to
+     * the disk by this method; this is done in the background according to the {@link SyncPolicy}
+     *
+     * @param event The event to append
+     * @return The offset of the event
+     */
+    public long append(T event) {
+        Scratch scratch = this.scratch.get();
+        ByteBuffer data = scratch.serialize(event);
+        int length = data.remaining();
+        if (length == 0)
+            throw new EventBusException("The serializer wrote no bytes for " + event.getClass().getName());
+        scratch.crc.reset();
+        scratch.crc.update(data.duplicate());
+        int checksum = (int) scratch.crc.getValue();
+        boolean wakeFlusher;
+        long offset;
+        synchronized (this) {
+            if (closed)
+                throw new EventBusException("The journal is closed");
+            Segment segment = segments.get(segments.size() - 1);
+            if (segment.position + HEADER_SIZE + length > segment.capacity) {
+                segment = roll(segment);
+            }
+            ByteBuffer buffer = segment.buffer;
+            int position = segment.position;
+            buffer.putInt(position + 4, checksum);
+            buffer.position(position + HEADER_SIZE);
+            buffer.put(data);
+            // the length is written last so that a crash never leaves a length without its data
+            buffer.putInt(position, length);
+            segment.position = position + HEADER_SIZE + length;
+            offset = segment.base + position;
+            endOffset = segment.base + segment.position;
+            appended++;
+            if (!segment.dirty) {
+                segment.dirty = true;
+                dirty.add(segment);
+            }
+            wakeFlusher = ++unsynced >= syncBatchSize && syncPolicy == SyncPolicy.BATCH;
+        }
+        if (wakeFlusher) LockSupport.unpark(flusher);
+        return offset;
+    }
+
+    /**
+     * Marks the rest of the specified segment as unused and creates the next segment.
+     * The oldest segments are deleted if there are more than {@link JournalOptions#getMaxSegments()}
+     *
+     * @param full The last segment
+     * @return The created segment
+     */
+    private Segment roll(Segment full) {
+        if (full.position + 4 <= full.capacity) {
+            full.buffer.putInt(full.position, END_OF_SEGMENT);
+        }
+        Segment next;
+        try {
+            next = new Segment(full.base + full.capacity, segmentSize);
+        } catch (IOException e) {
+            throw new EventBusException("Couldn't create a journal segment", e);
+        }
+        segments.add(next);
+        endOffset = next.base;
+        while (maxSegments > 0 && segments.size() > maxSegments) {
+            Segment oldest = segments.remove(0);
+            oldest.delete();
+        }
+        return next;
+    }
+
+    /**
+     * Calls the events starting at the specified offset on the specified {@link EventBus},
+     * in the order they were appended. The replayed events aren't appended again by this journal.
+     * Events appended while replaying aren't replayed.
+     *
+     * @param fromOffset The offset of the first event to replay. Must be 0 or an offset returned
+     *                   by {@link #append(Object)} or by this method. If the offset was deleted
+     *                   because of the retention, the replay starts at the oldest event
+     * @param bus The {@link EventBus} to call the events on
+     * @return The offset after the last replayed event. Passing it to this method replays
+     * the events appended after this call
+     * @throws EventBusException If an event's length or checksum doesn't match, because a
+     * segment is corrupted or the offset isn't the start of an event. The events before it
+     * were already called
+     */
+    public long replay(long fromOffset, EventBus<T> bus) {
+        Objects.requireNonNull(bus, "Parameter(s) can't be null");
+        List<Segment> snapshot;
+        long end;
+        synchronized (this) {
+            snapshot = new ArrayList<>(segments);
+            end = endOffset;
+        }
+        long offset = Math.max(fromOffset, snapshot.get(0).base);
+        replaying.set(Boolean.TRUE);
+        try {
+            for (Segment segment : snapshot) {
+                if (segment.base + segment.capacity <= offset) continue;
+                ByteBuffer buffer = segment.buffer.duplicate();
+                int position = (int) Math.max(0, offset - segment.base);
+                while (position + HEADER_SIZE <= segment.capacity && segment.base + position < end) {
+                    int length = buffer.getInt(position);
+                    if (length == END_OF_SEGMENT || length == 0) break;
+                    // sealed segments aren't checked when the journal is opened, and the offset
+                    // may not be the start of an event, so every event is checked before it's read
+                    if (length < 0 || length > segment.capacity - position - HEADER_SIZE
+                            || checksum(buffer, position + HEADER_SIZE, length) != buffer.getInt(position + 4))
+                        throw new EventBusException("Journal segment " + segment.path
+                                + " is corrupted at offset " + (segment.base + position));
+                    buffer.limit(position + HEADER_SIZE + length);
+                    buffer.position(position + HEADER_SIZE);
+                    T event = serializer.deserialize(buffer.slice());
+                    buffer.clear();
+                    position += HEADER_SIZE + length;
+                    offset = segment.base + position;
+                    bus.callEvent(event);
+                }
+            }
+        } finally {
+            replaying.remove();
+        }
+        return offset;
+    }
+
+    /**
+     * Forces the written events to the disk now, on the current thread
+     */
+    public void sync() {
+        List<Segment> forced;
+        synchronized (this) {
+            if (dirty.isEmpty()) return;
+            forced = new ArrayList<>(dirty);
+            for (Segment segment : forced) {
+                segment.dirty = false;
+            }
+            dirty.clear();
+            unsynced = 0;
+        }
+        for (Segment segment : forced) {
+            segment.buffer.force();
+        }
+    }
+
+    /**
+     * The loop of the {@link #flusher} thread
+     */
+    private void flush() {
+        while (!closed) {
+            if (syncPolicy == SyncPolicy.INTERVAL) {
+                LockSupport.parkNanos(this, syncIntervalNanos);
+            } else {
+                LockSupport.park(this);
+            }
+            try {
+                sync();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * @return The offset of the oldest event that wasn't deleted
+     */
+    public synchronized long getStartOffset() {
+        return segments.get(0).base;
+    }
+
+    /**
+     * @return The offset the next event will be appended at
+     */
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    /**
+     * @return The number of events appended since this journal was opened
+     */
+    public synchronized long getAppendedCount() {
+        return appended;
+    }
+
+    /**
+     * @return The number of segment files
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Forces the written events to the disk and closes the segment files. Events can't be
+     * appended after the journal is closed
+     *
+     * @throws IOException If a segment file couldn't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+        if (flusher != null) LockSupport.unpark(flusher);
+        sync();
+        synchronized (this) {
+            for (Segment segment : segments) {
+                segment.channel.close();
+            }
+        }
+    }
+
+    /**
+     * A memory-mapped segment file
+     */
+    private final class Segment {
+
+        /**
+         * The offset of the first byte of this segment
+         */
+        private final long base;
+
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+
+        /**
+         * The size of this segment in bytes
+         */
+        private final int capacity;
+
+        /**
+         * The position the next event will be written at
+         */
+        private int position;
+
+        /**
+         * Whether if this segment is in {@link #dirty}
+         */
+        private boolean dirty;
+
+        /**
+         * Opens or creates the segment starting at the specified offset
+         *
+         * @param base The offset of the first byte of the segment
+         * @param size The size of the segment, or 0 to use the size of the existing file
+         * @throws IOException If the segment couldn't be opened
+         */
+        private Segment(long base, int size) throws IOException {
+            this.base = base;
+            this.path = directory.resolve(String.format("%020d", base) + SUFFIX);
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            int existing = (int) channel.size();
+            this.capacity = size != 0 ? size : existing != 0 ? existing : segmentSize;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+
+        /**
+         * Closes and deletes this segment
+         */
+        private void delete() {
+            try {
+                channel.close();
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Per-thread buffer used for serializing events before they are copied into a segment
+     */
+    private final class Scratch {
+
+        private final CRC32 crc = new CRC32();
+        private ByteBuffer buffer = ByteBuffer.allocate(Math.min(4096, maxEventSize));
+
+        /**
+         * Serializes the specified event, growing the buffer until the event fits
+         *
+         * @param event The event to serialize
+         * @return The buffer containing the serialized event, ready to be read
+         */
+        private ByteBuffer serialize(T event) {
+            while (true) {
+                buffer.clear();
+                try {
+                    serializer.serialize(event, buffer);
+                    buffer.flip();
+                    return buffer;
+                } catch (BufferOverflowException e) {
+                    if (buffer.capacity() >= maxEventSize)
+                        throw new EventBusException("Event " + event.getClass().getName()
+                                + " is bigger than the max event size");
+                    buffer = ByteBuffer.allocate((int) Math.min((long) buffer.capacity() * 2, maxEventSize));
+                }
+            }
+        }
+    }
+
+    /**
+     * @param buffer The buffer
+     * @param position The position of the first byte
+     * @param length The number of bytes
+     * @return The CRC32 checksum of the bytes
+     */
+    private static int checksum(ByteBuffer buffer, int position, int length) {
+        ByteBuffer bytes = buffer.duplicate();
+        bytes.position(position);
+        bytes.limit(position + length);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.journal;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Converts events to bytes and back. An {@link EventJournal} uses a serializer to write
+ * events to its log and to read them back when replaying.
+ *
+ * @param <T> The type of the events
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ * @see JavaEventSerializer
+ */
+public interface EventSerializer<T> {
+
+    /**
+     * Writes the specified event to the buffer, starting at the buffer's position.
+     * If the buffer doesn't have enough space, {@link BufferOverflowException} must
+     * be thrown so that the caller can retry with a bigger buffer
+     *
+     * @param event The event to write
+     * @param buffer The buffer to write the event to
+     * @throws BufferOverflowException If the buffer doesn't have enough space
+     */
+    void serialize(T event, ByteBuffer buffer);
+
+    /**
+     * Reads an event from the buffer. The buffer's remaining bytes are exactly the
+     * bytes written by {@link #serialize(Object, ByteBuffer)}
+     *
+     * @param buffer The buffer to read the event from
+     * @return The event
+     */
+    T deserialize(ByteBuffer buffer);
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.journal;
+
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+
+/**
+ * The options of an {@link EventJournal}, such as its segment size, retention and
+ * {@link SyncPolicy}. The options are read when the {@link EventJournal} is created;
+ * changing them afterwards has no effect on that journal.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public class JournalOptions {
+
+    /**
+     * The size of each segment file in bytes. When a segment is full, a new one is created
+     */
+    private int segmentSize = 64 * 1024 * 1024;
+
+    /**
+     * The maximum number of segments kept. When there are more, the oldest are deleted.
+     * 0 means that segments are never deleted
+     */
+    private int maxSegments = 0;
+
+    /**
+     * The {@link SyncPolicy}
+     */
+    private SyncPolicy syncPolicy = SyncPolicy.INTERVAL;
+
+    /**
+     * The number of events after which the journal forces when using {@link SyncPolicy#BATCH}
+     */
+    private int syncBatchSize = 1024;
+
+    /**
+     * The interval in millis between forces when using {@link SyncPolicy#INTERVAL}
+     */
+    private long syncIntervalMillis = 1000;
+
+    /**
+     * The maximum size of a single serialized event in bytes
+     */
+    private int maxEventSize = 1024 * 1024;
+
+    /**
+     * @param segmentSize The size of each segment file in bytes. Must be bigger than
+     *                    {@link #getMaxEventSize()}
+     * @return This object
+     */
+    public JournalOptions setSegmentSize(int segmentSize) {
+        if (segmentSize <= 0)
+            throw new EventBusException("Segment size must be positive");
+        this.segmentSize = segmentSize;
+        return this;
+    }
+
+    /**
+     * @param maxSegments The maximum number of segments kept. 0 means that segments
+     *                    are never deleted
+     * @return This object
+     */
+    public JournalOptions setMaxSegments(int maxSegments) {
+        if (maxSegments < 0)
+            throw new EventBusException("Max segments can't be negative");
+        this.maxSegments = maxSegments;
+        return this;
+    }
+
+    /**
+     * @param syncPolicy The {@link SyncPolicy}
+     * @return This object
+     */
+    public JournalOptions setSyncPolicy(SyncPolicy syncPolicy) {
+        if (syncPolicy == null)
+            throw new NullPointerException("Parameter(s) can't be null");
+        this.syncPolicy = syncPolicy;
+        return this;
+    }
+
+    /**
+     * @param syncBatchSize The number of events after which the journal forces when
+     *                      using {@link SyncPolicy#BATCH}
+     * @return This object
+     */
+    public JournalOptions setSyncBatchSize(int syncBatchSize) {
+        if (syncBatchSize <= 0)
+            throw new EventBusException("Sync batch size must be positive");
+        this.syncBatchSize = syncBatchSize;
+        return this;
+    }
+
+    /**
+     * @param syncIntervalMillis The interval in millis between forces when using
+     *                           {@link SyncPolicy#INTERVAL}
+     * @return This object
+     */
+    public JournalOptions setSyncIntervalMillis(long syncIntervalMillis) {
+        if (syncIntervalMillis <= 0)
+            throw new EventBusException("Sync interval must be positive");
+        this.syncIntervalMillis = syncIntervalMillis;
+        return this;
+    }
+
+    /**
+     * @param maxEventSize The maximum size of a single serialized event in bytes
+     * @return This object
+     */
+    public JournalOptions setMaxEventSize(int maxEventSize) {
+        if (maxEventSize <= 0)
+            throw new EventBusException("Max event size must be positive");
+        this.maxEventSize = maxEventSize;
+        return this;
+    }
+
+    /**
+     * @return The size of each segment file in bytes
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * @return The maximum number of segments kept. 0 means that segments are never deleted
+     */
+    public int getMaxSegments() {
+        return maxSegments;
+    }
+
+    /**
+     * @return The {@link SyncPolicy}
+     */
+    public SyncPolicy getSyncPolicy() {
+        return syncPolicy;
+    }
+
+    /**
+     * @return The number of events after which the journal forces when using {@link SyncPolicy#BATCH}
+     */
+    public int getSyncBatchSize() {
+        return syncBatchSize;
+    }
+
+    /**
+     * @return The interval in millis between forces when using {@link SyncPolicy#INTERVAL}
+     */
+    public long getSyncIntervalMillis() {
+        return syncIntervalMillis;
+    }
+
+    /**
+     * @return The maximum size of a single serialized event in bytes
+     */
+    public int getMaxEventSize() {
+        return maxEventSize;
+    }
+
+}
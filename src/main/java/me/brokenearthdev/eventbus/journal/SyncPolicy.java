@@ -0,0 +1,44 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.journal;
+
+/**
+ * Specifies when an {@link EventJournal} forces its written events to the disk.
+ * The journal never forces on the thread calling the event, so none of the policies
+ * slow down calling events. Events that aren't forced yet may be lost if the machine
+ * (not only the process) crashes.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ * @see JournalOptions#setSyncPolicy(SyncPolicy)
+ */
+public enum SyncPolicy {
+
+    /**
+     * The journal never forces. The operating system writes the events to the disk
+     * whenever it wants to
+     */
+    NEVER,
+
+    /**
+     * The journal forces after every {@link JournalOptions#getSyncBatchSize()} events
+     */
+    BATCH,
+
+    /**
+     * The journal forces every {@link JournalOptions#getSyncIntervalMillis()} millis
+     * if any event was written since the last force
+     */
+    INTERVAL
+
+}
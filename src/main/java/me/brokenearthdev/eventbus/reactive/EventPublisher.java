@@ -0,0 +1,316 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.reactive;
+
+import me.brokenearthdev.eventbus.entities.EventBus;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+import me.brokenearthdev.eventbus.utils.Action;
+import me.brokenearthdev.eventbus.utils.Consumer;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the events of one event class called on an {@link EventBus} to
+ * {@link Flow.Subscriber}s. To publish an event class, use
+ * <pre>
+ *     EventPublisher&lt;AccountEvent&gt; publisher =
+ *             EventPublisher.of(eventBus, AccountEvent.class, 256, OverflowStrategy.BLOCK);
+ *     publisher.subscribe(subscriber);
+ * </pre>
+ * Every subscriber has its own buffer of at most the specified number of events. Events are
+ * only sent to a subscriber when it requested them using {@link Flow.Subscription#request(long)};
+ * until then they wait in its buffer. When the buffer is full, the {@link OverflowStrategy}
+ * decides what happens, so a slow subscriber never makes the buffer grow.
+ *
+ * The publisher subscribes a consumer to the {@link EventBus} while it has subscribers.
+ * {@link #close()} completes every subscriber. Since the buffers keep the events, pooled
+ * events of the published class called meanwhile aren't released to their pool (refer to
+ * {@link EventBus#addRetainer(Object, Class)}).
+ *
+ * @param <E> The type of the published event class
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public class EventPublisher<E> implements Flow.Publisher<E> {
+
+    /**
+     * The maximum number of buffered events per subscriber
+     */
+    private final int bufferSize;
+
+    private final OverflowStrategy strategy;
+
+    /**
+     * The subscriptions of the subscribers
+     */
+    private final List<EventSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Subscribes {@link #consumer} to the {@link EventBus}, and unsubscribes it
+     */
+    private final Action subscribe, unsubscribe;
+
+    /**
+     * The consumer subscribed to the {@link EventBus}, offering every event to every subscriber
+     */
+    private final Consumer<E> consumer = event -> {
+        for (EventSubscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    };
+
+    /**
+     * Whether if {@link #consumer} is subscribed to the {@link EventBus}
+     */
+    private boolean subscribed;
+
+    /**
+     * The number of events dropped because the buffer of a subscriber was full
+     */
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean closed;
+
+    private <T> EventPublisher(EventBus<T> bus, Class<? extends T> type, int bufferSize, OverflowStrategy strategy) {
+        this.bufferSize = bufferSize;
+        this.strategy = strategy;
+        @SuppressWarnings("unchecked")
+        Consumer<T> consumer = (Consumer<T>) this.consumer;
+        // the subscribers' buffers keep the events, so pooled events mustn't be released meanwhile
+        this.subscribe = () -> {
+            bus.addRetainer(this, type);
+            bus.subscribe(type, consumer);
+        };
+        this.unsubscribe = () -> {
+            bus.unsubscribe(consumer);
+            bus.removeRetainer(this);
+        };
+    }
+
+    /**
+     * Creates a publisher of the specified event class
+     *
+     * @param bus The {@link EventBus} the events are called on
+     * @param type The published event class. Its subclasses are published too
+     * @param bufferSize The maximum number of buffered events per subscriber
+     * @param strategy What to do with an event when the buffer of a subscriber is full
+     * @param <T> The type parameter of the {@link EventBus}
+     * @param <E> The type of the published event class
+     * @return The publisher
+     */
+    public static <T, E extends T> EventPublisher<E> of(EventBus<T> bus, Class<E> type, int bufferSize,
+                                                        OverflowStrategy strategy) {
+        Objects.requireNonNull(bus, "Parameter(s) can't be null");
+        Objects.requireNonNull(type, "Parameter(s) can't be null");
+        Objects.requireNonNull(strategy, "Parameter(s) can't be null");
+        if (bufferSize <= 0)
+            throw new EventBusException("Buffer size must be positive");
+        return new EventPublisher<>(bus, type, bufferSize, strategy);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super E> subscriber) {
+        Objects.requireNonNull(subscriber, "Parameter(s) can't be null");
+        EventSubscription subscription = new EventSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        synchronized (this) {
+            // checked while holding the lock, so close() either completes this subscription or happened before
+            if (!closed) {
+                subscriptions.add(subscription);
+                if (!subscribed) {
+                    subscribed = true;
+                    subscribe.run();
+                }
+                return;
+            }
+        }
+        subscription.complete();
+    }
+
+    /**
+     * Removes the specified subscription and unsubscribes from the {@link EventBus} when
+     * there are no subscribers left
+     *
+     * @param subscription The subscription
+     */
+    private synchronized void remove(EventSubscription subscription) {
+        if (subscriptions.remove(subscription) && subscriptions.isEmpty() && subscribed) {
+            subscribed = false;
+            unsubscribe.run();
+        }
+    }
+
+    /**
+     * @return The number of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * @return The number of events dropped because the buffer of a subscriber was full
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Stops publishing events. Every subscriber receives {@link Flow.Subscriber#onComplete()}
+     * after its buffered events
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        for (EventSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * The subscription of one subscriber, with its buffer and demand
+     */
+    private final class EventSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super E> subscriber;
+        private final BlockingQueue<E> buffer = new ArrayBlockingQueue<>(bufferSize);
+
+        /**
+         * The number of requested events that weren't sent yet
+         */
+        private final AtomicLong requested = new AtomicLong();
+
+        /**
+         * Ensures that only one thread sends events to the subscriber at a time
+         */
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile boolean cancelled, done;
+        private volatile Throwable error;
+
+        private EventSubscription(Flow.Subscriber<? super E> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Buffers the specified event and sends it if it was requested
+         *
+         * @param event The called event
+         */
+        private void offer(E event) {
+            if (cancelled || done) return;
+            if (!buffer.offer(event)) {
+                switch (strategy) {
+                    case BLOCK:
+                        // the buffer is only full while nothing is requested, so it is drained by
+                        // request(n) on the subscriber's thread, or cleared by cancel()
+                        try {
+                            buffer.put(event);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            dropped.incrementAndGet();
+                        }
+                        if (cancelled) buffer.clear();
+                        break;
+                    case DROP_OLDEST:
+                        while (!buffer.offer(event)) {
+                            if (buffer.poll() != null) dropped.incrementAndGet();
+                        }
+                        break;
+                    case DROP_LATEST:
+                        dropped.incrementAndGet();
+                        break;
+                    case ERROR:
+                        error = new EventBusException("The buffer of a subscriber overflowed");
+                        done = true;
+                        break;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Requested number of events must be positive");
+                done = true;
+            } else {
+                long current, next;
+                do {
+                    current = requested.get();
+                    next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!requested.compareAndSet(current, next));
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            remove(this);
+            buffer.clear();
+        }
+
+        private void complete() {
+            done = true;
+            drain();
+        }
+
+        /**
+         * Sends the buffered events as long as they are requested. Only one thread sends
+         * at a time; other threads only make it loop again
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) return;
+            int missed = 1;
+            do {
+                long demand = requested.get();
+                long sent = 0;
+                while (sent != demand && !cancelled && error == null) {
+                    E event = buffer.poll();
+                    if (event == null) break;
+                    try {
+                        subscriber.onNext(event);
+                    } catch (RuntimeException e) {
+                        // a subscriber mustn't throw, so it is treated as cancelled
+                        cancel();
+                        e.printStackTrace();
+                        return;
+                    }
+                    sent++;
+                }
+                if (sent != 0 && demand != Long.MAX_VALUE) requested.addAndGet(-sent);
+                if (!cancelled && done && (error != null || buffer.isEmpty())) {
+                    cancelled = true;
+                    remove(this);
+                    buffer.clear();
+                    if (error != null) {
+                        subscriber.onError(error);
+                    } else {
+                        subscriber.onComplete();
+                    }
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+
+}
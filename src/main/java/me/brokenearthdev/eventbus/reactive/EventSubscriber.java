@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.reactive;
+
+import me.brokenearthdev.eventbus.entities.EventBus;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+
+import java.util.Objects;
+
+/**
+ * A {@link Flow.Subscriber} calling every received item as an event on an {@link EventBus}.
+ * Items are requested in batches: the subscriber requests a batch when it subscribes and
+ * requests more whenever half of the batch was called, so the publisher is never asked for
+ * more items than one batch ahead of the event bus.
+ *
+ * @param <T> The type parameter of the {@link EventBus}
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public class EventSubscriber<T> implements Flow.Subscriber<T> {
+
+    private final EventBus<T> bus;
+
+    /**
+     * The number of items requested at once
+     */
+    private final int batchSize;
+
+    /**
+     * The number of items to call before requesting more
+     */
+    private final int limit;
+
+    /**
+     * The number of items called since more were requested
+     */
+    private int called;
+
+    private volatile Flow.Subscription subscription;
+    private volatile Throwable error;
+    private volatile boolean completed;
+
+    /**
+     * @param bus The {@link EventBus} the items are called on
+     * @param batchSize The number of items requested at once
+     */
+    public EventSubscriber(EventBus<T> bus, int batchSize) {
+        Objects.requireNonNull(bus, "Parameter(s) can't be null");
+        if (batchSize <= 0)
+            throw new EventBusException("Batch size must be positive");
+        this.bus = bus;
+        this.batchSize = batchSize;
+        this.limit = Math.max(1, batchSize / 2);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(batchSize);
+    }
+
+    @Override
+    public void onNext(T item) {
+        bus.callEvent(item);
+        if (++called == limit) {
+            called = 0;
+            subscription.request(limit);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+        completed = true;
+    }
+
+    /**
+     * Cancels the subscription. Items may still be called for a short time
+     */
+    public void cancel() {
+        Flow.Subscription subscription = this.subscription;
+        if (subscription != null) subscription.cancel();
+    }
+
+    /**
+     * @return The failure received from the publisher, or null
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * @return Whether if the publisher completed or failed
+     */
+    public boolean isDone() {
+        return completed || error != null;
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.reactive;
+
+/**
+ * The Reactive Streams interfaces, with the same methods as {@code java.util.concurrent.Flow}
+ * (Java 9) and {@code org.reactivestreams}. The event bus supports Java 8, which has neither,
+ * so these interfaces are declared here. On Java 11 and later, {@code FlowAdapters} (shipped in
+ * the JAR with the {@code flow} classifier) converts them to and from {@code java.util.concurrent.Flow}.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ * @see EventPublisher
+ * @see EventSubscriber
+ */
+public final class Flow {
+
+    private Flow() {
+    }
+
+    /**
+     * A producer of items that are received by {@link Subscriber}s according to their demand
+     *
+     * @param <T> The type of the items
+     */
+    public interface Publisher<T> {
+
+        /**
+         * Adds the specified subscriber. The subscriber's {@link Subscriber#onSubscribe(Subscription)}
+         * is called before any other method
+         *
+         * @param subscriber The subscriber
+         */
+        void subscribe(Subscriber<? super T> subscriber);
+
+    }
+
+    /**
+     * A receiver of items. Items are only sent after they are requested using
+     * {@link Subscription#request(long)}
+     *
+     * @param <T> The type of the items
+     */
+    public interface Subscriber<T> {
+
+        /**
+         * Called before any other method
+         *
+         * @param subscription The subscription used for requesting items and cancelling
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * Called with the next item. Never called more often than items were requested
+         *
+         * @param item The item
+         */
+        void onNext(T item);
+
+        /**
+         * Called when the subscription failed. No other method is called afterwards
+         *
+         * @param throwable The failure
+         */
+        void onError(Throwable throwable);
+
+        /**
+         * Called when no more items will be sent. No other method is called afterwards
+         */
+        void onComplete();
+
+    }
+
+    /**
+     * Links a {@link Publisher} and a {@link Subscriber}
+     */
+    public interface Subscription {
+
+        /**
+         * Requests more items
+         *
+         * @param n The number of items. Must be positive
+         */
+        void request(long n);
+
+        /**
+         * Stops sending items. Items may still be sent for a short time
+         */
+        void cancel();
+
+    }
+
+    /**
+     * Both a {@link Subscriber} and a {@link Publisher}
+     *
+     * @param <T> The type of the received items
+     * @param <R> The type of the published items
+     */
+    public interface Processor<T, R> extends Subscriber<T>, Publisher<R> {
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.reactive;
+
+/**
+ * Specifies what an {@link EventPublisher} does with an event when the buffer of a
+ * subscriber is full, which happens when the subscriber requests events more slowly than
+ * they are called.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public enum OverflowStrategy {
+
+    /**
+     * The thread calling the event waits until the subscriber has room for it. This slows
+     * down the callers of the event to the speed of the slowest subscriber
+     */
+    BLOCK,
+
+    /**
+     * The oldest buffered event is dropped to make room for the new one
+     */
+    DROP_OLDEST,
+
+    /**
+     * The new event is dropped
+     */
+    DROP_LATEST,
+
+    /**
+     * The subscription is cancelled and the subscriber receives
+     * {@link Flow.Subscriber#onError(Throwable)}
+     */
+    ERROR
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.bridge;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Publishes and reads the write position in the header of a ring file shared by the
+ * processes of a {@link SharedMemoryTransport}. A process reading a position published by
+ * {@link #publish(ByteBuffer, int, long)} must see every batch written before it.
+ *
+ * This version uses a release store and acquire loads on the mapped buffer, which order the
+ * accesses on every processor, through a {@link VarHandle} viewing the buffer as longs.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+final class RingHeader {
+
+    /**
+     * The big-endian longs of a buffer, the order {@link ByteBuffer#putLong(int, long)} uses
+     */
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private RingHeader() {
+    }
+
+    /**
+     * Publishes a write position. The batches written before are visible to a process reading
+     * the position, and the position is visible before the batches written after
+     *
+     * @param ring The ring
+     * @param offset The offset of the position in the ring
+     * @param position The write position
+     */
+    static void publish(ByteBuffer ring, int offset, long position) {
+        LONGS.setRelease(ring, offset, position);
+        VarHandle.releaseFence();
+    }
+
+    /**
+     * Reads a write position before reading the batches written before it
+     *
+     * @param ring The ring
+     * @param offset The offset of the position in the ring
+     * @return The write position
+     */
+    static long read(ByteBuffer ring, int offset) {
+        return (long) LONGS.getAcquire(ring, offset);
+    }
+
+    /**
+     * Reads a write position again after a batch was copied, to find out whether if the batch
+     * may have been overwritten while it was copied
+     *
+     * @param ring The ring
+     * @param offset The offset of the position in the ring
+     * @return The write position
+     */
+    static long recheck(ByteBuffer ring, int offset) {
+        // the copy of the batch mustn't be read after the position
+        VarHandle.acquireFence();
+        return (long) LONGS.getAcquire(ring, offset);
+    }
+
+}
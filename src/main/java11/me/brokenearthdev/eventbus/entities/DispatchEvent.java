@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event emitted around the dispatch of an event while profiling is
+ * enabled. It is only loaded by {@link DispatchRecorder} when the JVM has Java Flight Recorder
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+@Name("me.brokenearthdev.eventbus.Dispatch")
+@Label("Event Dispatch")
+@Category("EventBus")
+@Description("The invocation of the event methods of a called event")
+final class DispatchEvent extends Event {
+
+    @Label("Event Class")
+    String eventClass;
+
+    @Label("Invoked Handlers")
+    int invoked;
+
+    /**
+     * @return A started event, or null if the event isn't recorded
+     */
+    static Object start() {
+        DispatchEvent event = new DispatchEvent();
+        if (!event.isEnabled()) return null;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits an event returned by {@link #start()}
+     *
+     * @param recorded The started event
+     * @param eventClass The dispatched event class
+     * @param invoked The number of invoked handlers
+     */
+    static void finish(Object recorded, Class<?> eventClass, int invoked) {
+        DispatchEvent event = (DispatchEvent) recorded;
+        event.end();
+        if (event.shouldCommit()) {
+            event.eventClass = eventClass.getName();
+            event.invoked = invoked;
+            event.commit();
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+/**
+ * Emits a {@link DispatchEvent} to Java Flight Recorder around the dispatch of an event while
+ * profiling is enabled
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+final class DispatchRecorder {
+
+    private DispatchRecorder() {
+    }
+
+    /**
+     * @return A started event, or null if the event isn't recorded
+     */
+    static Object start() {
+        return DispatchEvent.start();
+    }
+
+    /**
+     * Commits an event returned by {@link #start()}
+     *
+     * @param recorded The started event
+     * @param eventClass The dispatched event class
+     * @param invoked The number of invoked handlers
+     */
+    static void finish(Object recorded, Class<?> eventClass, int invoked) {
+        DispatchEvent.finish(recorded, eventClass, invoked);
+    }
+
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.reactive;
+
+import java.util.Objects;
+
+/**
+ * Converts between the event bus's {@link Flow} interfaces and {@link java.util.concurrent.Flow},
+ * so that an {@link EventPublisher} can be subscribed to by any JDK Flow subscriber (and any
+ * Reactive Streams library through its own JDK Flow adapters), and an {@link EventSubscriber}
+ * can subscribe to any JDK Flow publisher:
+ * <pre>
+ *     FlowAdapters.toFlowPublisher(publisher).subscribe(jdkSubscriber);
+ *     jdkPublisher.subscribe(FlowAdapters.toFlowSubscriber(new EventSubscriber&lt;&gt;(eventBus, 64)));
+ * </pre>
+ * Every method only forwards calls. Converting an object converted by this class returns the
+ * original object instead of wrapping it twice.
+ *
+ * Java 8 doesn't have {@link java.util.concurrent.Flow}, and a multi-release JAR can't add a
+ * public class for Java 11 only, so this class is compiled for Java 11 and shipped in a JAR of
+ * its own (classifier {@code flow}) next to the library JAR.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public final class FlowAdapters {
+
+    private FlowAdapters() {
+    }
+
+    /**
+     * @param publisher A publisher of the event bus
+     * @param <T> The type of the items
+     * @return A JDK Flow publisher forwarding to the specified publisher
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> java.util.concurrent.Flow.Publisher<T> toFlowPublisher(Flow.Publisher<T> publisher) {
+        Objects.requireNonNull(publisher, "Parameter(s) can't be null");
+        if (publisher instanceof ReversePublisher)
+            return (java.util.concurrent.Flow.Publisher<T>) ((ReversePublisher<T>) publisher).publisher;
+        return new FlowPublisher<>(publisher);
+    }
+
+    /**
+     * @param publisher A JDK Flow publisher
+     * @param <T> The type of the items
+     * @return A publisher of the event bus forwarding to the specified publisher
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Flow.Publisher<T> toPublisher(java.util.concurrent.Flow.Publisher<T> publisher) {
+        Objects.requireNonNull(publisher, "Parameter(s) can't be null");
+        if (publisher instanceof FlowPublisher)
+            return (Flow.Publisher<T>) ((FlowPublisher<T>) publisher).publisher;
+        return new ReversePublisher<>(publisher);
+    }
+
+    /**
+     * @param subscriber A subscriber of the event bus, such as an {@link EventSubscriber}
+     * @param <T> The type of the items
+     * @return A JDK Flow subscriber forwarding to the specified subscriber
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> java.util.concurrent.Flow.Subscriber<T> toFlowSubscriber(Flow.Subscriber<T> subscriber) {
+        Objects.requireNonNull(subscriber, "Parameter(s) can't be null");
+        if (subscriber instanceof ReverseSubscriber)
+            return (java.util.concurrent.Flow.Subscriber<T>) ((ReverseSubscriber<T>) subscriber).subscriber;
+        return new FlowSubscriber<>(subscriber);
+    }
+
+    /**
+     * @param subscriber A JDK Flow subscriber
+     * @param <T> The type of the items
+     * @return A subscriber of the event bus forwarding to the specified subscriber
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Flow.Subscriber<T> toSubscriber(java.util.concurrent.Flow.Subscriber<T> subscriber) {
+        Objects.requireNonNull(subscriber, "Parameter(s) can't be null");
+        if (subscriber instanceof FlowSubscriber)
+            return (Flow.Subscriber<T>) ((FlowSubscriber<T>) subscriber).subscriber;
+        return new ReverseSubscriber<>(subscriber);
+    }
+
+    /**
+     * A JDK Flow publisher forwarding to a publisher of the event bus
+     */
+    private static final class FlowPublisher<T> implements java.util.concurrent.Flow.Publisher<T> {
+
+        private final Flow.Publisher<? extends T> publisher;
+
+        private FlowPublisher(Flow.Publisher<? extends T> publisher) {
+            this.publisher = publisher;
+        }
+
+        @Override
+        public void subscribe(java.util.concurrent.Flow.Subscriber<? super T> subscriber) {
+            Objects.requireNonNull(subscriber, "Parameter(s) can't be null");
+            publisher.subscribe(new ReverseSubscriber<>(subscriber));
+        }
+    }
+
+    /**
+     * A publisher of the event bus forwarding to a JDK Flow publisher
+     */
+    private static final class ReversePublisher<T> implements Flow.Publisher<T> {
+
+        private final java.util.concurrent.Flow.Publisher<? extends T> publisher;
+
+        private ReversePublisher(java.util.concurrent.Flow.Publisher<? extends T> publisher) {
+            this.publisher = publisher;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super T> subscriber) {
+            Objects.requireNonNull(subscriber, "Parameter(s) can't be null");
+            publisher.subscribe(new FlowSubscriber<>(subscriber));
+        }
+    }
+
+    /**
+     * A JDK Flow subscriber forwarding to a subscriber of the event bus
+     */
+    private static final class FlowSubscriber<T> implements java.util.concurrent.Flow.Subscriber<T> {
+
+        private final Flow.Subscriber<? super T> subscriber;
+
+        private FlowSubscriber(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void onSubscribe(java.util.concurrent.Flow.Subscription subscription) {
+            subscriber.onSubscribe(new ReverseSubscription(subscription));
+        }
+
+        @Override
+        public void onNext(T item) {
+            subscriber.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            subscriber.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            subscriber.onComplete();
+        }
+    }
+
+    /**
+     * A subscriber of the event bus forwarding to a JDK Flow subscriber
+     */
+    private static final class ReverseSubscriber<T> implements Flow.Subscriber<T> {
+
+        private final java.util.concurrent.Flow.Subscriber<? super T> subscriber;
+
+        private ReverseSubscriber(java.util.concurrent.Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscriber.onSubscribe(new FlowSubscription(subscription));
+        }
+
+        @Override
+        public void onNext(T item) {
+            subscriber.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            subscriber.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            subscriber.onComplete();
+        }
+    }
+
+    /**
+     * A JDK Flow subscription forwarding to a subscription of the event bus
+     */
+    private static final class FlowSubscription implements java.util.concurrent.Flow.Subscription {
+
+        private final Flow.Subscription subscription;
+
+        private FlowSubscription(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void request(long n) {
+            subscription.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            subscription.cancel();
+        }
+    }
+
+    /**
+     * A subscription of the event bus forwarding to a JDK Flow subscription
+     */
+    private static final class ReverseSubscription implements Flow.Subscription {
+
+        private final java.util.concurrent.Flow.Subscription subscription;
+
+        private ReverseSubscription(java.util.concurrent.Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void request(long n) {
+            subscription.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            subscription.cancel();
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+
+/**
+ * Creates the invokers of event methods. This version generates an invoker for every event
+ * method using {@link LambdaMetafactory}, which defines it as a hidden class of the listener
+ * class. The invoker calls the event method directly, so the JIT compiler can inline it like a
+ * normal call. If the listener class can't be accessed, for example because its module doesn't
+ * open its package, the event method is invoked through reflection instead
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+final class InvokerFactory {
+
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(BiConsumer.class);
+    private static final MethodType ACCEPT_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private InvokerFactory() {
+    }
+
+    /**
+     * @param method An event method
+     * @return An invoker taking the listener object and the event, or null if the method must
+     * be invoked through reflection
+     */
+    @SuppressWarnings("unchecked")
+    static BiConsumer<Object, Object> create(Method method) {
+        Class<?> listenerClass = method.getDeclaringClass();
+        CallSite site;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(listenerClass, MethodHandles.lookup());
+            MethodHandle target = lookup.unreflect(method);
+            site = LambdaMetafactory.metafactory(lookup, "accept", FACTORY_TYPE, ACCEPT_TYPE, target,
+                    MethodType.methodType(void.class, listenerClass, method.getParameterTypes()[0]));
+        } catch (ReflectiveOperationException | LambdaConversionException e) {
+            return null;
+        }
+        try {
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // the factory of a lambda without captured values doesn't throw checked exceptions
+            throw new EventBusException("Couldn't create the invoker of " + method, e);
+        }
+    }
+
+}
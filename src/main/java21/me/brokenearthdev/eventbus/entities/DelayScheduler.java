@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs the event methods of delayed events (annotated with
+ * {@link me.brokenearthdev.eventbus.annotations.DelayedEvent}) once their delay passed. This
+ * version waits for the delay on a virtual thread, so a slow delayed event doesn't hold up the
+ * others the way it does on the single thread of the Java 8 version. Virtual threads are daemon
+ * threads, like that thread: delayed events that didn't run yet don't keep the JVM running. The threads are created by a {@link ThreadFactory}, which (unlike
+ * a {@link Thread.Builder}) may be used by many threads at once
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+final class DelayScheduler {
+
+    private static final ThreadFactory FACTORY = Thread.ofVirtual().name("EventBus-delayed-", 0).factory();
+
+    private DelayScheduler() {
+    }
+
+    /**
+     * @param task The task to run
+     * @param delay The number of milliseconds to wait before running the task
+     */
+    static void schedule(Runnable task, long delay) {
+        FACTORY.newThread(() -> {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                return;
+            }
+            task.run();
+        }).start();
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.benchmarks;
+
+import me.brokenearthdev.eventbus.annotations.CallerEventBus;
+import me.brokenearthdev.eventbus.entities.EventBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calls events with and without a {@link CallerEventBus} field, and compares the injection
+ * with the per-call field scan the event bus used before the fields were cached
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallerBusBenchmark {
+
+    private final EventBus<Object> bus = new EventBus<>();
+
+    private final PlainEvent plain = new PlainEvent();
+
+    private final InjectedEvent injected = new InjectedEvent();
+
+    private Blackhole blackhole;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        bus.subscribe(PlainEvent.class, event -> this.blackhole.consume(event));
+        bus.subscribe(InjectedEvent.class, event -> this.blackhole.consume(event.bus));
+    }
+
+    @Benchmark
+    public void callPlainEvent() {
+        bus.callEvent(plain);
+    }
+
+    @Benchmark
+    public void callInjectedEvent() {
+        bus.callEvent(injected);
+    }
+
+    /**
+     * The field scan every call used to do before the event methods were invoked
+     */
+    @Benchmark
+    public Object scanFieldsPerCall() throws IllegalAccessException {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : injected.getClass().getFields()) {
+            if (field.getAnnotation(CallerEventBus.class) != null) {
+                if (!EventBus.class.isAssignableFrom(field.getType())
+                        || Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers()))
+                    throw new IllegalStateException();
+                fields.add(field);
+            }
+        }
+        for (Field field : fields) {
+            field.setAccessible(true);
+            field.set(injected, bus);
+        }
+        return injected;
+    }
+
+    public static class PlainEvent {
+        public int value;
+    }
+
+    public static class InjectedEvent {
+        @CallerEventBus
+        public EventBus<?> bus;
+        public int value;
+    }
+
+}
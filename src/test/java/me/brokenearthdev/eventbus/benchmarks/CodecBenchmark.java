@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.benchmarks;
+
+import me.brokenearthdev.eventbus.codec.BinaryEventCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes a small event with the {@link BinaryEventCodec} and with Java serialization
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    private final BinaryEventCodec codec = new BinaryEventCodec().register(TradeEvent.class, 1);
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+    private final TradeEvent event = new TradeEvent();
+
+    private ByteBuffer encoded;
+
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() throws IOException {
+        event.id = 123_456_789L;
+        event.quantity = 250;
+        event.price = 101.25;
+        event.symbol = "ACME";
+        event.account = "account-42";
+        encoded = ByteBuffer.allocate(4096);
+        codec.encode(event, encoded);
+        encoded.flip();
+        serialized = serialize(event);
+    }
+
+    @Benchmark
+    public ByteBuffer binaryEncode() {
+        buffer.clear();
+        codec.encode(event, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public Object binaryDecode() {
+        return codec.decode(encoded.duplicate());
+    }
+
+    @Benchmark
+    public byte[] javaSerialize() throws IOException {
+        return serialize(event);
+    }
+
+    @Benchmark
+    public Object javaDeserialize() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static class TradeEvent implements Serializable {
+        private static final long serialVersionUID = 1L;
+        long id;
+        int quantity;
+        double price;
+        String symbol;
+        String account;
+    }
+
+}
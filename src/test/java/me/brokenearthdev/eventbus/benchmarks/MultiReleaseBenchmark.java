@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.benchmarks;
+
+import me.brokenearthdev.eventbus.annotations.SubscribeEvent;
+import me.brokenearthdev.eventbus.entities.EventBus;
+import me.brokenearthdev.eventbus.entities.EventPool;
+import me.brokenearthdev.eventbus.entities.PooledEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the parts of the event bus that the multi-release JAR replaces, or replaced, on
+ * newer Java versions: calling a registered event method (the invokers of Java 17) and
+ * acquiring and releasing pooled events (the pool slots, which have no Java 11 version since
+ * it was slower). Run it on every Java version against the packaged JAR to compare the versions
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiReleaseBenchmark {
+
+    private final EventBus<Object> bus = new EventBus<>();
+
+    private final EventPool<PooledMove> pool = new EventPool<>(PooledMove::new, 64);
+
+    private final Move event = new Move();
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        bus.register(new Listener(blackhole));
+    }
+
+    @Benchmark
+    public void callRegisteredListener() {
+        bus.callEvent(event);
+    }
+
+    @Benchmark
+    public PooledMove acquireAndRelease() {
+        PooledMove move = pool.acquire();
+        pool.release(move);
+        return move;
+    }
+
+    public static class Listener {
+        private final Blackhole blackhole;
+
+        Listener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @SubscribeEvent
+        public void onMove(Move event) {
+            blackhole.consume(event);
+        }
+    }
+
+    public static class Move {
+        public int x;
+    }
+
+    public static class PooledMove implements PooledEvent {
+        public int x;
+
+        @Override
+        public void reset() {
+            x = 0;
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.bridge;
+
+import me.brokenearthdev.eventbus.codec.BinaryEventCodec;
+import me.brokenearthdev.eventbus.entities.EventBus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventBridgeTest {
+
+    private static final long ORIGIN = 42;
+
+    private final BinaryEventCodec encoder = new BinaryEventCodec();
+
+    private final QueueTransport transport = new QueueTransport();
+
+    private final List<Integer> called = new CopyOnWriteArrayList<>();
+
+    private EventBridge<Object> bridge;
+
+    @BeforeEach
+    void setUp() {
+        EventBus<Object> bus = new EventBus<>();
+        bus.subscribe(Ping.class, ping -> called.add(ping.value));
+        bridge = new EventBridge<>(bus, new BinaryEventCodec().allow(Ping.class), transport);
+        bridge.mirror(Ping.class).start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        bridge.close();
+    }
+
+    @Test
+    void decodeFailureDoesNotLoseOrRepeatEvents() throws Exception {
+        ByteBuffer batch = batch(1, ping(1), truncated(ping(2)), ping(3));
+        transport.deliver(batch.duplicate());
+        await(() -> bridge.getReceivedCount() == 2 && bridge.getFailedCount() == 1);
+        assertEquals(Arrays.asList(1, 3), called);
+
+        // the same batch again is dropped as a whole, including the event that failed
+        transport.deliver(batch.duplicate());
+        await(() -> bridge.getDuplicateCount() == 3);
+        transport.deliver(batch(4, ping(4)));
+        await(() -> bridge.getReceivedCount() == 3);
+        assertEquals(Arrays.asList(1, 3, 4), called);
+        assertEquals(1, bridge.getFailedCount());
+    }
+
+    @Test
+    void batchWithUntrustedEventIsRejectedBeforeDecoding() throws Exception {
+        transport.deliver(batch(1, ping(1), encode(new Untrusted())));
+        await(() -> bridge.getRejectedCount() == 1);
+        assertEquals(0, bridge.getReceivedCount());
+        assertTrue(called.isEmpty());
+
+        // the rejected batch didn't advance the sequence
+        transport.deliver(batch(1, ping(1)));
+        await(() -> bridge.getReceivedCount() == 1);
+        assertEquals(Arrays.asList(1), called);
+    }
+
+    @Test
+    void malformedBatchIsRejected() throws Exception {
+        ByteBuffer batch = batch(1, ping(1));
+        // the length of the event claims more bytes than the batch has
+        batch.putInt(20, 1 << 20);
+        transport.deliver(batch);
+        await(() -> bridge.getRejectedCount() == 1);
+        assertTrue(called.isEmpty());
+    }
+
+    private byte[] ping(int value) {
+        Ping ping = new Ping();
+        ping.value = value;
+        return encode(ping);
+    }
+
+    private byte[] encode(Object event) {
+        ByteBuffer encoded = encoder.encode(event);
+        byte[] bytes = new byte[encoded.remaining()];
+        encoded.get(bytes);
+        encoder.release(encoded);
+        return bytes;
+    }
+
+    private static byte[] truncated(byte[] event) {
+        return Arrays.copyOf(event, event.length - 2);
+    }
+
+    /**
+     * Builds a batch the way the sending bridge does
+     */
+    private static ByteBuffer batch(long firstSequence, byte[]... events) {
+        ByteBuffer batch = ByteBuffer.allocate(4096);
+        batch.putLong(ORIGIN).putInt(events.length);
+        long sequence = firstSequence;
+        for (byte[] event : events) {
+            batch.putLong(sequence++).putInt(event.length).put(event);
+        }
+        batch.flip();
+        return batch;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+
+    public static class Ping {
+        int value;
+    }
+
+    public static class Untrusted {
+        int value;
+    }
+
+    /**
+     * Hands batches to the bridge in memory
+     */
+    private static final class QueueTransport implements BridgeTransport {
+
+        private final BlockingQueue<ByteBuffer> batches = new LinkedBlockingQueue<>();
+
+        void deliver(ByteBuffer batch) {
+            batches.add(batch);
+        }
+
+        @Override
+        public void send(ByteBuffer batch) {
+        }
+
+        @Override
+        public ByteBuffer receive(long timeout, TimeUnit unit) throws InterruptedException {
+            return batches.poll(timeout, unit);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+}
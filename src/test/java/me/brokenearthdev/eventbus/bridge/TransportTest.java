@@ -0,0 +1,238 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.bridge;
+
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class TransportTest {
+
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void socketPeersWithTheSameSecretExchangeBatches() throws Exception {
+        int a = freePort(), b = freePort();
+        try (SocketTransport first = new SocketTransport(SECRET, a, b);
+             SocketTransport second = new SocketTransport(SECRET, b, a)) {
+            first.send(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+            ByteBuffer batch = second.receive(5, TimeUnit.SECONDS);
+            assertNotNull(batch);
+            assertEquals(3, batch.remaining());
+            assertEquals(0, first.getRejectedConnectionCount() + second.getRejectedConnectionCount());
+        }
+    }
+
+    @Test
+    void socketPeerWithAnotherSecretIsRejected() throws Exception {
+        int a = freePort(), b = freePort();
+        byte[] other = SECRET.clone();
+        other[0] ^= 1;
+        try (SocketTransport first = new SocketTransport(other, a, b);
+             SocketTransport second = new SocketTransport(SECRET, b, a)) {
+            first.send(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+            assertNull(second.receive(500, TimeUnit.MILLISECONDS));
+            assertTrue(first.getRejectedConnectionCount() > 0);
+            assertEquals(1, second.getRejectedConnectionCount());
+        }
+    }
+
+    @Test
+    void unauthenticatedBytesAreNeverQueued() throws Exception {
+        int port = freePort();
+        try (SocketTransport transport = new SocketTransport(SECRET, port)) {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                OutputStream out = socket.getOutputStream();
+                byte[] forged = new byte[64 + 4 + 3];
+                forged[64 + 3] = 3;
+                out.write(forged);
+                out.flush();
+                assertNull(transport.receive(500, TimeUnit.MILLISECONDS));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (transport.getRejectedConnectionCount() == 0 && System.nanoTime() < deadline) Thread.sleep(5);
+            assertEquals(1, transport.getRejectedConnectionCount());
+        }
+    }
+
+    @Test
+    void shortSecretsAreRefused() {
+        assertThrows(EventBusException.class, () -> new SocketTransport(new byte[8], freePort()));
+    }
+
+    @Test
+    void invalidQueueCapacitiesAreRefused() {
+        assertThrows(EventBusException.class, () -> new SocketTransport(SECRET, freePort(), new int[0], 0));
+    }
+
+    @Test
+    void proofsCantBeRelayedToAnotherPort() throws Exception {
+        int port = freePort();
+        try (ServerSocket relay = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+             SocketTransport transport = new SocketTransport(SECRET, port, relay.getLocalPort())) {
+            // the transport connects to the relay, which answers with the transport's own challenge
+            Thread sender = new Thread(() -> {
+                try {
+                    transport.send(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+                } catch (IOException ignored) {
+                }
+            });
+            sender.start();
+            try (Socket victim = relay.accept();
+                 Socket acceptor = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                byte[] challenge = new byte[32], reply = new byte[64];
+                new DataInputStream(acceptor.getInputStream()).readFully(challenge);
+                victim.getOutputStream().write(challenge);
+                new DataInputStream(victim.getInputStream()).readFully(reply);
+                acceptor.getOutputStream().write(reply);
+                // the acceptor closes the connection instead of answering with its proof
+                assertEquals(-1, acceptor.getInputStream().read());
+            }
+            sender.join(TimeUnit.SECONDS.toMillis(10));
+            assertNull(transport.receive(100, TimeUnit.MILLISECONDS));
+            assertTrue(transport.getRejectedConnectionCount() >= 1);
+        }
+    }
+
+    @Test
+    void pendingHandshakesAreBounded() throws Exception {
+        int port = freePort();
+        List<Socket> idle = new ArrayList<>();
+        try (SocketTransport transport = new SocketTransport(SECRET, port)) {
+            // 4 handshakes run and 16 wait, so the other connections are rejected right away
+            for (int i = 0; i < 24; i++) {
+                idle.add(new Socket(InetAddress.getLoopbackAddress(), port));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+            while (transport.getRejectedConnectionCount() < 4 && System.nanoTime() < deadline) Thread.sleep(5);
+            assertEquals(4, transport.getRejectedConnectionCount());
+            long threads = Thread.getAllStackTraces().keySet().stream()
+                    .filter(thread -> thread.getName().endsWith("-" + port)).count();
+            assertTrue(threads <= 1 + 4, "threads: " + threads);
+        } finally {
+            for (Socket socket : idle) socket.close();
+        }
+    }
+
+    @Test
+    void sharedMemoryPeersExchangeBatches() throws Exception {
+        try (SharedMemoryTransport first = new SharedMemoryTransport(directory, 64 * 1024);
+             SharedMemoryTransport second = new SharedMemoryTransport(directory, 64 * 1024)) {
+            // the readers start at the write position they find, so let them find the rings first
+            assertNull(second.receive(10, TimeUnit.MILLISECONDS));
+            for (int i = 0; i < 1000; i++) {
+                first.send(ByteBuffer.wrap(new byte[]{(byte) i, 2, 3}));
+                ByteBuffer batch = second.receive(5, TimeUnit.SECONDS);
+                assertNotNull(batch);
+                assertEquals((byte) i, batch.get(0));
+            }
+            assertEquals(0, second.getLostCount());
+        }
+    }
+
+    @Test
+    void sharedMemoryReadersNeverReturnTornBatches() throws Exception {
+        int capacity = 64 * 1024;
+        try (SharedMemoryTransport first = new SharedMemoryTransport(directory, capacity);
+             SharedMemoryTransport second = new SharedMemoryTransport(directory, capacity)) {
+            assertNull(second.receive(10, TimeUnit.MILLISECONDS));
+            assertThrows(IOException.class, () -> first.send(ByteBuffer.allocate(capacity / 4)));
+            AtomicBoolean stop = new AtomicBoolean();
+            Thread writer = new Thread(() -> {
+                // every batch is filled with one value and its lengths make the writes wrap unevenly
+                for (int i = 0; !stop.get(); i++) {
+                    byte[] bytes = new byte[capacity / 4 - 4 - (i * 7919) % 4096];
+                    Arrays.fill(bytes, (byte) i);
+                    try {
+                        first.send(ByteBuffer.wrap(bytes));
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    // the ring has no backpressure, so a writer that never pauses could overrun every read
+                    if (i % 4 == 3) LockSupport.parkNanos(100_000);
+                }
+            });
+            writer.start();
+            try {
+                long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+                int received = 0;
+                while (System.nanoTime() < end) {
+                    ByteBuffer batch = second.receive(100, TimeUnit.MILLISECONDS);
+                    if (batch == null) continue;
+                    byte value = batch.get(0);
+                    for (int i = 1; i < batch.remaining(); i++) {
+                        if (batch.get(i) != value) fail("Torn batch at byte " + i);
+                    }
+                    received++;
+                }
+                assertTrue(received > 0);
+            } finally {
+                stop.set(true);
+                writer.join();
+            }
+        }
+    }
+
+    @Test
+    void abandonedRingFilesAreDeleted() throws Exception {
+        Path abandoned = directory.resolve("dead.ring");
+        try (FileChannel channel = FileChannel.open(abandoned, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(64 + 1024);
+            header.putLong(0, 1024);
+            header.putLong(16, System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(5));
+            channel.write(header);
+        }
+        try (SharedMemoryTransport transport = new SharedMemoryTransport(directory, 64 * 1024)) {
+            assertNull(transport.receive(10, TimeUnit.MILLISECONDS));
+            assertFalse(Files.exists(abandoned));
+            assertEquals(1, transport.getAbandonedCount());
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.codec;
+
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryEventCodecTest {
+
+    private static final AtomicBoolean CONSTRUCTED = new AtomicBoolean();
+
+    @Test
+    void roundTripsEveryFieldKind() {
+        BinaryEventCodec codec = new BinaryEventCodec().allow(TradeEvent.class);
+        TradeEvent event = TradeEvent.sample();
+        TradeEvent decoded = (TradeEvent) roundTrip(codec, codec, event);
+        assertEquals(event.id, decoded.id);
+        assertEquals(event.quantity, decoded.quantity);
+        assertEquals(event.price, decoded.price);
+        assertEquals(event.buy, decoded.buy);
+        assertEquals(event.symbol, decoded.symbol);
+        assertEquals(event.side, decoded.side);
+        assertArrayEquals(event.payload, decoded.payload);
+        assertEquals(event.venue.name, decoded.venue.name);
+        assertEquals(event.tags, decoded.tags);
+        assertEquals(event.attributes, decoded.attributes);
+        assertEquals(event.amount, decoded.amount);
+        assertEquals(event.trace, decoded.trace);
+        assertNull(decoded.missing);
+    }
+
+    @Test
+    void registeredIdsIdentifyClasses() {
+        BinaryEventCodec codec = new BinaryEventCodec().register(TradeEvent.class, 7);
+        ByteBuffer encoded = codec.encode(TradeEvent.sample());
+        assertTrue(codec.canDecode(encoded));
+        assertEquals(TradeEvent.class, codec.decode(encoded).getClass());
+        assertFalse(new BinaryEventCodec().canDecode(codec.encode(TradeEvent.sample())));
+    }
+
+    @Test
+    void rejectsClassesThatAreNotTrusted() {
+        BinaryEventCodec encoder = new BinaryEventCodec();
+        BinaryEventCodec decoder = new BinaryEventCodec().allow(TradeEvent.class);
+        ByteBuffer encoded = encoder.encode(new Untrusted());
+        assertFalse(decoder.canDecode(encoded));
+        EventBusException e = assertThrows(EventBusException.class, () -> decoder.decode(encoded));
+        assertTrue(e.getMessage().contains(Untrusted.class.getName()));
+    }
+
+    @Test
+    void rejectsUnknownClassNamesWithoutCreatingThem() {
+        byte[] name = Constructed.class.getName().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer tampered = ByteBuffer.allocate(name.length + 4);
+        tampered.put(BinaryEventCodec.FORMAT_VERSION).put((byte) 0).put((byte) name.length).put(name).put((byte) 0);
+        tampered.flip();
+        BinaryEventCodec codec = new BinaryEventCodec().allow(TradeEvent.class);
+        assertFalse(codec.canDecode(tampered));
+        assertThrows(EventBusException.class, () -> codec.decode(tampered));
+        assertFalse(CONSTRUCTED.get());
+    }
+
+    @Test
+    void rejectsSerializedValuesOutsideTheAllowList() {
+        BinaryEventCodec codec = new BinaryEventCodec().allow(Holder.class);
+        Holder holder = new Holder();
+        List<Object> list = new ArrayList<>();
+        list.add(new AtomicLong(1));
+        holder.value = list;
+        ByteBuffer encoded = codec.encode(holder);
+        EventBusException e = assertThrows(EventBusException.class, () -> codec.decode(encoded));
+        assertTrue(e.getCause().getMessage().contains("java.util.concurrent.atomic.AtomicLong"));
+        assertThrows(EventBusException.class, () -> codec.encode(holderOf(new AtomicLong(1))));
+    }
+
+    @Test
+    void nestedObjectsMustBeTrustedOrDeclared() {
+        BinaryEventCodec codec = new BinaryEventCodec().allow(Holder.class);
+        ByteBuffer encoded = codec.encode(holderOf(new Untrusted()));
+        assertThrows(EventBusException.class, () -> codec.decode(encoded));
+        codec.allow(Untrusted.class);
+        Holder decoded = (Holder) codec.decode(codec.encode(holderOf(new Untrusted())));
+        assertEquals(Untrusted.class, decoded.value.getClass());
+    }
+
+    @Test
+    void skipsFieldsRemovedFromTheClass() {
+        BinaryEventCodec oldVersion = new BinaryEventCodec().register(TradeEvent.class, 1);
+        BinaryEventCodec newVersion = new BinaryEventCodec().register(SlimTradeEvent.class, 1);
+        SlimTradeEvent decoded = (SlimTradeEvent) roundTrip(oldVersion, newVersion, TradeEvent.sample());
+        assertEquals("ACME", decoded.symbol);
+        assertEquals(42, decoded.quantity);
+    }
+
+    @Test
+    void rejectsMalformedLengths() {
+        BinaryEventCodec codec = new BinaryEventCodec().allow(TradeEvent.class);
+        // format version, class name of length 2^28
+        ByteBuffer malformed = ByteBuffer.wrap(new byte[]{BinaryEventCodec.FORMAT_VERSION, 0, (byte) 0x80,
+                (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01});
+        assertThrows(EventBusException.class, () -> codec.decode(malformed));
+    }
+
+    @Test
+    void rejectsDeeplyNestedUnknownFields() {
+        BinaryEventCodec codec = new BinaryEventCodec().register(SlimTradeEvent.class, 1);
+        // every level is an unknown field holding an object of class id 1 with one more unknown field
+        int levels = 200_000;
+        ByteBuffer nested = ByteBuffer.allocate(2 + levels * 7 + 1);
+        nested.put(BinaryEventCodec.FORMAT_VERSION).put((byte) 1);
+        for (int i = 0; i < levels; i++) {
+            nested.put((byte) 1).putInt(0x7eadbeef).put((byte) 12).put((byte) 1);
+        }
+        nested.put((byte) 0).flip();
+        EventBusException e = assertThrows(EventBusException.class, () -> codec.decode(nested));
+        assertTrue(e.getMessage().contains("nested"));
+    }
+
+    private static Object roundTrip(BinaryEventCodec encoder, BinaryEventCodec decoder, Object event) {
+        ByteBuffer encoded = encoder.encode(event);
+        try {
+            return decoder.decode(encoded);
+        } finally {
+            encoder.release(encoded);
+        }
+    }
+
+    private static Holder holderOf(Object value) {
+        Holder holder = new Holder();
+        holder.value = value;
+        return holder;
+    }
+
+    public enum Side { BUY, SELL }
+
+    public static class Venue {
+        String name;
+    }
+
+    public static class TradeEvent {
+        long id;
+        int quantity;
+        double price;
+        boolean buy;
+        String symbol;
+        Side side;
+        byte[] payload;
+        Venue venue;
+        List<String> tags;
+        Map<String, Integer> attributes;
+        BigDecimal amount;
+        UUID trace;
+        String missing;
+
+        static TradeEvent sample() {
+            TradeEvent event = new TradeEvent();
+            event.id = -9_000_000_000L;
+            event.quantity = 42;
+            event.price = 12.5;
+            event.buy = true;
+            event.symbol = "ACME";
+            event.side = Side.SELL;
+            event.payload = new byte[]{1, 2, 3};
+            event.venue = new Venue();
+            event.venue.name = "XNAS";
+            event.tags = new ArrayList<>(Arrays.asList("a", "b"));
+            event.attributes = new HashMap<>();
+            event.attributes.put("lot", 100);
+            event.amount = new BigDecimal("525.00");
+            event.trace = UUID.randomUUID();
+            return event;
+        }
+    }
+
+    public static class SlimTradeEvent {
+        int quantity;
+        String symbol;
+    }
+
+    public static class Holder {
+        Object value;
+    }
+
+    public static class Untrusted {
+        int value = 1;
+    }
+
+    public static class Constructed {
+        public Constructed() {
+            CONSTRUCTED.set(true);
+        }
+    }
+
+}
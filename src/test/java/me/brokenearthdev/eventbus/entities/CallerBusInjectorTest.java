@@ -0,0 +1,133 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.annotations.CallerEventBus;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CallerBusInjectorTest {
+
+    @Test
+    void fieldsAreSetBeforeTheHandlersRun() {
+        for (EventBus<Object> bus : Arrays.<EventBus<Object>>asList(new EventBus<>(), new ConfinedEventBus<>())) {
+            List<EventBus<?>> seen = new ArrayList<>();
+            bus.subscribe(Injected.class, event -> seen.add(event.bus));
+            Injected event = new Injected();
+            bus.callEvent(event);
+            assertEquals(1, seen.size());
+            assertSame(bus, seen.get(0));
+            assertSame(bus, event.bus);
+        }
+    }
+
+    @Test
+    void inheritedAndNonPublicFieldsAreSet() {
+        EventBus<Object> bus = new EventBus<>();
+        bus.subscribe(Child.class, event -> {
+        });
+        Child event = new Child();
+        bus.callEvent(event);
+        assertSame(bus, event.parentBus());
+        assertSame(bus, event.childBus);
+        assertSame(bus, event.protectedBus);
+        // only annotated fields are set
+        assertNull(event.notAnnotated);
+    }
+
+    @Test
+    void invalidFieldsAreRejected() {
+        for (Class<?> type : Arrays.asList(StaticField.class, FinalField.class, NotABus.class)) {
+            assertThrows(EventBusException.class, () -> CallerBusInjector.of(type), type.getSimpleName());
+        }
+        EventBus<Object> bus = new EventBus<>();
+        bus.subscribe(Object.class, event -> {
+        });
+        assertThrows(EventBusException.class, () -> bus.callEvent(new NotABus()));
+    }
+
+    @Test
+    void invalidClassesAreOnlySearchedOnce() {
+        EventBusException first = assertThrows(EventBusException.class, () -> CallerBusInjector.of(FinalField.class));
+        EventBusException second = assertThrows(EventBusException.class, () -> CallerBusInjector.of(FinalField.class));
+        // both exceptions are caused by the failure cached on the first search
+        assertSame(first.getCause(), second.getCause());
+    }
+
+    @Test
+    void busesOfAnotherTypeAreRejected() {
+        EventBus<Object> bus = new EventBus<>();
+        bus.subscribe(Modifiable.class, event -> {
+        });
+        assertThrows(EventBusException.class, () -> bus.callEvent(new Modifiable()));
+        ModifiableEventBus<Object> modifiable = new ModifiableEventBus<>();
+        modifiable.subscribe(Modifiable.class, event -> {
+        });
+        Modifiable event = new Modifiable();
+        modifiable.callEvent(event);
+        assertSame(modifiable, event.bus);
+    }
+
+    public static class Injected {
+        @CallerEventBus
+        public EventBus<?> bus;
+    }
+
+    public static class Parent {
+        @CallerEventBus
+        private EventBus<?> parentBus;
+
+        EventBus<?> parentBus() {
+            return parentBus;
+        }
+    }
+
+    public static class Child extends Parent {
+        @CallerEventBus
+        EventBus<?> childBus;
+
+        @CallerEventBus
+        protected EventBus<?> protectedBus;
+
+        EventBus<?> notAnnotated;
+    }
+
+    public static class Modifiable {
+        @CallerEventBus
+        ModifiableEventBus<?> bus;
+    }
+
+    public static class StaticField {
+        @CallerEventBus
+        static EventBus<?> bus;
+    }
+
+    public static class FinalField {
+        @CallerEventBus
+        final EventBus<?> bus = null;
+    }
+
+    public static class NotABus {
+        @CallerEventBus
+        String bus;
+    }
+
+}
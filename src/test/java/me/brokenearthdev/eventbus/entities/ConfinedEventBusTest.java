@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.annotations.DelayedEvent;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfinedEventBusTest {
+
+    @Test
+    void callsHandlersAndStagesInOrder() {
+        ConfinedEventBus<Object> bus = new ConfinedEventBus<>();
+        List<String> seen = new ArrayList<>();
+        bus.addStage(event -> seen.add("stage " + event));
+        bus.subscribe(String.class, event -> seen.add("handler " + event));
+        bus.callEvent("a");
+        bus.callEvent("b");
+        assertEquals(Arrays.asList("stage a", "handler a", "stage b", "handler b"), seen);
+    }
+
+    @Test
+    void delayedEventsAreRejectedBeforeTheStages() {
+        ConfinedEventBus<Object> bus = new ConfinedEventBus<>();
+        List<Object> staged = new ArrayList<>();
+        bus.addStage(staged::add);
+        bus.subscribe(Delayed.class, event -> {
+        });
+        assertThrows(EventBusException.class, () -> bus.callEvent(new Delayed()));
+        assertTrue(staged.isEmpty());
+    }
+
+    @Test
+    void changedStagesAndRetainersAreSeenByTheNextEvent() {
+        ConfinedEventBus<Object> bus = new ConfinedEventBus<>();
+        bus.addPool(Move.class, new EventPool<>(Move::new, 8));
+        List<Object> staged = new ArrayList<>();
+        EventStage<Object> stage = staged::add;
+        bus.subscribe(Move.class, event -> {
+        });
+        Move first = bus.acquire(Move.class);
+        bus.callEvent(first);
+        assertTrue(staged.isEmpty());
+        assertSame(first, bus.acquire(Move.class));
+
+        bus.addStage(stage);
+        Object retainer = new Object();
+        bus.addRetainer(retainer);
+        bus.callEvent(first);
+        assertEquals(Arrays.asList(first), staged);
+        // a retained event isn't handed out again
+        assertNotSame(first, bus.acquire(Move.class));
+
+        bus.removeStage(stage);
+        bus.removeRetainer(retainer);
+        Move second = bus.acquire(Move.class);
+        bus.callEvent(second);
+        assertEquals(1, staged.size());
+        assertSame(second, bus.acquire(Move.class));
+    }
+
+    @Test
+    void retriesWithADelayAreRefused() {
+        ConfinedEventBus<Object> bus = new ConfinedEventBus<>();
+        assertThrows(EventBusException.class, () -> bus.setExceptionPolicy(ExceptionPolicy.retry(5, 1000)));
+
+        int[] attempts = new int[1];
+        bus.subscribe(String.class, event -> {
+            if (++attempts[0] < 3) throw new IllegalStateException("attempt " + attempts[0]);
+        });
+        bus.setExceptionPolicy(ExceptionPolicy.retry(5, 0));
+        bus.callEvent("a");
+        assertEquals(3, attempts[0]);
+
+        attempts[0] = 0;
+        bus.setExceptionPolicy(new ExceptionPolicy() {
+            @Override
+            public Resolution onException(ListenerErrorEvent error) {
+                return Resolution.RETRY;
+            }
+
+            @Override
+            public long getRetryDelay(ListenerErrorEvent error) {
+                return 1000;
+            }
+        });
+        assertThrows(EventBusException.class, () -> bus.callEvent("b"));
+        assertEquals(1, attempts[0]);
+    }
+
+    @DelayedEvent(100)
+    public static class Delayed {
+    }
+
+    public static class Move implements PooledEvent {
+
+        @Override
+        public void reset() {
+        }
+    }
+
+}
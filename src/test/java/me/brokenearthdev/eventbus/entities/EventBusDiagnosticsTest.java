@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.annotations.SubscribeEvent;
+import org.junit.jupiter.api.Test;
+
+import javax.management.Attribute;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventBusDiagnosticsTest {
+
+    @Test
+    void readingTheTableDoesntCreateIt() {
+        EventBus<Object> bus = new EventBus<>();
+        EventBusDiagnostics<Object> diagnostics = new EventBusDiagnostics<>(bus);
+        bus.register(new Listener());
+        assertNull(bus.caller.peekTable());
+        assertEquals(0, diagnostics.getHandlerCount());
+        assertEquals(0, diagnostics.getResolvedEventClassCount());
+        assertTrue(diagnostics.getDispatchTable().isEmpty());
+        assertNull(bus.caller.peekTable());
+
+        bus.callEvent("event");
+        assertEquals(1, diagnostics.getHandlerCount());
+        assertEquals(1, diagnostics.getResolvedEventClassCount());
+        assertEquals(Arrays.asList(Listener.class.getName() + "#onEvent(String)"),
+                diagnostics.getDispatchTable().get(String.class));
+    }
+
+    @Test
+    void retriesArePendingUntilTheyRun() throws InterruptedException {
+        EventBus<Object> bus = new EventBus<>();
+        EventBusDiagnostics<Object> diagnostics = new EventBusDiagnostics<>(bus);
+        bus.setExceptionPolicy(ExceptionPolicy.retry(2, 200));
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch retried = new CountDownLatch(1);
+        bus.subscribe(String.class, event -> {
+            if (attempts.incrementAndGet() == 1) throw new IllegalStateException();
+            retried.countDown();
+        });
+        bus.callEvent("event");
+        assertEquals(1, diagnostics.getPendingDelayedCount());
+        assertTrue(retried.await(10, TimeUnit.SECONDS));
+        assertEquals(0, diagnostics.getPendingDelayedCount());
+    }
+
+    @Test
+    void attributesAreReadableThroughJmx() throws JMException {
+        EventBus<Object> bus = new EventBus<>();
+        bus.register(new Listener());
+        bus.subscribe(Integer.class, event -> {
+        });
+        bus.addPool(Pooled.class, new EventPool<>(Pooled::new, 4));
+        EventBusDiagnostics<Object> diagnostics = new EventBusDiagnostics<>(bus);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = diagnostics.registerMBean("diagnostics-test");
+        try {
+            assertEquals(1, server.getAttribute(name, "RegisteredListenerCount"));
+            assertEquals(1, server.getAttribute(name, "SubscriptionCount"));
+            assertEquals(1, server.getAttribute(name, "PoolCount"));
+            assertEquals(false, server.getAttribute(name, "Profiling"));
+
+            server.setAttribute(name, new Attribute("Profiling", true));
+            assertTrue(diagnostics.isProfiling());
+            bus.callEvent("event");
+            assertEquals(1L, server.getAttribute(name, "ProfiledDispatchCount"));
+            assertEquals(2, server.getAttribute(name, "HandlerCount"));
+            assertArrayEquals(new String[]{"java.lang.String -> " + Listener.class.getName() + "#onEvent(String)"},
+                    (String[]) server.getAttribute(name, "DispatchTableSummary"));
+            String[] statistics = (String[]) server.getAttribute(name, "StatisticsSummary");
+            assertEquals(1, statistics.length);
+            assertTrue(statistics[0].startsWith(Listener.class.getName() + "#onEvent(String) invocations=1 "));
+
+            server.invoke(name, "resetStatistics", null, null);
+            assertEquals(0L, server.getAttribute(name, "ProfiledDispatchCount"));
+            server.setAttribute(name, new Attribute("Profiling", false));
+            assertFalse(diagnostics.isProfiling());
+        } finally {
+            diagnostics.unregisterMBean("diagnostics-test");
+        }
+        assertFalse(server.isRegistered(name));
+    }
+
+    public static class Listener {
+
+        @SubscribeEvent
+        public void onEvent(String event) {
+        }
+    }
+
+    public static class Pooled implements PooledEvent {
+
+        @Override
+        public void reset() {
+        }
+    }
+
+}
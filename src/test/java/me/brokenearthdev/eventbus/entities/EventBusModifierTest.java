@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.annotations.SubscribeEvent;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventBusModifierTest {
+
+    @Test
+    void everyEventSeesOneAnnotationSet() throws InterruptedException {
+        ModifiableEventBus<Object> bus = new ModifiableEventBus<>();
+        EventBusModifier modifier = new EventBusModifier(bus);
+        bus.register(new Listener());
+        Set<List<String>> valid = new HashSet<>(Arrays.asList(
+                Arrays.asList("subscribed1", "subscribed2"),
+                Arrays.asList("handled1", "handled2"),
+                Arrays.asList("handled1", "handled2", "subscribed1", "subscribed2")));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong calls = new AtomicLong();
+        List<List<String>> invalid = new CopyOnWriteArrayList<>();
+        List<Thread> callers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Thread caller = new Thread(() -> {
+                while (running.get()) {
+                    Probe probe = new Probe();
+                    bus.callEvent(probe);
+                    Collections.sort(probe.seen);
+                    if (!valid.contains(probe.seen)) invalid.add(probe.seen);
+                    calls.incrementAndGet();
+                }
+            });
+            caller.start();
+            callers.add(caller);
+        }
+        try {
+            for (int i = 0; i < 2000; i++) {
+                modifier.setEventAnnotations(Handles.class);
+                modifier.addEventAnnotation(SubscribeEvent.class);
+                modifier.removeEventAnnotation(Handles.class);
+                modifier.setEventAnnotations(SubscribeEvent.class, Handles.class);
+                modifier.setEventAnnotation(SubscribeEvent.class);
+            }
+        } finally {
+            running.set(false);
+            for (Thread caller : callers) caller.join();
+        }
+        assertTrue(calls.get() > 0);
+        assertTrue(invalid.isEmpty(), () -> "Events saw mixed handlers: " + invalid.subList(0, Math.min(5, invalid.size())));
+    }
+
+    @Test
+    void theLastAnnotationCantBeRemoved() {
+        ModifiableEventBus<Object> bus = new ModifiableEventBus<>();
+        EventBusModifier modifier = new EventBusModifier(bus);
+        Listener listener = new Listener();
+        bus.register(listener);
+        modifier.setEventAnnotations(SubscribeEvent.class, Handles.class);
+        modifier.removeEventAnnotation(Handles.class);
+        assertThrows(EventBusException.class, () -> modifier.removeEventAnnotation(SubscribeEvent.class));
+        assertThrows(EventBusException.class, modifier::setEventAnnotations);
+        // the bus still uses the remaining annotation
+        Probe probe = new Probe();
+        bus.callEvent(probe);
+        Collections.sort(probe.seen);
+        assertEquals(Arrays.asList("subscribed1", "subscribed2"), probe.seen);
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    public @interface Handles {
+    }
+
+    public static class Probe {
+        final List<String> seen = new ArrayList<>();
+    }
+
+    public static class Listener {
+
+        @SubscribeEvent
+        public void subscribed1(Probe probe) {
+            probe.seen.add("subscribed1");
+        }
+
+        @SubscribeEvent
+        public void subscribed2(Probe probe) {
+            probe.seen.add("subscribed2");
+        }
+
+        @Handles
+        public void handled1(Probe probe) {
+            probe.seen.add("handled1");
+        }
+
+        @Handles
+        public void handled2(Probe probe) {
+            probe.seen.add("handled2");
+        }
+    }
+
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.annotations.EventFilter;
+import me.brokenearthdev.eventbus.annotations.SubscribeEvent;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+import me.brokenearthdev.eventbus.utils.Predicate;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EventFilterTest {
+
+    @Test
+    void onlyMatchingEventsAreCalled() {
+        EventBus<Object> bus = new EventBus<>();
+        AccountListener listener = new AccountListener();
+        bus.register(listener);
+        for (int account = 40; account < 45; account++) bus.callEvent(new AccountEvent(account));
+        assertEquals(Arrays.asList(42), listener.called);
+    }
+
+    @Test
+    void handlersWithDifferentValuesOfTheSameField() {
+        EventBus<Object> bus = new EventBus<>();
+        RegionListener listener = new RegionListener();
+        bus.register(listener);
+        for (int account = 1; account <= 3; account++) bus.callEvent(new AccountEvent(account, Region.EU));
+        bus.callEvent(new AccountEvent(4, Region.US));
+        listener.called.sort(null);
+        assertEquals(Arrays.asList("any 1", "any 2", "any 3", "any 4", "eu 1", "eu 2", "eu 3", "one 1",
+                "two 2", "two again 2", "us 4"), listener.called);
+    }
+
+    @Test
+    void predicatesAreCombinedWithFields() {
+        EventBus<Object> bus = new EventBus<>();
+        PredicateListener listener = new PredicateListener();
+        bus.register(listener);
+        for (int account = 40; account < 45; account++) bus.callEvent(new AccountEvent(account));
+        listener.called.sort(null);
+        assertEquals(Arrays.asList("even 40", "even 42", "even 42 only", "even 44"), listener.called);
+    }
+
+    @Test
+    void functionalFiltersAreTestedBeforeTheConsumer() {
+        EventBus<Object> bus = new EventBus<>();
+        List<Integer> filtered = new ArrayList<>(), unfiltered = new ArrayList<>();
+        bus.subscribe(AccountEvent.class, event -> event.account > 41, event -> filtered.add(event.account));
+        bus.subscribe(AccountEvent.class, null, event -> unfiltered.add(event.account));
+        for (int account = 40; account < 44; account++) bus.callEvent(new AccountEvent(account));
+        assertEquals(Arrays.asList(42, 43), filtered);
+        assertEquals(Arrays.asList(40, 41, 42, 43), unfiltered);
+    }
+
+    @Test
+    void invalidFiltersFailWhenTheListenerRegisters() {
+        EventBus<Object> bus = new EventBus<>();
+        AccountListener valid = new AccountListener();
+        assertThrows(EventBusException.class, () -> bus.register(new MissingFieldListener()));
+        assertThrows(EventBusException.class, () -> bus.register(new BadValueListener()));
+        assertThrows(EventBusException.class, () -> bus.register(new BadPredicateListener()));
+        assertThrows(EventBusException.class, () -> bus.register(valid, new MissingFieldListener()));
+
+        // nothing of the rejected listeners was registered
+        bus.callEvent(new AccountEvent(42));
+        bus.register(valid);
+        bus.callEvent(new AccountEvent(42));
+        assertEquals(Arrays.asList(42), valid.called);
+    }
+
+    @Test
+    void invalidFiltersFailWhenTheEventAnnotationChanges() {
+        ModifiableEventBus<Object> bus = new ModifiableEventBus<>();
+        AccountListener listener = new AccountListener();
+        bus.register(listener, new OtherAnnotationListener());
+        EventBusModifier modifier = new EventBusModifier(bus);
+        assertThrows(EventBusException.class, () -> modifier.addEventAnnotation(Other.class));
+
+        // the bus still uses the previous annotation
+        bus.callEvent(new AccountEvent(42));
+        assertEquals(Arrays.asList(42), listener.called);
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    public @interface Other {
+    }
+
+    public enum Region {
+        EU, US
+    }
+
+    public static class AccountEvent {
+        final int account;
+        private final Region region;
+
+        AccountEvent(int account) {
+            this(account, Region.EU);
+        }
+
+        AccountEvent(int account, Region region) {
+            this.account = account;
+            this.region = region;
+        }
+    }
+
+    public static class RegionListener {
+        final List<String> called = new ArrayList<>();
+
+        @SubscribeEvent
+        @EventFilter(field = "account", value = "1")
+        public void one(AccountEvent event) {
+            called.add("one " + event.account);
+        }
+
+        @SubscribeEvent
+        @EventFilter(field = "account", value = "2")
+        public void two(AccountEvent event) {
+            called.add("two " + event.account);
+        }
+
+        @SubscribeEvent
+        @EventFilter(field = "account", value = "2")
+        public void twoAgain(AccountEvent event) {
+            called.add("two again " + event.account);
+        }
+
+        @SubscribeEvent
+        @EventFilter(field = "region", value = "EU")
+        public void eu(AccountEvent event) {
+            called.add("eu " + event.account);
+        }
+
+        @SubscribeEvent
+        @EventFilter(field = "region", value = "US")
+        public void us(AccountEvent event) {
+            called.add("us " + event.account);
+        }
+
+        @SubscribeEvent
+        public void any(AccountEvent event) {
+            called.add("any " + event.account);
+        }
+    }
+
+    public static class Even implements Predicate<AccountEvent> {
+        @Override
+        public boolean test(AccountEvent event) {
+            return event.account % 2 == 0;
+        }
+    }
+
+    public static class PredicateListener {
+        final List<String> called = new ArrayList<>();
+
+        @SubscribeEvent
+        @EventFilter(predicate = Even.class)
+        public void even(AccountEvent event) {
+            called.add("even " + event.account);
+        }
+
+        @SubscribeEvent
+        @EventFilter(field = "account", value = "42", predicate = Even.class)
+        public void evenAndField(AccountEvent event) {
+            called.add("even " + event.account + " only");
+        }
+    }
+
+    public static class NoConstructor implements Predicate<AccountEvent> {
+        NoConstructor(int ignored) {
+        }
+
+        @Override
+        public boolean test(AccountEvent event) {
+            return true;
+        }
+    }
+
+    public static class BadPredicateListener {
+        @SubscribeEvent
+        @EventFilter(predicate = NoConstructor.class)
+        public void onAccount(AccountEvent event) {
+        }
+    }
+
+    public static class AccountListener {
+        final List<Integer> called = new ArrayList<>();
+
+        @SubscribeEvent
+        @EventFilter(field = "account", value = "42")
+        public void onAccount(AccountEvent event) {
+            called.add(event.account);
+        }
+    }
+
+    public static class MissingFieldListener {
+        @SubscribeEvent
+        @EventFilter(field = "acount", value = "42")
+        public void onAccount(AccountEvent event) {
+        }
+    }
+
+    public static class BadValueListener {
+        @SubscribeEvent
+        @EventFilter(field = "account", value = "forty-two")
+        public void onAccount(AccountEvent event) {
+        }
+    }
+
+    public static class OtherAnnotationListener {
+        @Other
+        @EventFilter(field = "acount", value = "42")
+        public void onAccount(AccountEvent event) {
+        }
+    }
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+import me.brokenearthdev.eventbus.harness.EventRecorder;
+import me.brokenearthdev.eventbus.reactive.EventPublisher;
+import me.brokenearthdev.eventbus.reactive.EventSubscriber;
+import me.brokenearthdev.eventbus.reactive.OverflowStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EventPoolTest {
+
+    @Test
+    void calledEventsAreResetAndReused() {
+        EventBus<Object> bus = new EventBus<>();
+        EventPool<Move> pool = new EventPool<>(Move::new, 8);
+        bus.addPool(Move.class, pool);
+        List<Integer> seen = new ArrayList<>();
+        bus.subscribe(Move.class, event -> seen.add(event.x));
+
+        Move first = bus.acquire(Move.class);
+        first.x = 3;
+        bus.callEvent(first);
+        assertEquals(0, first.x);
+        for (int i = 0; i < 100; i++) {
+            Move event = bus.acquire(Move.class);
+            assertSame(first, event);
+            event.x = i;
+            bus.callEvent(event);
+        }
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(101, seen.size());
+        assertEquals(99, seen.get(100).intValue());
+    }
+
+    @Test
+    void eventsWithoutHandlersAreReleased() {
+        EventBus<Object> bus = new EventBus<>();
+        EventPool<Move> pool = new EventPool<>(Move::new, 8);
+        bus.addPool(Move.class, pool);
+        Move event = bus.acquire(Move.class);
+        bus.callEvent(event);
+        assertSame(event, bus.acquire(Move.class));
+        assertEquals(1, pool.getCreatedCount());
+    }
+
+    @Test
+    void debugModeDetectsUseAfterRelease() {
+        EventBus<Object> bus = new EventBus<>();
+        EventPool<Move> pool = new EventPool<>(Move::new, 8, true);
+        bus.addPool(Move.class, pool);
+        bus.subscribe(Move.class, event -> {
+        });
+        Move event = bus.acquire(Move.class);
+        bus.callEvent(event);
+        assertThrows(EventBusException.class, () -> bus.callEvent(event));
+        assertThrows(EventBusException.class, () -> pool.release(event));
+        // acquiring it again makes it usable
+        assertSame(event, bus.acquire(Move.class));
+        bus.callEvent(event);
+    }
+
+    @Test
+    void recordedEventsAreNotReleased() {
+        EventBus<Object> bus = new EventBus<>();
+        bus.addPool(Move.class, new EventPool<>(Move::new, 8, true));
+        EventRecorder<Object> recorder = new EventRecorder<>();
+        bus.addStage(recorder);
+        Move first = bus.acquire(Move.class);
+        first.x = 1;
+        bus.callEvent(first);
+        Move second = bus.acquire(Move.class);
+        assertNotSame(first, second);
+        second.x = 2;
+        bus.callEvent(second);
+        assertEquals(Arrays.asList(1, 2), xs(recorder));
+
+        bus.removeStage(recorder);
+        bus.callEvent(second);
+        assertEquals(0, second.x);
+        assertEquals(1, first.x);
+    }
+
+    @Test
+    void publishedEventsAreNotReleasedWhileSubscribed() {
+        EventBus<Object> bus = new EventBus<>();
+        bus.addPool(Move.class, new EventPool<>(Move::new, 8, true));
+        EventPublisher<Move> publisher = EventPublisher.of(bus, Move.class, 16, OverflowStrategy.DROP_LATEST);
+        EventBus<Object> other = new EventBus<>();
+        List<Integer> received = new ArrayList<>();
+        other.subscribe(Move.class, event -> received.add(event.x));
+        EventSubscriber<Object> subscriber = new EventSubscriber<>(other, 4);
+        publisher.subscribe(subscriber);
+        for (int i = 1; i <= 3; i++) {
+            Move event = bus.acquire(Move.class);
+            event.x = i;
+            bus.callEvent(event);
+        }
+        assertEquals(Arrays.asList(1, 2, 3), received);
+
+        publisher.close();
+        Move event = bus.acquire(Move.class);
+        event.x = 4;
+        bus.callEvent(event);
+        assertEquals(0, event.x);
+    }
+
+    @Test
+    void retainersOnlyKeepTheirEventClass() {
+        EventBus<Object> bus = new EventBus<>();
+        bus.addPool(Move.class, new EventPool<>(Move::new, 8, true));
+        bus.addPool(Jump.class, new EventPool<>(Jump::new, 8, true));
+        EventPublisher<Jump> publisher = EventPublisher.of(bus, Jump.class, 16, OverflowStrategy.DROP_LATEST);
+        publisher.subscribe(new EventSubscriber<>(new EventBus<>(), 4));
+        Move move = bus.acquire(Move.class);
+        bus.callEvent(move);
+        // only the published class is retained
+        assertSame(move, bus.acquire(Move.class));
+        Jump jump = bus.acquire(Jump.class);
+        bus.callEvent(jump);
+        assertNotSame(jump, bus.acquire(Jump.class));
+
+        Object retainer = new Object();
+        bus.addRetainer(retainer, PooledEvent.class);
+        bus.callEvent(move);
+        assertNotSame(move, bus.acquire(Move.class));
+        bus.removeRetainer(retainer);
+        bus.callEvent(move);
+        assertSame(move, bus.acquire(Move.class));
+        publisher.close();
+    }
+
+    @Test
+    void eventsDroppedByAFullPoolAreForgotten() {
+        EventBus<Object> bus = new EventBus<>();
+        EventPool<Move> pool = new EventPool<>(Move::new, 0, true);
+        bus.addPool(Move.class, pool);
+        bus.subscribe(Move.class, event -> {
+        });
+        List<Move> events = new ArrayList<>();
+        for (int i = 0; i < 32; i++) events.add(new Move());
+        for (Move event : events) pool.release(event);
+        // the thread keeps 16 of them and the others are left to the garbage collector
+        Move dropped = events.get(31);
+        bus.callEvent(dropped);
+        assertThrows(EventBusException.class, () -> pool.release(events.get(0)));
+    }
+
+    private static List<Integer> xs(EventRecorder<Object> recorder) {
+        List<Integer> xs = new ArrayList<>();
+        recorder.stop().getEvents().forEach(recorded -> xs.add(((Move) recorded.getEvent()).x));
+        return xs;
+    }
+
+    public static class Jump implements PooledEvent {
+
+        @Override
+        public void reset() {
+        }
+    }
+
+    public static class Move implements PooledEvent {
+        int x;
+
+        @Override
+        public void reset() {
+            x = 0;
+        }
+    }
+
+}
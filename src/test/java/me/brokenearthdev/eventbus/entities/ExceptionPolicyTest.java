@@ -0,0 +1,184 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.annotations.SubscribeEvent;
+import me.brokenearthdev.eventbus.exceptions.EventListenerException;
+import me.brokenearthdev.eventbus.utils.Consumer;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExceptionPolicyTest {
+
+    @Test
+    void backoffDoublesAndSaturates() {
+        ExceptionPolicy policy = ExceptionPolicy.retry(Integer.MAX_VALUE, 100);
+        assertEquals(100, policy.getRetryDelay(errorAt(1)));
+        assertEquals(200, policy.getRetryDelay(errorAt(2)));
+        assertEquals(100L << 20, policy.getRetryDelay(errorAt(21)));
+        for (int attempt = 50; attempt < 1000; attempt += 7) {
+            assertTrue(policy.getRetryDelay(errorAt(attempt)) > 0);
+        }
+        ExceptionPolicy large = ExceptionPolicy.retry(Integer.MAX_VALUE, Long.MAX_VALUE / 3);
+        assertEquals(Long.MAX_VALUE / 3, large.getRetryDelay(errorAt(1)));
+        assertTrue(large.getRetryDelay(errorAt(3)) > Long.MAX_VALUE / 2);
+        assertTrue(large.getRetryDelay(errorAt(Integer.MAX_VALUE)) > 0);
+    }
+
+    @Test
+    void retriesDontBlockTheCallingThread() throws InterruptedException {
+        EventBus<Object> bus = new EventBus<>();
+        bus.setExceptionPolicy(ExceptionPolicy.retry(3, 200));
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch succeeded = new CountDownLatch(1);
+        List<Object> others = new CopyOnWriteArrayList<>();
+        bus.subscribe(String.class, event -> {
+            if (attempts.incrementAndGet() < 3) throw new IllegalStateException("attempt " + attempts.get());
+            succeeded.countDown();
+        });
+        bus.subscribe(String.class, others::add);
+        long start = System.nanoTime();
+        bus.callEvent("event");
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(150));
+        assertEquals(1, others.size());
+        assertEquals(1, attempts.get());
+        assertTrue(succeeded.await(10, TimeUnit.SECONDS));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void pooledEventsAreReleasedAfterTheirRetries() throws InterruptedException {
+        EventBus<Object> bus = new EventBus<>();
+        bus.setExceptionPolicy(ExceptionPolicy.retry(2, 50));
+        bus.addPool(Counter.class, new EventPool<>(Counter::new, 4, true));
+        AtomicInteger attempts = new AtomicInteger();
+        List<Integer> values = new CopyOnWriteArrayList<>();
+        bus.subscribe(Counter.class, event -> {
+            values.add(event.value);
+            if (attempts.incrementAndGet() == 1) throw new IllegalStateException();
+        });
+        Counter event = bus.acquire(Counter.class);
+        event.value = 7;
+        bus.callEvent(event);
+        // the retry still needs the event, so it wasn't reset yet
+        assertEquals(7, event.value);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (event.value != 0 && System.nanoTime() < deadline) Thread.sleep(5);
+        assertEquals(0, event.value);
+        assertEquals(Arrays.asList(7, 7), values);
+    }
+
+    @Test
+    void failuresAreForgottenWhenHandlersAreRemoved() {
+        EventBus<Object> bus = new EventBus<>();
+        bus.setExceptionPolicy(ExceptionPolicy.continueAndReport());
+        Consumer<String> failing = event -> {
+            throw new IllegalStateException();
+        };
+        bus.subscribe(String.class, failing);
+        Failing first = new Failing(), second = new Failing();
+        bus.register(first, second);
+        bus.callEvent("event");
+        assertTrue(bus.caller.failures.containsKey(failing));
+        assertEquals(2, bus.caller.failures.get(Failing.METHOD).get());
+
+        bus.unsubscribe(failing);
+        assertFalse(bus.caller.failures.containsKey(failing));
+        bus.unregister(first);
+        // the other listener of the class still has the event method
+        assertTrue(bus.caller.failures.containsKey(Failing.METHOD));
+        bus.unregister(second);
+        assertTrue(bus.caller.failures.isEmpty());
+    }
+
+    @Test
+    void failingPredicatesAreHandledByThePolicy() {
+        for (EventBus<Object> bus : Arrays.<EventBus<Object>>asList(new EventBus<>(), new ConfinedEventBus<>())) {
+            bus.setExceptionPolicy(ExceptionPolicy.continueAndReport());
+            List<Object> seen = new CopyOnWriteArrayList<>();
+            List<Throwable> reported = new CopyOnWriteArrayList<>();
+            bus.subscribe(ListenerErrorEvent.class, error -> reported.add(error.getCause()));
+            bus.subscribe(String.class, event -> {
+                throw new IllegalStateException("predicate");
+            }, seen::add);
+            bus.subscribe(String.class, event -> seen.add("other " + event));
+            bus.callEvent("event");
+            // the remaining handlers still run and the failure is reported
+            assertEquals(Arrays.asList("other event"), seen);
+            assertEquals(1, reported.size());
+            assertEquals("predicate", reported.get(0).getMessage());
+
+            bus.setExceptionPolicy(ExceptionPolicy.abort());
+            assertThrows(EventListenerException.class, () -> bus.callEvent("event"));
+        }
+    }
+
+    @Test
+    void delayedRetriesRunOnADaemonThread() throws InterruptedException {
+        EventBus<Object> bus = new EventBus<>();
+        bus.setExceptionPolicy(ExceptionPolicy.retry(2, 10));
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch retried = new CountDownLatch(1);
+        List<Boolean> daemon = new CopyOnWriteArrayList<>();
+        bus.subscribe(String.class, event -> {
+            if (attempts.incrementAndGet() == 1) throw new IllegalStateException();
+            daemon.add(Thread.currentThread().isDaemon());
+            retried.countDown();
+        });
+        bus.callEvent("event");
+        assertTrue(retried.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(true), daemon);
+    }
+
+    private static ListenerErrorEvent errorAt(int attempt) {
+        return new ListenerErrorEvent(null, "event", null, null, new IllegalStateException(), attempt);
+    }
+
+    public static class Counter implements PooledEvent {
+        int value;
+
+        @Override
+        public void reset() {
+            value = 0;
+        }
+    }
+
+    public static class Failing {
+        static final Method METHOD;
+
+        static {
+            try {
+                METHOD = Failing.class.getMethod("onEvent", String.class);
+            } catch (NoSuchMethodException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        @SubscribeEvent
+        public void onEvent(String event) {
+            throw new IllegalStateException();
+        }
+    }
+
+}
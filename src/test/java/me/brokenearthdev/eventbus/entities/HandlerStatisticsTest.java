@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HandlerStatisticsTest {
+
+    @Test
+    void percentilesAreRoundedUpToPowersOfTwo() {
+        HandlerStatistics statistics = new HandlerStatistics("handler");
+        assertEquals(0, statistics.getLatencyPercentile(50));
+        for (int i = 0; i < 99; i++) statistics.record(100);
+        statistics.record(1_000_000);
+        assertEquals(100, statistics.getInvocationCount());
+        assertEquals(128, statistics.getLatencyPercentile(0));
+        assertEquals(128, statistics.getLatencyPercentile(50));
+        assertEquals(128, statistics.getLatencyPercentile(99));
+        assertEquals(1 << 20, statistics.getLatencyPercentile(99.5));
+        assertEquals(1 << 20, statistics.getLatencyPercentile(100));
+    }
+
+    @Test
+    void boundariesFallInTheNextBucket() {
+        HandlerStatistics statistics = new HandlerStatistics("handler");
+        statistics.record(64);
+        assertEquals(128, statistics.getLatencyPercentile(100));
+        statistics = new HandlerStatistics("handler");
+        statistics.record(63);
+        assertEquals(64, statistics.getLatencyPercentile(100));
+        // invocations measured as 0 or less count as 1 nanosecond
+        statistics = new HandlerStatistics("handler");
+        statistics.record(0);
+        statistics.record(-5);
+        assertEquals(2, statistics.getLatencyPercentile(100));
+        statistics = new HandlerStatistics("handler");
+        statistics.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, statistics.getLatencyPercentile(100));
+    }
+
+    @Test
+    void percentilesOutsideTheRangeAreRejected() {
+        HandlerStatistics statistics = new HandlerStatistics("handler");
+        assertThrows(IllegalArgumentException.class, () -> statistics.getLatencyPercentile(-1));
+        assertThrows(IllegalArgumentException.class, () -> statistics.getLatencyPercentile(100.5));
+    }
+
+    @Test
+    void concurrentRecordsAreAllCounted() throws InterruptedException {
+        HandlerStatistics statistics = new HandlerStatistics("handler");
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 100_000; j++) statistics.record(j);
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) thread.join();
+        assertEquals(400_000, statistics.getInvocationCount());
+        assertEquals(1 << 17, statistics.getLatencyPercentile(100));
+    }
+
+}
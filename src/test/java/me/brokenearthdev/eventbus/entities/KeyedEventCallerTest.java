@@ -0,0 +1,155 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.annotations.EventKey;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyedEventCallerTest {
+
+    private static final int KEYS = 64;
+
+    private static final int EVENTS_PER_KEY = 2_000;
+
+    @Test
+    void eventsWithEqualKeysAreCalledInOrder() throws Exception {
+        EventBus<Object> bus = new EventBus<>();
+        ConcurrentHashMap<Integer, Integer> last = new ConcurrentHashMap<>();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        bus.subscribe(AccountEvent.class, event -> {
+            Integer previous = last.put(event.account, event.sequence);
+            if (event.sequence != (previous == null ? 0 : previous + 1)) outOfOrder.incrementAndGet();
+        });
+        KeyedEventCaller<Object> caller = new KeyedEventCaller<>(bus, 8);
+        Thread[] producers = new Thread[4];
+        for (int p = 0; p < producers.length; p++) {
+            int first = p * KEYS / producers.length;
+            producers[p] = new Thread(() -> {
+                for (int i = 0; i < EVENTS_PER_KEY; i++) {
+                    for (int key = first; key < first + KEYS / producers.length; key++) {
+                        caller.callEvent(new AccountEvent(key, i));
+                    }
+                }
+            });
+            producers[p].start();
+        }
+        for (Thread producer : producers) producer.join();
+        caller.shutdown();
+        assertTrue(caller.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(0, outOfOrder.get());
+        assertEquals(KEYS, last.size());
+        for (int key = 0; key < KEYS; key++) {
+            assertEquals(EVENTS_PER_KEY - 1, (int) last.get(key));
+        }
+    }
+
+    @Test
+    void keyedEventInterfaceKeepsOrder() throws Exception {
+        EventBus<Object> bus = new EventBus<>();
+        StringBuffer seen = new StringBuffer();
+        bus.subscribe(NamedEvent.class, event -> seen.append(event.name));
+        KeyedEventCaller<Object> caller = new KeyedEventCaller<>(bus, 4);
+        for (char c = 'a'; c <= 'z'; c++) caller.callEvent(new NamedEvent("same", c));
+        caller.shutdown();
+        assertTrue(caller.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals("abcdefghijklmnopqrstuvwxyz", seen.toString());
+    }
+
+    @Test
+    void eventWithoutKeyIsRejected() {
+        KeyedEventCaller<Object> caller = new KeyedEventCaller<>(new EventBus<>(), 2);
+        assertThrows(EventBusException.class, () -> caller.callEvent(new Object()));
+        caller.shutdown();
+    }
+
+    @Test
+    void eventsAreRejectedAfterShutdown() throws Exception {
+        KeyedEventCaller<Object> caller = new KeyedEventCaller<>(new EventBus<>(), 2);
+        caller.shutdown();
+        assertThrows(EventBusException.class, () -> caller.callEvent(new AccountEvent(1, 0)));
+        assertTrue(caller.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void acceptedEventsAreNotLostWhenShutdownRaces() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            EventBus<Object> bus = new EventBus<>();
+            AtomicLong called = new AtomicLong();
+            bus.subscribe(AccountEvent.class, event -> called.incrementAndGet());
+            KeyedEventCaller<Object> caller = new KeyedEventCaller<>(bus, 2);
+            AtomicLong accepted = new AtomicLong();
+            CountDownLatch started = new CountDownLatch(1);
+            Thread producer = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; ; i++) {
+                    try {
+                        caller.callEvent(new AccountEvent(i & 7, i));
+                    } catch (EventBusException e) {
+                        return;
+                    }
+                    accepted.incrementAndGet();
+                }
+            });
+            producer.start();
+            started.await();
+            caller.shutdown();
+            producer.join();
+            assertTrue(caller.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(accepted.get(), called.get());
+            assertEquals(0, caller.getQueueDepth(0) + caller.getQueueDepth(1));
+        }
+    }
+
+    public static class AccountEvent {
+
+        @EventKey
+        private final int account;
+
+        private final int sequence;
+
+        AccountEvent(int account, int sequence) {
+            this.account = account;
+            this.sequence = sequence;
+        }
+
+    }
+
+    public static class NamedEvent implements KeyedEvent {
+
+        private final String key;
+
+        private final char name;
+
+        NamedEvent(String key, char name) {
+            this.key = key;
+            this.name = name;
+        }
+
+        @Override
+        public Object getEventKey() {
+            return key;
+        }
+
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.annotations.DelayedEvent;
+import me.brokenearthdev.eventbus.annotations.SubscribeEvent;
+import me.brokenearthdev.eventbus.bridge.SharedMemoryTransport;
+import me.brokenearthdev.eventbus.exceptions.EventListenerException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs against the packaged multi-release JAR (by the failsafe plugin in {@code mvn verify}),
+ * so that the classes of src/main/java11, java17 and java21 are used on the Java version
+ * running the tests. To test another Java version, pass its {@code java} to {@code -Dit.jvm}
+ */
+class MultiReleaseIT {
+
+    /**
+     * The Java version running the tests, such as 8 or 21
+     */
+    private static final int VERSION = version();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void versionedClassesAreLoadedOnTheirVersion() throws IOException {
+        checkVersioned("me/brokenearthdev/eventbus/bridge/RingHeader.class", 11);
+        checkVersioned("me/brokenearthdev/eventbus/entities/DispatchRecorder.class", 11);
+        checkVersioned("me/brokenearthdev/eventbus/entities/InvokerFactory.class", 17);
+        checkVersioned("me/brokenearthdev/eventbus/entities/DelayScheduler.class", 21);
+        checkVersioned("me/brokenearthdev/eventbus/entities/VirtualThreads.class", 21);
+    }
+
+    @Test
+    void registeredListenersAreInvoked() {
+        EventBus<Object> bus = new EventBus<>();
+        Listener listener = new Listener();
+        bus.register(listener);
+        bus.callEvent("event");
+        assertEquals(1, listener.events.size());
+        assertEquals("event", listener.events.get(0));
+        assertThrows(EventListenerException.class, () -> bus.callEvent(1));
+    }
+
+    @Test
+    void delayedEventsRunOnDaemonThreads() throws Exception {
+        EventBus<Object> bus = new EventBus<>();
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        CountDownLatch called = new CountDownLatch(1);
+        bus.subscribe(Delayed.class, event -> {
+            threads.add(Thread.currentThread());
+            called.countDown();
+        });
+        bus.callEvent(new Delayed());
+        assertTrue(called.await(10, TimeUnit.SECONDS));
+        Thread thread = threads.get(0);
+        assertTrue(thread.isDaemon());
+        if (VERSION >= 21) assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+    }
+
+    @Test
+    void eventsReleasedOnVirtualThreadsAreShared() throws Exception {
+        assumeTrue(VERSION >= 21);
+        EventPool<Pooled> pool = new EventPool<>(Pooled::new, 8, true);
+        Pooled[] released = new Pooled[1];
+        Runnable release = () -> {
+            released[0] = pool.acquire();
+            pool.release(released[0]);
+        };
+        Thread thread = (Thread) Thread.class.getMethod("startVirtualThread", Runnable.class).invoke(null, release);
+        thread.join();
+        // the virtual thread ended, so the event must be in the shared slots
+        assertSame(released[0], pool.acquire());
+    }
+
+    @Test
+    void profiledDispatchesAreCounted() {
+        EventBus<Object> bus = new EventBus<>();
+        bus.register(new Listener());
+        EventBusDiagnostics<Object> diagnostics = new EventBusDiagnostics<>(bus);
+        diagnostics.setProfiling(true);
+        bus.callEvent("event");
+        assertEquals(1, diagnostics.getProfiledDispatchCount());
+        assertEquals(1, diagnostics.getStatistics().get(0).getInvocationCount());
+    }
+
+    @Test
+    void sharedMemoryBatchesAreReceived() throws Exception {
+        try (SharedMemoryTransport first = new SharedMemoryTransport(directory, 64 * 1024);
+             SharedMemoryTransport second = new SharedMemoryTransport(directory, 64 * 1024)) {
+            second.receive(10, TimeUnit.MILLISECONDS);
+            first.send(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+            ByteBuffer batch = second.receive(5, TimeUnit.SECONDS);
+            assertNotNull(batch);
+            assertEquals(3, batch.remaining());
+        }
+    }
+
+    /**
+     * Checks that the specified class is loaded from the JAR, and from its versioned entry if
+     * the JAR has one and the running Java version is at least the specified version
+     *
+     * @param path The path of the class file
+     * @param version The version of the versioned entry
+     */
+    private static void checkVersioned(String path, int version) throws IOException {
+        URL url = MultiReleaseIT.class.getClassLoader().getResource(path);
+        assertNotNull(url, path);
+        assertEquals("jar", url.getProtocol(), "Integration tests must run against the packaged JAR");
+        JarURLConnection connection = (JarURLConnection) url.openConnection();
+        connection.setUseCaches(false);
+        boolean present;
+        try (JarFile jar = new JarFile(connection.getJarFileURL().getPath())) {
+            present = jar.getEntry("META-INF/versions/" + version + "/" + path) != null;
+        }
+        boolean expected = present && VERSION >= version;
+        assertEquals(expected, url.toString().contains("/META-INF/versions/" + version + "/"), url.toString());
+    }
+
+    private static int version() {
+        String version = System.getProperty("java.specification.version");
+        return Integer.parseInt(version.startsWith("1.") ? version.substring(2) : version);
+    }
+
+    public static class Listener {
+        final List<Object> events = new CopyOnWriteArrayList<>();
+
+        @SubscribeEvent
+        public void onEvent(String event) {
+            events.add(event);
+        }
+
+        @SubscribeEvent
+        public void onNumber(Integer event) {
+            throw new IllegalStateException();
+        }
+    }
+
+    @DelayedEvent(10)
+    public static class Delayed {
+    }
+
+    public static class Pooled implements PooledEvent {
+
+        @Override
+        public void reset() {
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.entities;
+
+import me.brokenearthdev.eventbus.annotations.SubscribeEvent;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SubscriberCacheTest {
+
+    @Test
+    void eachAnnotationHasItsOwnEntry() {
+        SubscriberMethod[] subscribed = SubscriberCache.getSubscribers(TwoAnnotations.class, SubscribeEvent.class);
+        SubscriberMethod[] handled = SubscriberCache.getSubscribers(TwoAnnotations.class, Handles.class);
+        assertEquals(Arrays.asList("both", "subscribed"), names(subscribed));
+        assertEquals(Arrays.asList("both", "handled"), names(handled));
+        // the second lookup of each annotation returns the cached methods
+        assertSame(subscribed, SubscriberCache.getSubscribers(TwoAnnotations.class, SubscribeEvent.class));
+        assertSame(handled, SubscriberCache.getSubscribers(TwoAnnotations.class, Handles.class));
+    }
+
+    @Test
+    void severalAnnotationsAreMergedWithoutDuplicates() {
+        List<Class<? extends Annotation>> annotations = Arrays.asList(SubscribeEvent.class, Handles.class);
+        SubscriberMethod[] merged = SubscriberCache.getSubscribers(TwoAnnotations.class, annotations);
+        assertEquals(Arrays.asList("both", "handled", "subscribed"), names(merged));
+        // the methods of the first annotation come first
+        assertEquals("handled", merged[2].method.getName());
+    }
+
+    @Test
+    void onlyPublicInstanceMethodsWithOneParameterAreEventMethods() {
+        assertEquals(Arrays.asList("inherited", "valid"),
+                names(SubscriberCache.getSubscribers(Mixed.class, SubscribeEvent.class)));
+    }
+
+    @Test
+    void busesWithAnotherAnnotationCallOtherMethods() {
+        TwoAnnotations listener = new TwoAnnotations();
+        ModifiableEventBus<Object> bus = new ModifiableEventBus<>();
+        new EventBusModifier(bus).setEventAnnotation(Handles.class);
+        bus.register(listener);
+        bus.callEvent("event");
+        listener.called.sort(null);
+        assertEquals(Arrays.asList("both", "handled"), listener.called);
+    }
+
+    /**
+     * @return The sorted names of the methods, since {@link Class#getMethods()} has no order
+     */
+    private static List<String> names(SubscriberMethod[] subscribers) {
+        List<String> names = new ArrayList<>();
+        for (SubscriberMethod subscriber : subscribers) names.add(subscriber.method.getName());
+        names.sort(null);
+        return names;
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    public @interface Handles {
+    }
+
+    public static class TwoAnnotations {
+        final List<String> called = new ArrayList<>();
+
+        @SubscribeEvent
+        public void subscribed(String event) {
+            called.add("subscribed");
+        }
+
+        @Handles
+        public void handled(String event) {
+            called.add("handled");
+        }
+
+        @SubscribeEvent
+        @Handles
+        public void both(String event) {
+            called.add("both");
+        }
+    }
+
+    public static class Base {
+        @SubscribeEvent
+        public void inherited(String event) {
+        }
+    }
+
+    public static class Mixed extends Base {
+        @SubscribeEvent
+        public void valid(String event) {
+        }
+
+        @SubscribeEvent
+        public static void staticMethod(String event) {
+        }
+
+        @SubscribeEvent
+        protected void protectedMethod(String event) {
+        }
+
+        @SubscribeEvent
+        void packageMethod(String event) {
+        }
+
+        @SubscribeEvent
+        private void privateMethod(String event) {
+        }
+
+        @SubscribeEvent
+        public void noParameters() {
+        }
+
+        @SubscribeEvent
+        public void twoParameters(String event, String other) {
+        }
+
+        public void notAnnotated(String event) {
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.harness;
+
+import me.brokenearthdev.eventbus.entities.EventBus;
+import me.brokenearthdev.eventbus.entities.EventStage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the events called on an {@link EventBus} with the time they were called. To record
+ * events, add the recorder as a stage:
+ * <pre>
+ *     EventRecorder&lt;Event&gt; recorder = new EventRecorder&lt;&gt;();
+ *     EVENT_BUS.addStage(recorder);
+ *     ...
+ *     EVENT_BUS.removeStage(recorder);
+ *     Recording recording = recorder.stop();
+ * </pre>
+ * The recorder keeps the event objects themselves, so events mustn't be modified while they
+ * are recorded. Pooled events aren't released while the recorder is added, since it
+ * {@link #retainsEvents() retains} them. Events called from several threads are recorded in
+ * the order they reached the recorder.
+ *
+ * @param <T> The type parameter of the {@link EventBus}
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public class EventRecorder<T> implements EventStage<T> {
+
+    /**
+     * The time the recorder was created
+     */
+    private final long start = System.nanoTime();
+
+    private final List<RecordedEvent> events = new ArrayList<>();
+
+    private boolean stopped;
+
+    @Override
+    public synchronized void onEvent(T event) {
+        if (!stopped) events.add(new RecordedEvent(System.nanoTime() - start, event));
+    }
+
+    @Override
+    public boolean retainsEvents() {
+        return true;
+    }
+
+    /**
+     * Stops recording
+     *
+     * @return The recorded events
+     */
+    public synchronized Recording stop() {
+        stopped = true;
+        return new Recording(new ArrayList<>(events));
+    }
+
+    /**
+     * @return The number of events recorded so far
+     */
+    public synchronized int getRecordedCount() {
+        return events.size();
+    }
+
+}
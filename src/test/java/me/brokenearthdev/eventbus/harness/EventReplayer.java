@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.harness;
+
+import me.brokenearthdev.eventbus.entities.EventBus;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Replays a {@link Recording} against an {@link EventBus} on the calling thread, in the order
+ * the events were recorded, and reports the throughput, latencies, garbage collections and
+ * threads of the run. The speed of a replay is
+ * <ul>
+ *     <li>1 to call the events with their original timing</li>
+ *     <li>Any other positive number to scale the timing; 2 calls the events twice as fast</li>
+ *     <li>{@link #MAXIMUM_SPEED} to call the events one after another without waiting</li>
+ * </ul>
+ * When the timing is kept, the latency of an event is measured from the time it was scheduled
+ * to be called, so a bus falling behind the schedule shows up in the latencies. At maximum
+ * speed, it is the time {@link EventBus#callEvent(Object)} took.
+ *
+ * The recorded event objects are called again on every replay, so replays are only repeatable
+ * if the event methods don't modify the events.
+ *
+ * @param <T> The type parameter of the {@link EventBus}
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public class EventReplayer<T> {
+
+    /**
+     * The speed calling the events one after another without waiting
+     */
+    public static final double MAXIMUM_SPEED = Double.POSITIVE_INFINITY;
+
+    private final EventBus<T> bus;
+
+    /**
+     * @param bus The bus the events are replayed on
+     */
+    public EventReplayer(EventBus<T> bus) {
+        Objects.requireNonNull(bus, "Parameter(s) can't be null");
+        this.bus = bus;
+    }
+
+    /**
+     * Replays the specified recording
+     *
+     * @param recording The recording
+     * @param speed The speed of the replay. Refer to {@link EventReplayer}
+     * @return The report of the replay
+     */
+    @SuppressWarnings("unchecked")
+    public HarnessReport replay(Recording recording, double speed) {
+        Objects.requireNonNull(recording, "Parameter(s) can't be null");
+        if (!(speed > 0))
+            throw new IllegalArgumentException("Speed must be positive");
+        List<RecordedEvent> events = recording.getEvents();
+        LatencyHistogram latencies = new LatencyHistogram();
+        RunMonitor monitor = new RunMonitor();
+        long start = System.nanoTime(), count = 0;
+        for (RecordedEvent event : events) {
+            long scheduled;
+            if (speed == MAXIMUM_SPEED) {
+                scheduled = System.nanoTime();
+            } else {
+                scheduled = start + (long) (event.getTimeNanos() / speed);
+                Pacer.awaitNanoTime(scheduled);
+            }
+            bus.callEvent((T) event.getEvent());
+            latencies.record(System.nanoTime() - scheduled);
+            if ((++count & LoadGenerator.SAMPLE_MASK) == 0) monitor.sample();
+        }
+        return monitor.finish(events.size(), latencies, 0);
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.harness;
+
+/**
+ * The results of a run of an {@link EventReplayer} or a {@link LoadGenerator}: throughput,
+ * latencies of the called events, garbage collections and threads
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public final class HarnessReport {
+
+    private final long events, elapsedNanos;
+    private final long p50, p90, p99, p999, max;
+    private final long gcCount, gcMillis;
+    private final int threadsBefore, threadsAfter, peakThreads;
+    private final long startedThreads;
+
+    HarnessReport(long events, long elapsedNanos, LatencyHistogram latencies, long gcCount, long gcMillis,
+                  int threadsBefore, int threadsAfter, int peakThreads, long startedThreads) {
+        this.events = events;
+        this.elapsedNanos = elapsedNanos;
+        this.p50 = latencies.percentile(50);
+        this.p90 = latencies.percentile(90);
+        this.p99 = latencies.percentile(99);
+        this.p999 = latencies.percentile(99.9);
+        this.max = latencies.percentile(100);
+        this.gcCount = gcCount;
+        this.gcMillis = gcMillis;
+        this.threadsBefore = threadsBefore;
+        this.threadsAfter = threadsAfter;
+        this.peakThreads = peakThreads;
+        this.startedThreads = startedThreads;
+    }
+
+    /**
+     * @return The number of called events
+     */
+    public long getEventCount() {
+        return events;
+    }
+
+    /**
+     * @return The number of nanoseconds the run took
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return The number of events called per second
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : events * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @param percentile 50, 90, 99, 99.9 or 100
+     * @return The number of nanoseconds the specified percentage of the events took at most.
+     * Refer to {@link EventReplayer} for what the latency of an event includes
+     */
+    public long getLatencyPercentile(double percentile) {
+        if (percentile == 50) return p50;
+        if (percentile == 90) return p90;
+        if (percentile == 99) return p99;
+        if (percentile == 99.9) return p999;
+        if (percentile == 100) return max;
+        throw new IllegalArgumentException("Percentile must be 50, 90, 99, 99.9 or 100");
+    }
+
+    /**
+     * @return The number of garbage collections during the run
+     */
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    /**
+     * @return The number of milliseconds spent collecting garbage during the run
+     */
+    public long getGcMillis() {
+        return gcMillis;
+    }
+
+    /**
+     * @return The number of live threads when the run started
+     */
+    public int getThreadsBefore() {
+        return threadsBefore;
+    }
+
+    /**
+     * @return The number of live threads when the run finished
+     */
+    public int getThreadsAfter() {
+        return threadsAfter;
+    }
+
+    /**
+     * @return The highest number of live threads sampled during the run
+     */
+    public int getPeakThreads() {
+        return peakThreads;
+    }
+
+    /**
+     * @return The number of threads started during the run, such as the {@link java.util.Timer}
+     * threads of delayed events
+     */
+    public long getStartedThreads() {
+        return startedThreads;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("events=%d elapsed=%.1fms throughput=%.0f/s latency p50=%dns p90=%dns p99=%dns "
+                        + "p99.9=%dns max=%dns gc=%d (%dms) threads=%d->%d peak=%d started=%d",
+                events, elapsedNanos / 1e6, getThroughput(), p50, p90, p99, p999, max, gcCount, gcMillis,
+                threadsBefore, threadsAfter, peakThreads, startedThreads);
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.harness;
+
+/**
+ * Counts latencies in buckets of 1/8 of a power of two nanoseconds, so percentiles are accurate
+ * to about 12%. Only used by one thread at a time
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+final class LatencyHistogram {
+
+    /**
+     * The number of buckets per power of two
+     */
+    private static final int SUB_BUCKETS = 8;
+
+    private final long[] counts = new long[64 * SUB_BUCKETS];
+    private long total, max;
+
+    /**
+     * @param nanos A latency
+     */
+    void record(long nanos) {
+        if (nanos < 1) nanos = 1;
+        counts[indexOf(nanos)]++;
+        total++;
+        if (nanos > max) max = nanos;
+    }
+
+    /**
+     * Adds the latencies recorded by another histogram
+     *
+     * @param other The other histogram
+     */
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @return The number of recorded latencies
+     */
+    long count() {
+        return total;
+    }
+
+    /**
+     * @param percentile The percentile, from 0 to 100
+     * @return The upper bound of the bucket containing the percentile, or 0 if nothing was recorded
+     */
+    long percentile(double percentile) {
+        if (total == 0) return 0;
+        if (percentile >= 100) return max;
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    private static int indexOf(long nanos) {
+        int power = 63 - Long.numberOfLeadingZeros(nanos);
+        if (power < 3) return (int) nanos;
+        int sub = (int) (nanos >>> (power - 3)) & (SUB_BUCKETS - 1);
+        return power * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS * 3) return index;
+        int power = index / SUB_BUCKETS, sub = index % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (power - 3)) - 1;
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.harness;
+
+import me.brokenearthdev.eventbus.entities.EventBus;
+import me.brokenearthdev.eventbus.utils.Consumer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A set of synthetic listeners to replay events against, such as "12 listeners of MoveEvent
+ * taking 2 microseconds each". Each listener is a consumer spinning for its work time, so the cost of the
+ * handlers is the same on every run. To use a topology, use
+ * <pre>
+ *     ListenerTopology&lt;Event&gt; topology = new ListenerTopology&lt;Event&gt;()
+ *             .add(MoveEvent.class, 12, 2_000)
+ *             .add(Event.class, 1, 0);
+ *     topology.apply(bus);
+ * </pre>
+ *
+ * @param <T> The type parameter of the {@link EventBus}
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public class ListenerTopology<T> {
+
+    /**
+     * The event class and the work time of each listener
+     */
+    private final List<Class<? extends T>> types = new ArrayList<>();
+    private final List<Long> works = new ArrayList<>();
+
+    /**
+     * The consumers subscribed by {@link #apply(EventBus)}
+     */
+    private final List<Consumer<Object>> subscribed = new ArrayList<>();
+
+    /**
+     * Adds listeners
+     *
+     * @param type The event class the listeners require
+     * @param listeners The number of listeners
+     * @param workNanos The number of nanoseconds each listener spins for every event
+     * @return This object
+     */
+    public ListenerTopology<T> add(Class<? extends T> type, int listeners, long workNanos) {
+        Objects.requireNonNull(type, "Parameter(s) can't be null");
+        if (listeners < 0 || workNanos < 0)
+            throw new IllegalArgumentException("Listeners and work can't be negative");
+        for (int i = 0; i < listeners; i++) {
+            types.add(type);
+            works.add(workNanos);
+        }
+        return this;
+    }
+
+    /**
+     * @return The number of listeners
+     */
+    public int size() {
+        return types.size();
+    }
+
+    /**
+     * Subscribes the listeners to the specified bus
+     *
+     * @param bus The bus
+     * @return This object
+     */
+    @SuppressWarnings("unchecked")
+    public ListenerTopology<T> apply(EventBus<T> bus) {
+        for (int i = 0; i < types.size(); i++) {
+            long work = works.get(i);
+            Consumer<Object> consumer = event -> spin(work);
+            subscribed.add(consumer);
+            bus.subscribe((Class<T>) types.get(i), (Consumer<T>) (Consumer<?>) consumer);
+        }
+        return this;
+    }
+
+    /**
+     * Unsubscribes the listeners subscribed by {@link #apply(EventBus)}
+     *
+     * @param bus The bus
+     * @return This object
+     */
+    public ListenerTopology<T> remove(EventBus<T> bus) {
+        for (Consumer<Object> consumer : subscribed) {
+            bus.unsubscribe(consumer);
+        }
+        subscribed.clear();
+        return this;
+    }
+
+    private static void spin(long nanos) {
+        if (nanos == 0) return;
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() - end < 0) {
+            // simulates the work of a listener
+        }
+    }
+
+}
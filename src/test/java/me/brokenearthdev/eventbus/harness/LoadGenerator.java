@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.harness;
+
+import me.brokenearthdev.eventbus.entities.EventBus;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+import me.brokenearthdev.eventbus.utils.Supplier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Calls synthetic events on an {@link EventBus} from several threads at a fixed rate, and
+ * reports the throughput, latencies, garbage collections and threads of the run. To generate
+ * load, use
+ * <pre>
+ *     LoadGenerator&lt;Event&gt; generator = new LoadGenerator&lt;&gt;(bus, MoveEvent::new);
+ *     HarnessReport report = generator.run(4, 200_000, 10_000);
+ * </pre>
+ * Each thread calls its share of the rate on a fixed schedule; latencies are measured from the
+ * time an event was scheduled to be called, like an {@link EventReplayer} keeping the original
+ * timing. To record the generated events, add an {@link EventRecorder} to the bus.
+ *
+ * @param <T> The type parameter of the {@link EventBus}
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public class LoadGenerator<T> {
+
+    /**
+     * The number of live threads is sampled once every {@code SAMPLE_MASK + 1} called events
+     */
+    static final long SAMPLE_MASK = 1023;
+
+    private final EventBus<T> bus;
+
+    /**
+     * Creates the called events
+     */
+    private final Supplier<? extends T> factory;
+
+    /**
+     * @param bus The bus the events are called on
+     * @param factory Creates the called events. Called by several threads at once
+     */
+    public LoadGenerator(EventBus<T> bus, Supplier<? extends T> factory) {
+        Objects.requireNonNull(bus, "Parameter(s) can't be null");
+        Objects.requireNonNull(factory, "Parameter(s) can't be null");
+        this.bus = bus;
+        this.factory = factory;
+    }
+
+    /**
+     * Calls events until the specified duration passed
+     *
+     * @param threads The number of threads calling events
+     * @param eventsPerSecond The total rate, or {@link EventReplayer#MAXIMUM_SPEED} to call
+     *                        events without waiting
+     * @param durationMillis The number of milliseconds to call events for
+     * @return The report of the run
+     */
+    public HarnessReport run(int threads, double eventsPerSecond, long durationMillis) {
+        if (threads <= 0 || !(eventsPerSecond > 0) || durationMillis <= 0)
+            throw new IllegalArgumentException("Threads, rate and duration must be positive");
+        long intervalNanos = eventsPerSecond == EventReplayer.MAXIMUM_SPEED ? 0
+                : Math.max(1, (long) (threads * 1e9 / eventsPerSecond));
+        LatencyHistogram[] histograms = new LatencyHistogram[threads];
+        long[] counts = new long[threads];
+        RuntimeException[] failures = new RuntimeException[threads];
+        List<Thread> workers = new ArrayList<>();
+        RunMonitor monitor = new RunMonitor();
+        long start = System.nanoTime(), end = start + durationMillis * 1_000_000;
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            histograms[i] = new LatencyHistogram();
+            Thread worker = new Thread(() -> {
+                LatencyHistogram latencies = histograms[index];
+                long count = 0;
+                try {
+                    // offsets the threads so their events are spread over the interval
+                    long scheduled = start + intervalNanos * index / threads;
+                    while (true) {
+                        if (intervalNanos == 0) {
+                            scheduled = System.nanoTime();
+                        } else {
+                            Pacer.awaitNanoTime(scheduled);
+                        }
+                        if (scheduled - end >= 0) break;
+                        bus.callEvent(factory.get());
+                        latencies.record(System.nanoTime() - scheduled);
+                        if ((++count & SAMPLE_MASK) == 0) monitor.sample();
+                        scheduled += intervalNanos;
+                    }
+                } catch (RuntimeException e) {
+                    failures[index] = e;
+                }
+                counts[index] = count;
+            }, "LoadGenerator-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        monitor.sample();
+        try {
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EventBusException("Interrupted while generating load", e);
+        }
+        LatencyHistogram latencies = new LatencyHistogram();
+        long events = 0;
+        for (int i = 0; i < threads; i++) {
+            if (failures[i] != null)
+                throw new EventBusException("A load generator thread failed", failures[i]);
+            latencies.add(histograms[i]);
+            events += counts[i];
+        }
+        return monitor.finish(events, latencies, threads);
+    }
+
+}
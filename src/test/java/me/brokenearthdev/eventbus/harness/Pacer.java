@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.harness;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Waits until the time an event is scheduled to be called
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+final class Pacer {
+
+    /**
+     * Waits shorter than this are spun instead of parked, since parking overshoots
+     */
+    private static final long SPIN_NANOS = 50_000;
+
+    private Pacer() {
+    }
+
+    /**
+     * @param target The {@link System#nanoTime()} to wait for
+     */
+    static void awaitNanoTime(long target) {
+        long remaining;
+        while ((remaining = target - System.nanoTime()) > 0) {
+            if (remaining > SPIN_NANOS * 2) {
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.harness;
+
+/**
+ * An event recorded by an {@link EventRecorder}, with the time it was called
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public final class RecordedEvent {
+
+    /**
+     * The number of nanoseconds between the start of the recording and the call
+     */
+    private final long timeNanos;
+
+    private final Object event;
+
+    RecordedEvent(long timeNanos, Object event) {
+        this.timeNanos = timeNanos;
+        this.event = event;
+    }
+
+    /**
+     * @return The number of nanoseconds between the start of the recording and the call
+     */
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    /**
+     * @return The recorded event
+     */
+    public Object getEvent() {
+        return event;
+    }
+
+    /**
+     * @return The class of the recorded event
+     */
+    public Class<?> getEventClass() {
+        return event.getClass();
+    }
+
+}
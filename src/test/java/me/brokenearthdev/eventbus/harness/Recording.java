@@ -0,0 +1,195 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.harness;
+
+import me.brokenearthdev.eventbus.codec.EventCodec;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A stream of events recorded by an {@link EventRecorder}, in the order they were called.
+ * A recording can be saved to a file using an {@link EventCodec} and loaded again, so that
+ * an event storm recorded in production can be replayed by an {@link EventReplayer} elsewhere.
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+public final class Recording {
+
+    /**
+     * Identifies recording files
+     */
+    private static final int MAGIC = 0x45565243;
+
+    /**
+     * The maximum size of one encoded event
+     */
+    private static final int MAX_EVENT_SIZE = 1 << 20;
+
+    private final List<RecordedEvent> events;
+
+    /**
+     * @param events The recorded events, in the order they were called
+     */
+    Recording(List<RecordedEvent> events) {
+        this.events = Collections.unmodifiableList(events);
+    }
+
+    /**
+     * @return The recorded events, in the order they were called
+     */
+    public List<RecordedEvent> getEvents() {
+        return events;
+    }
+
+    /**
+     * @return The number of recorded events
+     */
+    public int size() {
+        return events.size();
+    }
+
+    /**
+     * @return The number of nanoseconds between the start of the recording and the last event
+     */
+    public long getDurationNanos() {
+        return events.isEmpty() ? 0 : events.get(events.size() - 1).getTimeNanos();
+    }
+
+    /**
+     * @return The number of recorded events of each event class, in the order the classes
+     * were first called
+     */
+    public Map<Class<?>, Integer> getEventCounts() {
+        Map<Class<?>, Integer> counts = new LinkedHashMap<>();
+        for (RecordedEvent event : events) {
+            counts.merge(event.getEventClass(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Writes this recording to the specified file
+     *
+     * @param file The file to write. An existing file is replaced
+     * @param codec Encodes the events. The same codec must be used to load the recording
+     */
+    public void save(Path file, EventCodec codec) {
+        Objects.requireNonNull(file, "Parameter(s) can't be null");
+        Objects.requireNonNull(codec, "Parameter(s) can't be null");
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_EVENT_SIZE);
+        try (OutputStream stream = Files.newOutputStream(file);
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream))) {
+            output.writeInt(MAGIC);
+            output.writeInt(events.size());
+            for (RecordedEvent event : events) {
+                buffer.clear();
+                try {
+                    codec.encode(event.getEvent(), buffer);
+                } catch (BufferOverflowException e) {
+                    throw new EventBusException("Event " + event.getEventClass().getName() + " is bigger than "
+                            + MAX_EVENT_SIZE + " bytes");
+                }
+                output.writeLong(event.getTimeNanos());
+                output.writeInt(buffer.position());
+                output.write(buffer.array(), 0, buffer.position());
+            }
+        } catch (IOException e) {
+            throw new EventBusException("Couldn't save recording to " + file, e);
+        }
+    }
+
+    /**
+     * Reads a recording written by {@link #save(Path, EventCodec)}. The file may come from
+     * elsewhere, so it is checked before any event is decoded: every event must be trusted by
+     * the codec (see {@link EventCodec#canDecode(ByteBuffer)}), and sizes that don't fit the
+     * file are rejected. An event that doesn't decode to exactly its encoded bytes makes the
+     * whole recording fail
+     *
+     * @param file The file to read
+     * @param codec Decodes the events. Only the classes of the recorded events should be trusted
+     * @return The recording
+     * @throws EventBusException If the file isn't a recording, is corrupted or contains an event
+     * the codec doesn't trust
+     */
+    public static Recording load(Path file, EventCodec codec) {
+        Objects.requireNonNull(file, "Parameter(s) can't be null");
+        Objects.requireNonNull(codec, "Parameter(s) can't be null");
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream input = new DataInputStream(new BufferedInputStream(stream))) {
+            long remaining = Files.size(file) - 8;
+            if (input.readInt() != MAGIC)
+                throw new EventBusException(file + " isn't a recording");
+            int size = input.readInt();
+            // every event takes at least its time and length
+            if (size < 0 || size > remaining / 12)
+                throw new EventBusException(file + " is corrupted");
+            List<RecordedEvent> events = new ArrayList<>(size);
+            byte[] bytes = new byte[MAX_EVENT_SIZE];
+            for (int i = 0; i < size; i++) {
+                long time = input.readLong();
+                int length = input.readInt();
+                if (length < 0 || length > MAX_EVENT_SIZE)
+                    throw new EventBusException(file + " is corrupted");
+                input.readFully(bytes, 0, length);
+                events.add(new RecordedEvent(time, decode(file, codec, ByteBuffer.wrap(bytes, 0, length))));
+            }
+            return new Recording(events);
+        } catch (EOFException e) {
+            throw new EventBusException(file + " is truncated", e);
+        } catch (IOException e) {
+            throw new EventBusException("Couldn't load recording from " + file, e);
+        }
+    }
+
+    /**
+     * @param file The file the event was read from
+     * @param codec Decodes the event
+     * @param bytes The encoded event
+     * @return The decoded event
+     */
+    private static Object decode(Path file, EventCodec codec, ByteBuffer bytes) {
+        if (!codec.canDecode(bytes))
+            throw new EventBusException(file + " contains an event the codec doesn't trust");
+        Object event;
+        try {
+            event = codec.decode(bytes);
+        } catch (EventBusException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new EventBusException(file + " is corrupted", e);
+        }
+        if (bytes.hasRemaining())
+            throw new EventBusException(file + " is corrupted");
+        return event;
+    }
+
+}
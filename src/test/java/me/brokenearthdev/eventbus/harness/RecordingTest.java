@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.harness;
+
+import me.brokenearthdev.eventbus.codec.BinaryEventCodec;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecordingTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void savedRecordingsLoad() {
+        Path file = directory.resolve("storm.rec");
+        recording(new Move(1), new Move(2)).save(file, new BinaryEventCodec().allow(Move.class));
+        Recording loaded = Recording.load(file, new BinaryEventCodec().allow(Move.class));
+        assertEquals(2, loaded.size());
+        assertEquals(2, ((Move) loaded.getEvents().get(1).getEvent()).x);
+        assertEquals(20, loaded.getDurationNanos());
+    }
+
+    @Test
+    void untrustedEventsAreRejected() {
+        Path file = directory.resolve("storm.rec");
+        recording(new Move(1), new Other()).save(file, new BinaryEventCodec().allow(Move.class, Other.class));
+        EventBusException e = assertThrows(EventBusException.class,
+                () -> Recording.load(file, new BinaryEventCodec().allow(Move.class)));
+        assertTrue(e.getMessage().contains("doesn't trust"));
+    }
+
+    @Test
+    void corruptedFilesAreRejected() throws IOException {
+        Path file = directory.resolve("storm.rec");
+        BinaryEventCodec codec = new BinaryEventCodec().allow(Move.class);
+        recording(new Move(1)).save(file, codec);
+        byte[] bytes = Files.readAllBytes(file);
+
+        // an event count the file can't hold
+        byte[] count = bytes.clone();
+        ByteBuffer.wrap(count).putInt(4, Integer.MAX_VALUE);
+        assertThrows(EventBusException.class, () -> Recording.load(write(file, count), codec));
+        // an event length that is longer than the event
+        byte[] trailing = Arrays.copyOf(bytes, bytes.length + 1);
+        ByteBuffer.wrap(trailing).putInt(16, ByteBuffer.wrap(bytes).getInt(16) + 1);
+        assertThrows(EventBusException.class, () -> Recording.load(write(file, trailing), codec));
+        // an event that is cut off
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+        assertThrows(EventBusException.class, () -> Recording.load(write(file, truncated), codec));
+    }
+
+    private static Recording recording(Object... events) {
+        RecordedEvent[] recorded = new RecordedEvent[events.length];
+        for (int i = 0; i < events.length; i++) {
+            recorded[i] = new RecordedEvent(i * 20L, events[i]);
+        }
+        return new Recording(Arrays.asList(recorded));
+    }
+
+    private static Path write(Path file, byte[] bytes) throws IOException {
+        return Files.write(file, bytes);
+    }
+
+    public static class Move {
+        public int x;
+
+        public Move() {
+        }
+
+        Move(int x) {
+            this.x = x;
+        }
+    }
+
+    public static class Other {
+        public int y;
+    }
+
+}
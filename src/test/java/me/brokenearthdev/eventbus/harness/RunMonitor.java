@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.harness;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Samples the garbage collectors and threads of the JVM at the start and the end of a run.
+ * The peak thread count is the highest count {@link #sample() sampled} during the run; the
+ * peak of the {@link ThreadMXBean} isn't reset, since it belongs to the whole JVM
+ *
+ * @author BrokenEarth // BrokenEarthDev
+ * @version 1.0
+ * @since 4.1
+ */
+final class RunMonitor {
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final long startNanos, gcCount, gcMillis, startedThreads;
+    private final int liveThreads;
+    private final AtomicInteger peakThreads;
+
+    /**
+     * Takes the samples of the start of a run
+     */
+    RunMonitor() {
+        long count = 0, millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        this.gcCount = count;
+        this.gcMillis = millis;
+        this.startedThreads = threads.getTotalStartedThreadCount();
+        this.liveThreads = threads.getThreadCount();
+        this.peakThreads = new AtomicInteger(liveThreads);
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Samples the number of live threads during the run
+     */
+    void sample() {
+        peakThreads.accumulateAndGet(threads.getThreadCount(), Math::max);
+    }
+
+    /**
+     * Takes the samples of the end of the run
+     *
+     * @param events The number of called events
+     * @param latencies The latencies of the called events
+     * @param ownThreads The number of threads started by the harness itself, which aren't
+     *                   counted as started threads
+     * @return The report of the run
+     */
+    HarnessReport finish(long events, LatencyHistogram latencies, int ownThreads) {
+        long elapsed = System.nanoTime() - startNanos;
+        sample();
+        long count = 0, millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return new HarnessReport(events, elapsed, latencies, count - gcCount, millis - gcMillis,
+                liveThreads, threads.getThreadCount(), peakThreads.get(),
+                threads.getTotalStartedThreadCount() - startedThreads - ownThreads);
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.journal;
+
+import me.brokenearthdev.eventbus.entities.EventBus;
+import me.brokenearthdev.eventbus.exceptions.EventBusException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EventJournalTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysEveryAppendedEventAfterReopening() throws IOException {
+        List<Long> offsets = new ArrayList<>();
+        try (EventJournal<Object> journal = open()) {
+            for (int i = 0; i < 10; i++) offsets.add(journal.append("event-" + i));
+        }
+        try (EventJournal<Object> journal = open()) {
+            assertEquals(names(0, 10), replay(journal, 0));
+            assertEquals(names(7, 10), replay(journal, offsets.get(7)));
+        }
+    }
+
+    @Test
+    void recoversAfterTruncatedSegment() throws IOException {
+        List<Long> offsets = new ArrayList<>();
+        try (EventJournal<Object> journal = open()) {
+            for (int i = 0; i < 10; i++) offsets.add(journal.append("event-" + i));
+        }
+        // a crash while the 7th event was written leaves the file cut in the middle of it
+        try (FileChannel channel = FileChannel.open(segment(), StandardOpenOption.WRITE)) {
+            channel.truncate(offsets.get(6) + 12);
+        }
+        try (EventJournal<Object> journal = open()) {
+            assertEquals(offsets.get(6).longValue(), journal.getEndOffset());
+            assertEquals(names(0, 6), replay(journal, 0));
+            journal.append("after");
+            List<String> expected = new ArrayList<>(names(0, 6));
+            expected.add("after");
+            assertEquals(expected, replay(journal, 0));
+        }
+    }
+
+    @Test
+    void dropsEventsFromCorruptedChecksumOn() throws IOException {
+        List<Long> offsets = new ArrayList<>();
+        try (EventJournal<Object> journal = open()) {
+            for (int i = 0; i < 10; i++) offsets.add(journal.append("event-" + i));
+        }
+        // flip a byte of the 5th event so that its CRC no longer matches
+        try (FileChannel channel = FileChannel.open(segment(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            long position = offsets.get(4) + 8 + 10;
+            channel.read(one, position);
+            one.put(0, (byte) ~one.get(0));
+            one.rewind();
+            channel.write(one, position);
+        }
+        try (EventJournal<Object> journal = open()) {
+            assertEquals(offsets.get(4).longValue(), journal.getEndOffset());
+            assertEquals(names(0, 4), replay(journal, 0));
+            long offset = journal.append("after");
+            assertEquals(offsets.get(4).longValue(), offset);
+            assertEquals(Arrays.asList("after"), replay(journal, offset));
+        }
+    }
+
+    @Test
+    void replayedEventsAreNotAppendedAgain() throws IOException {
+        try (EventJournal<Object> journal = open()) {
+            journal.append("first");
+            EventBus<Object> bus = new EventBus<>();
+            bus.addStage(journal);
+            long end = journal.replay(0, bus);
+            assertEquals(end, journal.getEndOffset());
+            assertEquals(1, journal.getAppendedCount());
+        }
+    }
+
+    @Test
+    void replayRejectsCorruptedSealedSegments() throws IOException {
+        List<Long> offsets = new ArrayList<>();
+        try (EventJournal<Object> journal = open()) {
+            offsets.add(journal.append("event-0"));
+            offsets.add(journal.append("event-1"));
+        }
+        // an empty segment after the first one seals it, so it isn't checked when opened
+        Files.createFile(segment(SEGMENT_SIZE));
+        flip(segment(0), offsets.get(1) + 8 + 10);
+        try (EventJournal<Object> journal = open()) {
+            List<String> replayed = new ArrayList<>();
+            EventBus<Object> bus = new EventBus<>();
+            bus.subscribe(String.class, replayed::add);
+            assertThrows(EventBusException.class, () -> journal.replay(0, bus));
+            assertEquals(names(0, 1), replayed);
+        }
+    }
+
+    @Test
+    void replayRejectsOffsetsInsideEvents() throws IOException {
+        try (EventJournal<Object> journal = open()) {
+            long offset = journal.append("event-0");
+            journal.append("event-1");
+            assertThrows(EventBusException.class, () -> replay(journal, offset + 3));
+            assertThrows(EventBusException.class, () -> replay(journal, offset + 8));
+            assertEquals(names(0, 2), replay(journal, offset));
+        }
+    }
+
+    private static void flip(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, position);
+            one.put(0, (byte) ~one.get(0));
+            one.rewind();
+            channel.write(one, position);
+        }
+    }
+
+    private Path segment(long base) {
+        return directory.resolve(String.format("%020d.log", base));
+    }
+
+    private EventJournal<Object> open() {
+        return new EventJournal<>(directory, new JavaEventSerializer<>(), new JournalOptions()
+                .setSegmentSize(SEGMENT_SIZE)
+                .setMaxEventSize(4096)
+                .setSyncPolicy(SyncPolicy.NEVER));
+    }
+
+    private Path segment() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.log")) {
+            return files.iterator().next();
+        }
+    }
+
+    private static List<String> replay(EventJournal<Object> journal, long offset) {
+        List<String> replayed = new ArrayList<>();
+        EventBus<Object> bus = new EventBus<>();
+        bus.subscribe(String.class, replayed::add);
+        journal.replay(offset, bus);
+        return replayed;
+    }
+
+    private static List<String> names(int from, int to) {
+        List<String> names = new ArrayList<>();
+        for (int i = from; i < to; i++) names.add("event-" + i);
+        return names;
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2018 github.com/BrokenEarthDev
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package me.brokenearthdev.eventbus.reactive;
+
+import me.brokenearthdev.eventbus.entities.EventBus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventPublisherTest {
+
+    @Test
+    void eventsAreOnlySentWhenRequested() {
+        EventBus<Object> bus = new EventBus<>();
+        EventPublisher<Integer> publisher = EventPublisher.of(bus, Integer.class, 16, OverflowStrategy.ERROR);
+        Recorder recorder = new Recorder();
+        publisher.subscribe(recorder);
+        recorder.subscription.request(2);
+        for (int i = 1; i <= 5; i++) bus.callEvent(i);
+        assertEquals(Arrays.asList(1, 2), recorder.items);
+        recorder.subscription.request(2);
+        assertEquals(Arrays.asList(1, 2, 3, 4), recorder.items);
+        recorder.subscription.request(Long.MAX_VALUE);
+        bus.callEvent(6);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), recorder.items);
+        assertEquals(0, publisher.getDroppedCount());
+    }
+
+    @Test
+    void dropOldestKeepsTheNewestEvents() {
+        EventBus<Object> bus = new EventBus<>();
+        EventPublisher<Integer> publisher = EventPublisher.of(bus, Integer.class, 2, OverflowStrategy.DROP_OLDEST);
+        Recorder recorder = new Recorder();
+        publisher.subscribe(recorder);
+        for (int i = 1; i <= 5; i++) bus.callEvent(i);
+        assertEquals(3, publisher.getDroppedCount());
+        recorder.subscription.request(10);
+        assertEquals(Arrays.asList(4, 5), recorder.items);
+    }
+
+    @Test
+    void dropLatestKeepsTheOldestEvents() {
+        EventBus<Object> bus = new EventBus<>();
+        EventPublisher<Integer> publisher = EventPublisher.of(bus, Integer.class, 2, OverflowStrategy.DROP_LATEST);
+        Recorder recorder = new Recorder();
+        publisher.subscribe(recorder);
+        for (int i = 1; i <= 5; i++) bus.callEvent(i);
+        assertEquals(3, publisher.getDroppedCount());
+        recorder.subscription.request(10);
+        assertEquals(Arrays.asList(1, 2), recorder.items);
+    }
+
+    @Test
+    void blockWaitsForDemandWithoutDropping() throws InterruptedException {
+        EventBus<Object> bus = new EventBus<>();
+        EventPublisher<Integer> publisher = EventPublisher.of(bus, Integer.class, 1, OverflowStrategy.BLOCK);
+        Recorder recorder = new Recorder();
+        publisher.subscribe(recorder);
+        Thread caller = new Thread(() -> {
+            for (int i = 1; i <= 3; i++) bus.callEvent(i);
+        });
+        caller.start();
+        // the second event waits for room in the buffer, parked instead of spinning
+        long deadline = System.currentTimeMillis() + 5000;
+        while (caller.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(Thread.State.WAITING, caller.getState());
+        assertTrue(recorder.items.isEmpty());
+        recorder.subscription.request(10);
+        caller.join(5000);
+        assertFalse(caller.isAlive());
+        assertEquals(Arrays.asList(1, 2, 3), recorder.items);
+        assertEquals(0, publisher.getDroppedCount());
+    }
+
+    @Test
+    void cancellingReleasesABlockedCaller() throws InterruptedException {
+        EventBus<Object> bus = new EventBus<>();
+        EventPublisher<Integer> publisher = EventPublisher.of(bus, Integer.class, 1, OverflowStrategy.BLOCK);
+        Recorder recorder = new Recorder();
+        publisher.subscribe(recorder);
+        Thread caller = new Thread(() -> {
+            bus.callEvent(1);
+            bus.callEvent(2);
+        });
+        caller.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (caller.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        recorder.subscription.cancel();
+        caller.join(5000);
+        assertFalse(caller.isAlive());
+        assertEquals(0, publisher.getSubscriberCount());
+    }
+
+    @Test
+    void subscribersRacingCloseAreCompleted() throws InterruptedException {
+        for (int round = 0; round < 200; round++) {
+            EventBus<Object> bus = new EventBus<>();
+            EventPublisher<Integer> publisher = EventPublisher.of(bus, Integer.class, 4, OverflowStrategy.ERROR);
+            Recorder recorder = new Recorder();
+            CountDownLatch start = new CountDownLatch(1);
+            Thread subscriber = new Thread(() -> {
+                await(start);
+                publisher.subscribe(recorder);
+            });
+            subscriber.start();
+            start.countDown();
+            publisher.close();
+            subscriber.join(5000);
+            assertTrue(recorder.completed.await(5, TimeUnit.SECONDS), "round " + round);
+            assertEquals(0, publisher.getSubscriberCount());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Recorder implements Flow.Subscriber<Integer> {
+
+        private final List<Integer> items = new CopyOnWriteArrayList<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+
+}